@@ -0,0 +1,131 @@
+package com.app.project.benchmark;
+
+import com.app.project.dto.BatchOperationDto;
+import com.app.project.dto.BatchOperationType;
+import com.app.project.dto.BatchResultDto;
+import com.app.project.mapper.UserMapperImpl;
+import com.app.project.metrics.Metrics;
+import com.app.project.service.UserBatchServiceImpl;
+import com.app.project.service.UserServiceImpl;
+import com.app.project.storage.BirthDateCounts;
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.EmailIndex;
+import com.app.project.storage.NameIndex;
+import com.app.project.storage.UserStorage;
+import com.app.project.storage.UserStorageListener;
+import com.app.project.storage.persistence.WalSyncMode;
+import com.app.project.storage.persistence.WriteAheadLog;
+import jakarta.validation.Validation;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Creates {@link #BATCH_SIZE} users as one batch and as that many single-item batches, with
+ * and without a write-ahead log that syncs every write. Created users are removed after
+ * every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+    private static final int BATCH_SIZE = 100;
+    private static final int STORE_SIZE = 10_000;
+
+    @Param({"none", "write"})
+    private String walSyncMode;
+
+    private final AtomicLong requests = new AtomicLong();
+    private Path walDirectory;
+    private WriteAheadLog wal;
+    private UserStorage storage;
+    private UserBatchServiceImpl batchService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<UserStorageListener> listeners = new ArrayList<>();
+        BirthDateIndex birthDateIndex = new BirthDateIndex();
+        EmailIndex emailIndex = new EmailIndex();
+        NameIndex nameIndex = new NameIndex(2);
+        listeners.addAll(List.of(emailIndex, birthDateIndex, nameIndex, new BirthDateCounts()));
+        if ("write".equals(walSyncMode)) {
+            walDirectory = Files.createTempDirectory("batch-benchmark");
+            wal = new WriteAheadLog(walDirectory, WalSyncMode.WRITE, 10, 100);
+            listeners.add(wal);
+        }
+        storage = new ConcurrentUserStorage(listeners);
+        if (wal != null) {
+            wal.recover(storage, 0L);
+        }
+        for (long id = 1; id <= STORE_SIZE; id++) {
+            storage.put(BenchmarkUsers.user(id));
+        }
+        UserServiceImpl userService = new UserServiceImpl(new UserMapperImpl(), storage, birthDateIndex,
+                emailIndex, nameIndex, new Metrics());
+        ReflectionTestUtils.setField(userService, "acceptableAge", 18);
+        batchService = new UserBatchServiceImpl(userService, storage,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(batchService, "maxSize", BATCH_SIZE);
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeCreatedUsers() {
+        for (long id = storage.lastId(); id > STORE_SIZE; id--) {
+            storage.remove(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (wal != null) {
+            wal.close();
+            FileSystemUtils.deleteRecursively(walDirectory);
+        }
+    }
+
+    @Benchmark
+    public List<BatchResultDto> oneBatch() {
+        return batchService.apply(operations());
+    }
+
+    @Benchmark
+    public int singleItemBatches() {
+        int applied = 0;
+        for (BatchOperationDto operation : operations()) {
+            applied += batchService.apply(List.of(operation)).size();
+        }
+        return applied;
+    }
+
+    private List<BatchOperationDto> operations() {
+        return LongStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> new BatchOperationDto()
+                        .setOperation(BatchOperationType.CREATE)
+                        .setUser(BenchmarkUsers.request(requests.incrementAndGet())))
+                .toList();
+    }
+}
@@ -0,0 +1,129 @@
+package com.app.project.benchmark;
+
+import com.app.project.ProjectApplication;
+import com.app.project.dto.BatchOperationDto;
+import com.app.project.dto.BatchOperationType;
+import com.app.project.storage.UserStorage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * End-to-end ingest of {@link #BATCH_SIZE} users against a running server over loopback:
+ * one {@code POST /users/batch} against that many {@code POST /users} calls, without a
+ * write-ahead log and with the log in its default interval mode and syncing every write.
+ * Both rows create the same users, so their ratio is the ingest speedup of the batch
+ * endpoint. Created users are removed after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchHttpBenchmark {
+    private static final int BATCH_SIZE = 100;
+    private static final int STORE_SIZE = 10_000;
+
+    @Param({"none", "interval", "write"})
+    private String walSyncMode;
+
+    private final AtomicLong requests = new AtomicLong();
+    private Path dataDirectory;
+    private ConfigurableApplicationContext context;
+    private UserStorage storage;
+    private ObjectMapper objectMapper;
+    private HttpClient client;
+    private String baseUri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("batch-http-benchmark");
+        context = new SpringApplicationBuilder(ProjectApplication.class)
+                .properties("server.port=0",
+                        "storage.wal.enabled=" + !"none".equals(walSyncMode),
+                        "storage.wal.sync-mode=" + ("none".equals(walSyncMode) ? "interval" : walSyncMode),
+                        "storage.wal.directory=" + dataDirectory.resolve("wal"),
+                        "storage.snapshot.directory=" + dataDirectory.resolve("snapshots"),
+                        "admission.enabled=false",
+                        "logging.level.root=warn")
+                .run();
+        storage = context.getBean(UserStorage.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        for (long id = 1; id <= STORE_SIZE; id++) {
+            storage.put(BenchmarkUsers.user(id));
+        }
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUri = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/users";
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeCreatedUsers() {
+        for (long id = storage.lastId(); id > STORE_SIZE; id--) {
+            storage.remove(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        FileSystemUtils.deleteRecursively(dataDirectory.toFile());
+    }
+
+    @Benchmark
+    public int oneBatch() throws IOException, InterruptedException {
+        List<BatchOperationDto> operations = LongStream.range(0, BATCH_SIZE)
+                .mapToObj(i -> new BatchOperationDto()
+                        .setOperation(BatchOperationType.CREATE)
+                        .setUser(BenchmarkUsers.request(requests.incrementAndGet())))
+                .toList();
+        return post(baseUri + "/batch", objectMapper.writeValueAsBytes(operations));
+    }
+
+    @Benchmark
+    public int singleRequests() throws IOException, InterruptedException {
+        int status = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            status += post(baseUri, objectMapper.writeValueAsBytes(BenchmarkUsers.request(requests.incrementAndGet())));
+        }
+        return status;
+    }
+
+    private int post(String uri, byte[] body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("POST " + uri + " answered " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,36 @@
+package com.app.project.benchmark;
+
+import java.util.Arrays;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH suite once per thread count in {@code -Djmh.threads} with the gc profiler
+ * attached, writing {@code target/jmh-result-<threads>t.json} for each run. Any other JMH
+ * command line option (benchmark regexp, {@code -p storeSize=...}, {@code -f}, ...) is passed
+ * through:
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec -Djmh.threads=1,8 -Djmh.args="UserService -f 1"</pre>
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        int[] threadCounts = Arrays.stream(System.getProperty("jmh.threads", "1").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        for (int threads : threadCounts) {
+            new Runner(new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-result-" + threads + "t.json")
+                    .build())
+                    .run();
+        }
+    }
+}
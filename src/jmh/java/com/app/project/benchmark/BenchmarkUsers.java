@@ -0,0 +1,59 @@
+package com.app.project.benchmark;
+
+import com.app.project.dto.UserRequestDto;
+import com.app.project.model.User;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+final class BenchmarkUsers {
+    static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1940, 1, 1);
+    static final int BIRTH_DATE_SPREAD_DAYS = 25_000;
+
+    private BenchmarkUsers() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@gmail.com")
+                .firstName("FirstName" + id % 5_000)
+                .lastName("LastName" + id % 20_000)
+                .birthDate(FIRST_BIRTH_DATE.plusDays(id % BIRTH_DATE_SPREAD_DAYS))
+                .address("Kyiv, Khreshchatyk street " + id % 300)
+                .phoneNumber("+380" + (500_000_000 + id))
+                .build();
+    }
+
+    /**
+     * A user with closer to real-world cardinalities than {@link #user}: last names follow
+     * a skewed distribution over 150,000 names, so a few hundred common ones cover about
+     * half the users, and addresses combine 5,000 streets, 200 house numbers and an
+     * optional flat, so almost every user has their own. The same id always gives the same
+     * user.
+     */
+    static User realisticUser(long id) {
+        SplittableRandom random = new SplittableRandom(id);
+        long lastName = (long) (Math.pow(random.nextDouble(), 4) * 150_000);
+        String flat = random.nextBoolean() ? ", apt. " + random.nextInt(1, 300) : "";
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@gmail.com")
+                .firstName("FirstName" + random.nextInt(5_000))
+                .lastName("LastName" + lastName)
+                .birthDate(FIRST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATE_SPREAD_DAYS)))
+                .address("City " + random.nextInt(100) + ", Street " + random.nextInt(5_000) + " "
+                        + random.nextInt(1, 200) + flat)
+                .phoneNumber("+380" + (500_000_000 + id))
+                .build();
+    }
+
+    static UserRequestDto request(long n) {
+        return new UserRequestDto()
+                .setEmail("new.user" + n + "@gmail.com")
+                .setFirstName("FirstName" + n % 5_000)
+                .setLastName("LastName" + n % 20_000)
+                .setBirthDate(FIRST_BIRTH_DATE.plusDays(n % BIRTH_DATE_SPREAD_DAYS))
+                .setAddress("Kyiv, Khreshchatyk street " + n % 300)
+                .setPhoneNumber("+380" + (500_000_000 + n));
+    }
+}
@@ -0,0 +1,59 @@
+package com.app.project.benchmark;
+
+import com.app.project.validation.EmailValidator;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the scanner with the regular expression it replaced, compiled per call as the
+ * old validator did.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailValidatorBenchmark {
+    private static final String REGEX = "^(?=.{1,64}@)[A-Za-z0-9_-]+(\\.[A-Za-z0-9_-]+)"
+            + "*@[^-][A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)*(\\.[A-Za-z]{2,})$";
+
+    @Param({"valid", "invalidLocalPart", "invalidDomain", "longLocalPart", "adversarialDomain"})
+    private String input;
+
+    private final EmailValidator validator = new EmailValidator();
+    private String email;
+
+    @Setup
+    public void setUp() {
+        email = switch (input) {
+            case "valid" -> "john.smith_42@mail.example.com";
+            case "invalidLocalPart" -> "john..smith@mail.com";
+            case "invalidDomain" -> "john.smith@-mail.com";
+            case "longLocalPart" -> "a.".repeat(31) + "ab@mail.example.com";
+            case "adversarialDomain" -> "john@" + "ab.".repeat(2_000) + "a1";
+            default -> throw new IllegalArgumentException(input);
+        };
+    }
+
+    @Benchmark
+    public boolean scanner() {
+        return validator.isValid(email, null);
+    }
+
+    @Benchmark
+    public boolean regex() {
+        return Pattern.compile(REGEX).matcher(email).matches();
+    }
+}
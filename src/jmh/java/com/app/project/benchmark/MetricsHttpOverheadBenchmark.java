@@ -0,0 +1,88 @@
+package com.app.project.benchmark;
+
+import com.app.project.ProjectApplication;
+import com.app.project.storage.UserStorage;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end latency of cheap requests against a running server over loopback, with the
+ * request interceptor and service timing proxy switched on and off through
+ * {@code metrics.latency.enabled}. The client shares the machine with the server, so the
+ * difference between the two rows is what a request pays for being measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class MetricsHttpOverheadBenchmark {
+    private static final int USERS = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"true", "false"})
+    private boolean latencyMetrics;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUri;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProjectApplication.class)
+                .properties("server.port=0",
+                        "metrics.latency.enabled=" + latencyMetrics,
+                        "storage.wal.enabled=false",
+                        "admission.enabled=false",
+                        "logging.level.root=warn")
+                .run();
+        UserStorage storage = context.getBean(UserStorage.class);
+        for (long id = 1; id <= USERS; id++) {
+            storage.put(BenchmarkUsers.user(id));
+        }
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUri = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/users";
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getById() throws IOException, InterruptedException {
+        return send(baseUri + "/" + ThreadLocalRandom.current().nextLong(1, USERS + 1));
+    }
+
+    @Benchmark
+    public int getPage() throws IOException, InterruptedException {
+        return send(baseUri + "?limit=" + PAGE_SIZE + "&cursor="
+                + ThreadLocalRandom.current().nextLong(USERS - PAGE_SIZE));
+    }
+
+    private int send(String uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,95 @@
+package com.app.project.benchmark;
+
+import com.app.project.mapper.UserMapperImpl;
+import com.app.project.metrics.LatencyHistogram;
+import com.app.project.metrics.Metrics;
+import com.app.project.metrics.RequestMetricsInterceptor;
+import com.app.project.metrics.ServiceMetricsPostProcessor;
+import com.app.project.service.UserService;
+import com.app.project.service.UserServiceImpl;
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.EmailIndex;
+import com.app.project.storage.NameIndex;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Cost of the built-in instrumentation: one histogram update, the same service call with
+ * and without the timing proxy, and one request passing through the request interceptor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    private static final int USERS = 10_000;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private UserService plainService;
+    private UserService instrumentedService;
+    private RequestMetricsInterceptor interceptor;
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/42");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup
+    public void setUp() {
+        BirthDateIndex birthDateIndex = new BirthDateIndex();
+        EmailIndex emailIndex = new EmailIndex();
+        NameIndex nameIndex = new NameIndex(2);
+        ConcurrentUserStorage storage = new ConcurrentUserStorage(List.of(emailIndex, birthDateIndex, nameIndex));
+        for (long id = 1; id <= USERS; id++) {
+            storage.put(BenchmarkUsers.user(id));
+        }
+        Metrics metrics = new Metrics();
+        UserServiceImpl service = new UserServiceImpl(new UserMapperImpl(), storage, birthDateIndex, emailIndex,
+                nameIndex, metrics);
+        ReflectionTestUtils.setField(service, "acceptableAge", 18);
+        plainService = service;
+        instrumentedService = ServiceMetricsPostProcessor.instrument(service, UserService.class, metrics);
+        interceptor = new RequestMetricsInterceptor(metrics);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{id}");
+    }
+
+    @Benchmark
+    public void histogramRecord() {
+        histogram.record(ThreadLocalRandom.current().nextLong(1_000_000));
+    }
+
+    @Benchmark
+    public Object getByIdPlain() {
+        return plainService.getById(randomId());
+    }
+
+    @Benchmark
+    public Object getByIdInstrumented() {
+        return instrumentedService.getById(randomId());
+    }
+
+    @Benchmark
+    public void requestInterceptor() {
+        interceptor.preHandle(request, response, this);
+        interceptor.afterCompletion(request, response, this, null);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.project.benchmark;
+
+import com.app.project.dto.UserResponseDto;
+import com.app.project.mapper.UserMapperImpl;
+import com.app.project.mapper.UserProjection;
+import com.app.project.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Maps and serializes a wide list response in full and with {@code fields=id,email}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionBenchmark {
+    private static final int LIST_SIZE = 1_000;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final UserMapperImpl mapper = new UserMapperImpl();
+    private final UserProjection idAndEmail = UserProjection.of("id,email");
+    private final List<User> users = LongStream.rangeClosed(1, LIST_SIZE)
+            .mapToObj(BenchmarkUsers::user)
+            .toList();
+
+    @Benchmark
+    public byte[] allFields() throws JsonProcessingException {
+        List<UserResponseDto> page = users.stream().map(mapper::toDto).toList();
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] idAndEmail() throws JsonProcessingException {
+        List<UserResponseDto> page = users.stream().map(idAndEmail::toDto).toList();
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,84 @@
+package com.app.project.benchmark;
+
+import com.app.project.dto.UserFilterDto;
+import com.app.project.dto.UserPageDto;
+import com.app.project.mapper.UserMapperImpl;
+import com.app.project.mapper.UserProjection;
+import com.app.project.service.SegmentedScanner;
+import com.app.project.service.UserScanServiceImpl;
+import com.app.project.storage.ColumnarUserStorage;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.UserStorage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unindexed filter scans, sequential against segmented on {@code scanThreads} threads, over
+ * growing stores. The crossover is the smallest store size where the parallel scan wins;
+ * set {@code scan.parallel-threshold} near it for the host's core count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ScanBenchmark {
+    private static final int SEGMENT_SIZE = 65_536;
+    private static final int LIMIT = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    private int storeSize;
+    @Param({"concurrent", "columnar"})
+    private String storageType;
+    @Param({"sequential", "parallel"})
+    private String mode;
+    @Param({"4"})
+    private int scanThreads;
+
+    private SegmentedScanner scanner;
+    private UserScanServiceImpl scanService;
+    private final UserFilterDto noMatch = new UserFilterDto().setEmailDomain("example.org");
+    private final UserFilterDto rareMatch = new UserFilterDto().setPhonePrefix("+38050000");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserStorage storage = "columnar".equals(storageType)
+                ? new ColumnarUserStorage(List.of())
+                : new ConcurrentUserStorage(List.of());
+        for (long id = 1; id <= storeSize; id++) {
+            storage.put(BenchmarkUsers.user(id));
+        }
+        scanner = new SegmentedScanner(scanThreads, "parallel".equals(mode) ? 1 : 0,
+                SEGMENT_SIZE);
+        scanService = new UserScanServiceImpl(new UserMapperImpl(), storage, scanner);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scanner.close();
+    }
+
+    @Benchmark
+    public UserPageDto fullScanNoMatch() {
+        return scanService.filterUsers(noMatch, null, LIMIT, UserProjection.ALL);
+    }
+
+    @Benchmark
+    public UserPageDto fullScanRareMatch() {
+        return scanService.filterUsers(rareMatch, null, LIMIT, UserProjection.ALL);
+    }
+}
@@ -0,0 +1,90 @@
+package com.app.project.benchmark;
+
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.EmailIndex;
+import com.app.project.storage.UserStorage;
+import com.app.project.storage.persistence.SnapshotManager;
+import com.app.project.storage.persistence.WalSyncMode;
+import com.app.project.storage.persistence.WriteAheadLog;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares startup from a full log replay with startup from a snapshot plus an empty tail.
+ * Each startup is a single cold run, so this has its own main instead of a JMH harness.
+ * Pass the user counts to measure; 10M users needs roughly a 6 GB heap:
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec
+ *     -Dexec.args="-Xmx6g -cp %classpath com.app.project.benchmark.SnapshotStartupBenchmark 1000000 10000000"</pre>
+ */
+public class SnapshotStartupBenchmark {
+    public static void main(String[] args) throws IOException {
+        for (String arg : args.length == 0 ? new String[] {"1000000"} : args) {
+            run(Integer.parseInt(arg));
+        }
+    }
+
+    private static void run(int users) throws IOException {
+        Path directory = Files.createTempDirectory("snapshot-benchmark");
+        try {
+            try (WriteAheadLog wal = openWal(directory)) {
+                UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+                wal.recover(storage, 0L);
+                for (long id = 1; id <= users; id++) {
+                    storage.put(BenchmarkUsers.user(id));
+                }
+            }
+            long replayMs = startup(directory, false);
+
+            try (WriteAheadLog wal = openWal(directory); SnapshotManager snapshots = openSnapshots(directory)) {
+                UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+                wal.recover(storage, 0L);
+                snapshots.takeSnapshot(storage, wal);
+            }
+            System.gc();
+            long snapshotMs = startup(directory, true);
+
+            System.out.printf("users=%d log replay=%d ms snapshot load=%d ms snapshot size=%d MB%n", users,
+                    replayMs, snapshotMs, size(directory.resolve("snapshots")) / (1024 * 1024));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static long startup(Path directory, boolean fromSnapshot) throws IOException {
+        long startedAt = System.nanoTime();
+        try (WriteAheadLog wal = openWal(directory); SnapshotManager snapshots = openSnapshots(directory)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(new EmailIndex(), new BirthDateIndex(), wal));
+            long lsn = fromSnapshot ? snapshots.loadLatest(storage) : 0L;
+            wal.recover(storage, lsn);
+            storage.reindex();
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        }
+    }
+
+    private static WriteAheadLog openWal(Path directory) throws IOException {
+        return new WriteAheadLog(directory.resolve("wal"), WalSyncMode.RECORDS, 1_000, 100_000);
+    }
+
+    private static SnapshotManager openSnapshots(Path directory) throws IOException {
+        return new SnapshotManager(directory.resolve("snapshots"), Long.MAX_VALUE);
+    }
+
+    private static long size(Path path) throws IOException {
+        try (Stream<Path> files = Files.list(path)) {
+            return files.mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
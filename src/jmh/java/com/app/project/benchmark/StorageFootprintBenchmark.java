@@ -0,0 +1,53 @@
+package com.app.project.benchmark;
+
+import com.app.project.model.User;
+import com.app.project.storage.ColumnarUserStorage;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.UserFieldDictionary;
+import com.app.project.storage.UserStorage;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Measures retained heap per user for each storage implementation. Heap deltas don't fit
+ * the JMH harness, so this one has its own main; run it with a fixed heap, the user count
+ * and the data set, {@code repetitive} for {@link BenchmarkUsers#user} or {@code realistic}
+ * for {@link BenchmarkUsers#realisticUser}:
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec
+ *     -Dexec.args="-Xmx3g -cp %classpath com.app.project.benchmark.StorageFootprintBenchmark 1000000 realistic"</pre>
+ *
+ * <p>The repetitive set has only 20,000 last names and 300 addresses, so its deduplicated
+ * figure is a best case.
+ */
+public class StorageFootprintBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int users = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+        LongFunction<User> dataSet = args.length > 1 && "realistic".equals(args[1])
+                ? BenchmarkUsers::realisticUser
+                : BenchmarkUsers::user;
+        measure("concurrent", new ConcurrentUserStorage(), users, dataSet);
+        measure("deduped", new ConcurrentUserStorage(List.of(), new UserFieldDictionary(users)), users, dataSet);
+        measure("columnar", new ColumnarUserStorage(), users, dataSet);
+    }
+
+    private static void measure(String name, UserStorage storage, int users, LongFunction<User> dataSet)
+            throws InterruptedException {
+        long before = usedHeap();
+        for (long id = 1; id <= users; id++) {
+            storage.put(dataSet.apply(id));
+        }
+        long after = usedHeap();
+        System.out.printf("%-10s users=%d heap=%d MB bytes/user=%d%n", name, storage.size(),
+                (after - before) / (1024 * 1024), (after - before) / users);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
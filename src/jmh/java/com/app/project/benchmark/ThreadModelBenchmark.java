@@ -0,0 +1,116 @@
+package com.app.project.benchmark;
+
+import com.app.project.ProjectApplication;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application with platform or virtual request threads and drives it with a
+ * fixed number of concurrent clients, half creating users and half reading them. The log
+ * runs in {@code write} sync mode so every create blocks its thread on an fsync. Needs a
+ * Java 21 runtime for the virtual mode; arguments are {@code platform|virtual}, the client
+ * count and the duration in seconds. It measures a running server end to end, so it has its
+ * own main instead of a JMH harness:
+ *
+ * <pre>mvn -Pbenchmark test-compile exec:exec
+ *     -Dexec.args="-cp %classpath com.app.project.benchmark.ThreadModelBenchmark virtual 1000 20"</pre>
+ */
+public class ThreadModelBenchmark {
+    private static final int WARMUP_SECONDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = args.length > 0 && "virtual".equals(args[0]);
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        Path directory = Files.createTempDirectory("thread-model-benchmark");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProjectApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "storage.wal.enabled=true",
+                        "storage.wal.sync-mode=write",
+                        "storage.wal.sync-interval-ms=10",
+                        "storage.wal.sync-records=100",
+                        "storage.snapshot.interval-ms=600000",
+                        "storage.wal.directory=" + directory.resolve("wal"),
+                        "storage.snapshot.directory=" + directory.resolve("snapshots"),
+                        "logging.level.root=warn")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            load(client, port, clients, WARMUP_SECONDS);
+            long[] latencies = load(client, port, clients, seconds);
+            Arrays.sort(latencies);
+            System.out.printf("%s threads, %d clients: %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                    virtual ? "virtual" : "platform", clients, latencies.length / (double) seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1_000_000.0);
+        } finally {
+            try (var files = Files.walk(directory)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static long[] load(HttpClient client, int port, int clients, int seconds) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(clients);
+        AtomicLongArray latencies = new AtomicLongArray(4_000_000);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLong sequence = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            long n = sequence.incrementAndGet();
+            long startedAt = System.nanoTime();
+            CompletableFuture<HttpResponse<Void>> response =
+                    client.sendAsync(request(port, n), HttpResponse.BodyHandlers.discarding());
+            response.whenComplete((r, e) -> {
+                int index = completed.getAndIncrement();
+                if (e == null && index < latencies.length()) {
+                    latencies.set(index, System.nanoTime() - startedAt);
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(clients);
+        long[] result = new long[Math.min(completed.get(), latencies.length())];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = latencies.get(i);
+        }
+        return result;
+    }
+
+    private static HttpRequest request(int port, long n) {
+        String base = "http://localhost:" + port + "/users";
+        if (n % 2 == 0) {
+            return HttpRequest.newBuilder(URI.create(base + "/" + Math.max(1, n / 4))).GET().build();
+        }
+        String body = "{\"email\":\"user" + n + "@mail.com\",\"firstName\":\"First\",\"lastName\":\"Last\","
+                + "\"birthDate\":\"1990-01-01\"}";
+        return HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, sorted.length * percentile)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.app.project.benchmark;
+
+import com.app.project.dto.UserRequestDto;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.mapper.UserMapperImpl;
+import com.app.project.model.User;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+    private final UserMapperImpl mapper = new UserMapperImpl();
+    private final UserRequestDto request = BenchmarkUsers.request(42L);
+    private final User user = BenchmarkUsers.user(42L);
+
+    @Benchmark
+    public User toModel() {
+        return mapper.toModel(request);
+    }
+
+    @Benchmark
+    public UserResponseDto toDto() {
+        return mapper.toDto(user);
+    }
+}
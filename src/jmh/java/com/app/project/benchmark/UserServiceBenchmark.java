@@ -0,0 +1,140 @@
+package com.app.project.benchmark;
+
+import com.app.project.dto.BirthDateGrouping;
+import com.app.project.dto.BirthDateStatsDto;
+import com.app.project.dto.UserPageDto;
+import com.app.project.dto.UserRequestDto;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.mapper.UserMapperImpl;
+import com.app.project.mapper.UserProjection;
+import com.app.project.metrics.Metrics;
+import com.app.project.service.UserServiceImpl;
+import com.app.project.service.UserStatsServiceImpl;
+import com.app.project.storage.BirthDateCounts;
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.ColumnarUserStorage;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.EmailIndex;
+import com.app.project.storage.NameIndex;
+import com.app.project.storage.UserStorage;
+import com.app.project.storage.UserStorageListener;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Service hot paths against a pre-filled store. Users created by {@link #create()} are
+ * removed after every iteration, so the store keeps its configured size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UserServiceBenchmark {
+    private static final int RANGE_DAYS = 30;
+    private static final int PAGE_SIZE = 100;
+    private static final int SEARCH_LIMIT = 20;
+    private static final int AGE_BAND_WIDTH = 5;
+
+    @Param({"10000", "1000000"})
+    private int storeSize;
+    @Param({"concurrent", "columnar"})
+    private String storageType;
+
+    private final AtomicLong requests = new AtomicLong();
+    private UserStorage storage;
+    private UserServiceImpl userService;
+    private UserStatsServiceImpl userStatsService;
+    private long lastPreloadedId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BirthDateIndex birthDateIndex = new BirthDateIndex();
+        EmailIndex emailIndex = new EmailIndex();
+        NameIndex nameIndex = new NameIndex(2);
+        BirthDateCounts birthDateCounts = new BirthDateCounts();
+        List<UserStorageListener> listeners = List.of(emailIndex, birthDateIndex, nameIndex, birthDateCounts);
+        storage = "columnar".equals(storageType)
+                ? new ColumnarUserStorage(listeners)
+                : new ConcurrentUserStorage(listeners);
+        for (long id = 1; id <= storeSize; id++) {
+            storage.put(BenchmarkUsers.user(id));
+        }
+        lastPreloadedId = storage.lastId();
+        userService = new UserServiceImpl(new UserMapperImpl(), storage, birthDateIndex, emailIndex,
+                nameIndex, new Metrics());
+        ReflectionTestUtils.setField(userService, "acceptableAge", 18);
+        userStatsService = new UserStatsServiceImpl(birthDateCounts, 18);
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeCreatedUsers() {
+        for (long id = storage.lastId(); id > lastPreloadedId; id--) {
+            storage.remove(id);
+        }
+    }
+
+    @Benchmark
+    public UserResponseDto create() {
+        UserRequestDto request = BenchmarkUsers.request(requests.incrementAndGet());
+        return userService.create(request);
+    }
+
+    @Benchmark
+    public UserResponseDto getById() {
+        return userService.getById(ThreadLocalRandom.current().nextLong(1, storeSize + 1));
+    }
+
+    @Benchmark
+    public List<UserResponseDto> findAllByRange() {
+        LocalDate from = BenchmarkUsers.FIRST_BIRTH_DATE.plusDays(
+                ThreadLocalRandom.current().nextInt(BenchmarkUsers.BIRTH_DATE_SPREAD_DAYS - RANGE_DAYS));
+        return userService.findAllByRange(from, from.plusDays(RANGE_DAYS));
+    }
+
+    @Benchmark
+    public List<UserResponseDto> searchByPrefix() {
+        return userService.search("LastName" + ThreadLocalRandom.current().nextInt(2_000), SEARCH_LIMIT,
+                UserProjection.ALL);
+    }
+
+    @Benchmark
+    public List<UserResponseDto> searchWithTypo() {
+        return userService.search("Lsatname" + ThreadLocalRandom.current().nextInt(10_000, 20_000), SEARCH_LIMIT,
+                UserProjection.ALL);
+    }
+
+    @Benchmark
+    public BirthDateStatsDto countByYear() {
+        return userStatsService.countByBirthDate(BirthDateGrouping.YEAR, AGE_BAND_WIDTH, LocalDate.now());
+    }
+
+    @Benchmark
+    public BirthDateStatsDto countByAgeBand() {
+        return userStatsService.countByBirthDate(BirthDateGrouping.AGE_BAND, AGE_BAND_WIDTH, LocalDate.now());
+    }
+
+    @Benchmark
+    public UserPageDto findAllUsers() {
+        long cursor = ThreadLocalRandom.current().nextLong(Math.max(1, storeSize - PAGE_SIZE));
+        return userService.findAllUsers(String.valueOf(cursor), PAGE_SIZE, UserProjection.ALL);
+    }
+}
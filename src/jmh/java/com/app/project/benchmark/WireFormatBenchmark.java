@@ -0,0 +1,88 @@
+package com.app.project.benchmark;
+
+import com.app.project.binary.UserBinaryReader;
+import com.app.project.binary.UserBinaryWriter;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.mapper.UserMapperImpl;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encodes and decodes a list response as JSON and as the binary user format. Payload
+ * sizes of both are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final TypeReference<List<UserResponseDto>> USER_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000"})
+    private int users;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<UserResponseDto> page;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        UserMapperImpl mapper = new UserMapperImpl();
+        page = LongStream.rangeClosed(1, users)
+                .mapToObj(id -> mapper.toDto(BenchmarkUsers.user(id)))
+                .toList();
+        json = encodeJson();
+        binary = encodeBinary();
+        System.out.printf("%n%d users: json %d bytes, binary %d bytes (%.1f%%)%n", users, json.length,
+                binary.length, 100.0 * binary.length / json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        objectMapper.writeValue(out, page);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UserBinaryWriter writer = new UserBinaryWriter(out);
+        for (UserResponseDto user : page) {
+            writer.write(user);
+        }
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public List<UserResponseDto> decodeJson() throws IOException {
+        return objectMapper.readValue(json, USER_LIST);
+    }
+
+    @Benchmark
+    public List<UserResponseDto> decodeBinary() throws IOException {
+        return UserBinaryReader.readAll(binary);
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.project.admission;
+
+import com.app.project.exception.AdmissionRejectedException;
+import com.app.project.metrics.Metrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Sheds requests to {@link Admission} handlers once their endpoint class has as many in
+ * flight as its {@link AimdLimiter} allows. Rejected requests never reach the handler and
+ * get a 503 with {@code Retry-After} right away instead of queueing behind the ones that
+ * are already slow. Each class has its own limit, so a flood of scans can't starve point
+ * reads or writes.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+    private static final String CLASS_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".class";
+    private final Map<EndpointClass, AimdLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, LongAdder> rejections = new EnumMap<>(EndpointClass.class);
+    private final Map<Method, Optional<EndpointClass>> classByMethod = new ConcurrentHashMap<>();
+    private final Duration retryAfter;
+    private final boolean enabled;
+
+    public AdmissionControlInterceptor(Metrics metrics,
+                                       @Value("${admission.enabled}") boolean enabled,
+                                       @Value("${admission.min-limit}") int minLimit,
+                                       @Value("${admission.backoff-ratio}") double backoffRatio,
+                                       @Value("${admission.retry-after-seconds}") long retryAfterSeconds,
+                                       @Value("${admission.point-read.max-limit}") int pointReadMaxLimit,
+                                       @Value("${admission.point-read.target-latency-ms}") long pointReadTargetMs,
+                                       @Value("${admission.scan.max-limit}") int scanMaxLimit,
+                                       @Value("${admission.scan.target-latency-ms}") long scanTargetMs,
+                                       @Value("${admission.write.max-limit}") int writeMaxLimit,
+                                       @Value("${admission.write.target-latency-ms}") long writeTargetMs) {
+        this.enabled = enabled;
+        this.retryAfter = Duration.ofSeconds(retryAfterSeconds);
+        limiters.put(EndpointClass.POINT_READ, new AimdLimiter(minLimit, pointReadMaxLimit,
+                TimeUnit.MILLISECONDS.toNanos(pointReadTargetMs), backoffRatio));
+        limiters.put(EndpointClass.SCAN, new AimdLimiter(minLimit, scanMaxLimit,
+                TimeUnit.MILLISECONDS.toNanos(scanTargetMs), backoffRatio));
+        limiters.put(EndpointClass.WRITE, new AimdLimiter(minLimit, writeMaxLimit,
+                TimeUnit.MILLISECONDS.toNanos(writeTargetMs), backoffRatio));
+        limiters.forEach((endpointClass, limiter) -> {
+            String label = endpointClass.name().toLowerCase(Locale.ROOT);
+            metrics.gauge("admission_limit", "Concurrency limit per endpoint class",
+                    limiter::limit, "class", label);
+            metrics.gauge("admission_in_flight", "Admitted requests in flight per endpoint class",
+                    limiter::inFlight, "class", label);
+            rejections.put(endpointClass, metrics.counter("admission_rejected_total",
+                    "Requests shed per endpoint class", "class", label));
+        });
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        EndpointClass endpointClass = classByMethod.computeIfAbsent(handlerMethod.getMethod(),
+                        method -> Optional.ofNullable(handlerMethod.getMethodAnnotation(Admission.class))
+                                .map(Admission::value))
+                .orElse(null);
+        if (endpointClass == null) {
+            return true;
+        }
+        if (!limiters.get(endpointClass).tryAcquire()) {
+            rejections.get(endpointClass).increment();
+            throw new AdmissionRejectedException("Too many concurrent "
+                    + endpointClass.name().toLowerCase(Locale.ROOT) + " requests", retryAfter);
+        }
+        request.setAttribute(CLASS_ATTRIBUTE, endpointClass);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(CLASS_ATTRIBUTE) instanceof EndpointClass endpointClass
+                && request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            request.removeAttribute(CLASS_ATTRIBUTE);
+            limiters.get(endpointClass).release(start, System.nanoTime());
+        }
+    }
+
+    public AimdLimiter limiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+}
@@ -0,0 +1,5 @@
+package com.app.project.admission;
+
+public enum EndpointClass {
+    POINT_READ, SCAN, WRITE
+}
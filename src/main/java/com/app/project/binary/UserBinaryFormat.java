@@ -0,0 +1,31 @@
+package com.app.project.binary;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Compact, schema-based encoding of a sequence of {@link com.app.project.dto.UserResponseDto}.
+ * A body is the 4-byte header {@code 'U' 'S' 'R' version} followed by one record per user
+ * until the end of the stream, so it can be written while users are still being read.
+ *
+ * <p>A record starts with one byte of presence bits, one per field in schema order, and
+ * then holds only the present fields: the id as an unsigned varint, the birth date as a
+ * zigzag varint epoch day, and every string as a varint byte length followed by UTF-8.
+ * Field names never travel; both sides know the schema from the version byte.
+ */
+public final class UserBinaryFormat {
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.app.users+binary";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    static final byte[] MAGIC = {'U', 'S', 'R'};
+    static final byte VERSION = 1;
+    static final int ID = 1;
+    static final int EMAIL = 1 << 1;
+    static final int FIRST_NAME = 1 << 2;
+    static final int LAST_NAME = 1 << 3;
+    static final int BIRTH_DATE = 1 << 4;
+    static final int ADDRESS = 1 << 5;
+    static final int PHONE_NUMBER = 1 << 6;
+    static final int ALL_FIELDS = (1 << 7) - 1;
+
+    private UserBinaryFormat() {
+    }
+}
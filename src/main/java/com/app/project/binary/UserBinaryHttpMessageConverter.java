@@ -0,0 +1,105 @@
+package com.app.project.binary;
+
+import com.app.project.dto.UserResponseDto;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Writes lists and streams of {@link UserResponseDto} as {@link UserBinaryFormat} when the
+ * client asks for {@link UserBinaryFormat#MEDIA_TYPE}. Registered after the JSON converter,
+ * so JSON stays the default for clients that accept any type. Streams are written as they
+ * are consumed and closed afterwards, like the JSON converter does.
+ */
+public class UserBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public UserBinaryHttpMessageConverter() {
+        super(UserBinaryFormat.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz) || Stream.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    /**
+     * Without a generic type the element type is unknown, so only lists and streams that
+     * are known to hold users are written.
+     */
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return canWrite(null, clazz, mediaType);
+    }
+
+    /**
+     * Spring asks for the producible types with the runtime class of the body only; the
+     * element type is checked later through {@link #canWrite(Type, Class, MediaType)}.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && isUserSequence(type != null ? ResolvableType.forType(type)
+                : ResolvableType.forClass(clazz));
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Binary user bodies are response only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Binary user bodies are response only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        UserBinaryWriter writer = new UserBinaryWriter(outputMessage.getBody());
+        if (body instanceof Stream<?> stream) {
+            try (stream) {
+                write(writer, stream.iterator());
+            }
+        } else {
+            write(writer, ((Collection<?>) body).iterator());
+        }
+        writer.flush();
+    }
+
+    private static void write(UserBinaryWriter writer, Iterator<?> users) throws IOException {
+        while (users.hasNext()) {
+            writer.write((UserResponseDto) users.next());
+        }
+    }
+
+    private static boolean isUserSequence(ResolvableType type) {
+        ResolvableType sequence = type.as(Stream.class);
+        if (sequence == ResolvableType.NONE) {
+            sequence = type.as(Collection.class);
+        }
+        Class<?> element = sequence.getGeneric(0).resolve();
+        return element != null && UserResponseDto.class.isAssignableFrom(element);
+    }
+}
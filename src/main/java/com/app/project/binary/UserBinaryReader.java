@@ -0,0 +1,140 @@
+package com.app.project.binary;
+
+import com.app.project.dto.UserResponseDto;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client-side decoder for {@link UserBinaryFormat}. Depends only on the JDK and
+ * {@link UserResponseDto}, and reads through its own buffer, so any input stream works
+ * without wrapping. Not thread-safe.
+ */
+public class UserBinaryReader {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_VARINT_SHIFT = 63;
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    public UserBinaryReader(InputStream in) throws IOException {
+        this(in, new byte[BUFFER_SIZE], 0, 0);
+    }
+
+    private UserBinaryReader(InputStream in, byte[] buffer, int position, int limit) throws IOException {
+        this.in = in;
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+        for (byte b : UserBinaryFormat.MAGIC) {
+            if (readByte() != b) {
+                throw new IOException("Not a binary user stream");
+            }
+        }
+        int version = readByte();
+        if (version != UserBinaryFormat.VERSION) {
+            throw new IOException("Unsupported binary user format version " + version);
+        }
+    }
+
+    public static List<UserResponseDto> readAll(byte[] bytes) throws IOException {
+        return readAll(new UserBinaryReader(InputStream.nullInputStream(), bytes, 0, bytes.length));
+    }
+
+    public static List<UserResponseDto> readAll(InputStream in) throws IOException {
+        return readAll(new UserBinaryReader(in));
+    }
+
+    /**
+     * The next user, or null at the end of the stream.
+     */
+    public UserResponseDto read() throws IOException {
+        if (position == limit && !fill()) {
+            return null;
+        }
+        int presence = buffer[position++] & 0xFF;
+        if ((presence & ~UserBinaryFormat.ALL_FIELDS) != 0) {
+            throw new IOException("Unknown fields in binary user record: " + presence);
+        }
+        UserResponseDto user = new UserResponseDto();
+        if ((presence & UserBinaryFormat.ID) != 0) {
+            user.setId(readVarint());
+        }
+        user.setEmail(readString(presence, UserBinaryFormat.EMAIL));
+        user.setFirstName(readString(presence, UserBinaryFormat.FIRST_NAME));
+        user.setLastName(readString(presence, UserBinaryFormat.LAST_NAME));
+        if ((presence & UserBinaryFormat.BIRTH_DATE) != 0) {
+            long zigzag = readVarint();
+            user.setBirthDate(LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1)));
+        }
+        user.setAddress(readString(presence, UserBinaryFormat.ADDRESS));
+        user.setPhoneNumber(readString(presence, UserBinaryFormat.PHONE_NUMBER));
+        return user;
+    }
+
+    private static List<UserResponseDto> readAll(UserBinaryReader reader) throws IOException {
+        List<UserResponseDto> users = new ArrayList<>();
+        for (UserResponseDto user = reader.read(); user != null; user = reader.read()) {
+            users.add(user);
+        }
+        return users;
+    }
+
+    private String readString(int presence, int field) throws IOException {
+        if ((presence & field) == 0) {
+            return null;
+        }
+        long length = readVarint();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Binary user string of " + length + " bytes is too long");
+        }
+        int size = (int) length;
+        if (limit - position >= size) {
+            String value = new String(buffer, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+        byte[] bytes = new byte[size];
+        int copied = limit - position;
+        System.arraycopy(buffer, position, bytes, 0, copied);
+        position = limit;
+        if (in.readNBytes(bytes, copied, size - copied) != size - copied) {
+            throw new EOFException("Truncated binary user record");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift <= MAX_VARINT_SHIFT; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in binary user record");
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit && !fill()) {
+            throw new EOFException("Truncated binary user record");
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package com.app.project.binary;
+
+import com.app.project.dto.UserResponseDto;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the header on construction and then one record per {@link #write(UserResponseDto)}
+ * through an internal buffer, so the output stream sees a few large writes. Not thread-safe.
+ */
+public class UserBinaryWriter implements Flushable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_VARINT_BYTES = 10;
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    public UserBinaryWriter(OutputStream out) throws IOException {
+        this.out = out;
+        for (byte b : UserBinaryFormat.MAGIC) {
+            buffer[position++] = b;
+        }
+        buffer[position++] = UserBinaryFormat.VERSION;
+    }
+
+    public void write(UserResponseDto user) throws IOException {
+        ensureCapacity(1 + MAX_VARINT_BYTES * 2);
+        int presence = (user.getId() == null ? 0 : UserBinaryFormat.ID)
+                | (user.getEmail() == null ? 0 : UserBinaryFormat.EMAIL)
+                | (user.getFirstName() == null ? 0 : UserBinaryFormat.FIRST_NAME)
+                | (user.getLastName() == null ? 0 : UserBinaryFormat.LAST_NAME)
+                | (user.getBirthDate() == null ? 0 : UserBinaryFormat.BIRTH_DATE)
+                | (user.getAddress() == null ? 0 : UserBinaryFormat.ADDRESS)
+                | (user.getPhoneNumber() == null ? 0 : UserBinaryFormat.PHONE_NUMBER);
+        buffer[position++] = (byte) presence;
+        if (user.getId() != null) {
+            putVarint(user.getId());
+        }
+        writeString(user.getEmail());
+        writeString(user.getFirstName());
+        writeString(user.getLastName());
+        if (user.getBirthDate() != null) {
+            ensureCapacity(MAX_VARINT_BYTES);
+            long epochDay = user.getBirthDate().toEpochDay();
+            putVarint((epochDay << 1) ^ (epochDay >> 63));
+        }
+        writeString(user.getAddress());
+        writeString(user.getPhoneNumber());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(MAX_VARINT_BYTES);
+        putVarint(bytes.length);
+        if (bytes.length > buffer.length - position) {
+            drain();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
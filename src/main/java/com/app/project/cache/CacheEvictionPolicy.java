@@ -0,0 +1,14 @@
+package com.app.project.cache;
+
+public enum CacheEvictionPolicy {
+    /**
+     * Evicts entries in insertion order.
+     */
+    FIFO,
+    /**
+     * Second chance: an entry read since it was last considered for eviction goes back to
+     * the end of the queue once, approximating LRU without any bookkeeping on reads beyond
+     * setting a flag.
+     */
+    CLOCK
+}
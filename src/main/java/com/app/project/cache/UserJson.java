@@ -0,0 +1,4 @@
+package com.app.project.cache;
+
+public record UserJson(long version, byte[] json) {
+}
@@ -0,0 +1,119 @@
+package com.app.project.cache;
+
+import com.app.project.metrics.Metrics;
+import com.app.project.model.User;
+import com.app.project.storage.UserStorageListener;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of serialized user responses and their versions by id, invalidated by every committed change
+ * of that id. A loader result is only cached if no change of the id's stripe was committed
+ * while it was loading, so a read racing with a write can't leave a stale entry behind.
+ */
+@Component
+public class UserJsonCache implements UserStorageListener {
+    private static final int STRIPES = 64;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> evictionQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLongArray commits = new AtomicLongArray(STRIPES);
+    private final int maxEntries;
+    private final CacheEvictionPolicy evictionPolicy;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    public UserJsonCache(@Value("${cache.user-json.max-entries}") int maxEntries,
+                         @Value("${cache.user-json.eviction}") CacheEvictionPolicy evictionPolicy,
+                         Metrics metrics) {
+        this.maxEntries = maxEntries;
+        this.evictionPolicy = evictionPolicy;
+        this.hits = metrics.counter("user_json_cache_hits_total", "Responses served from the cache");
+        this.misses = metrics.counter("user_json_cache_misses_total", "Responses serialized on a cache miss");
+        this.evictions = metrics.counter("user_json_cache_evictions_total", "Entries evicted to stay in bounds");
+        metrics.gauge("user_json_cache_entries", "Responses held by the cache", entries::size);
+    }
+
+    public UserJson get(long id, LongFunction<UserJson> loader) {
+        Entry cached = entries.get(id);
+        if (cached != null) {
+            cached.referenced = true;
+            hits.increment();
+            return cached.json;
+        }
+        misses.increment();
+        int stripe = stripeOf(id);
+        long commitsBefore = commits.get(stripe);
+        UserJson json = loader.apply(id);
+        if (maxEntries > 0) {
+            Entry loaded = new Entry(id, json);
+            Entry stored = entries.compute(id, (key, current) ->
+                    current == null && commits.get(stripe) == commitsBefore ? loaded : current);
+            if (stored == loaded) {
+                evictionQueue.add(loaded);
+                queued.incrementAndGet();
+                evict();
+            }
+        }
+        return json;
+    }
+
+    @Override
+    public void onChange(User previous, User current) {
+    }
+
+    @Override
+    public void afterCommit(User previous, User current) {
+        long id = (previous != null ? previous : current).getId();
+        commits.incrementAndGet(stripeOf(id));
+        entries.remove(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        while (entries.size() > maxEntries || queued.get() > 2 * maxEntries) {
+            Entry candidate = evictionQueue.poll();
+            if (candidate == null) {
+                return;
+            }
+            if (evictionPolicy == CacheEvictionPolicy.CLOCK && candidate.referenced
+                    && entries.get(candidate.id) == candidate) {
+                candidate.referenced = false;
+                evictionQueue.add(candidate);
+                continue;
+            }
+            queued.decrementAndGet();
+            if (entries.remove(candidate.id, candidate)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private static int stripeOf(long id) {
+        int hash = Long.hashCode(id);
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final UserJson json;
+        private volatile boolean referenced;
+
+        private Entry(long id, UserJson json) {
+            this.id = id;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.app.project.changes;
+
+import com.app.project.model.User;
+
+/**
+ * One committed change; {@code user} is the new state, or null for {@link UserChangeType#DELETED}.
+ */
+public record UserChange(long sequence, UserChangeType type, long id, long version, User user) {
+}
@@ -0,0 +1,108 @@
+package com.app.project.changes;
+
+import com.app.project.metrics.Metrics;
+import com.app.project.model.User;
+import com.app.project.storage.UserStorageListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ring buffer of the last committed user changes, numbered from 1 in commit order. Changes
+ * of one id are appended in the order they were applied, since they are appended under the
+ * storage lock of that id. Readers never block writers: a reader that falls more than the
+ * buffer size behind finds its next change overwritten and has to resync.
+ *
+ * <p>Sequences restart with the process, so they are only meaningful together with
+ * {@link #epoch()}.
+ */
+@Component
+public class UserChangeFeed implements UserStorageListener {
+    private final UserChange[] ring;
+    private final int mask;
+    private final long epoch = System.currentTimeMillis();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition appended = appendLock.newCondition();
+    private volatile long lastSequence;
+
+    public UserChangeFeed(@Value("${changes.buffer-size}") int bufferSize, Metrics metrics) {
+        if (Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("changes.buffer-size must be a power of two, not " + bufferSize);
+        }
+        this.ring = new UserChange[bufferSize];
+        this.mask = bufferSize - 1;
+        metrics.gauge("user_changes_last_sequence", "Sequence of the last published user change",
+                () -> lastSequence);
+    }
+
+    @Override
+    public void onChange(User previous, User current) {
+    }
+
+    @Override
+    public void afterCommit(User previous, User current) {
+        UserChangeType type = previous == null ? UserChangeType.CREATED
+                : current == null ? UserChangeType.DELETED : UserChangeType.UPDATED;
+        User changed = current == null ? previous : current;
+        appendLock.lock();
+        try {
+            long sequence = lastSequence + 1;
+            ring[(int) (sequence & mask)] = new UserChange(sequence, type, changed.getId(), changed.getVersion(),
+                    current);
+            lastSequence = sequence;
+            appended.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Whether the changes after {@code sequence} can no longer be read in full, because they
+     * were overwritten or {@code sequence} was never published.
+     */
+    public boolean isLost(long sequence) {
+        long last = lastSequence;
+        return sequence < 0 || sequence > last || sequence < last - ring.length;
+    }
+
+    /**
+     * Up to {@code max} changes after {@code sequence}, waiting up to {@code timeoutMs} for
+     * the first one. Stops early at a change that was overwritten while reading, which
+     * {@link #isLost} reports on the next call.
+     */
+    public List<UserChange> readAfter(long sequence, int max, long timeoutMs) throws InterruptedException {
+        if (lastSequence == sequence) {
+            appendLock.lock();
+            try {
+                long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                while (lastSequence == sequence && nanos > 0) {
+                    nanos = appended.awaitNanos(nanos);
+                }
+            } finally {
+                appendLock.unlock();
+            }
+        }
+        long last = Math.min(lastSequence, sequence + max);
+        List<UserChange> changes = new ArrayList<>((int) Math.max(0, last - sequence));
+        for (long next = sequence + 1; next <= last; next++) {
+            UserChange change = ring[(int) (next & mask)];
+            if (change == null || change.sequence() != next) {
+                break;
+            }
+            changes.add(change);
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,7 @@
+package com.app.project.changes;
+
+public enum UserChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,34 @@
+package com.app.project.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spring Boot silently ignores {@code spring.threads.virtual.enabled} on a Java runtime
+ * without virtual threads, so say which thread model request handling actually runs on.
+ */
+@Slf4j
+@Component
+public class ThreadModelReporter {
+    private static final int FIRST_VIRTUAL_THREADS_RELEASE = 21;
+    private final boolean virtualThreadsRequested;
+
+    public ThreadModelReporter(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsRequested) {
+        this.virtualThreadsRequested = virtualThreadsRequested;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (!virtualThreadsRequested) {
+            log.info("Handling requests on platform threads");
+        } else if (Runtime.version().feature() < FIRST_VIRTUAL_THREADS_RELEASE) {
+            log.warn("spring.threads.virtual.enabled is set, but Java {} has no virtual threads; "
+                    + "handling requests on platform threads", Runtime.version().feature());
+        } else {
+            log.info("Handling requests on virtual threads");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.app.project.config;
+
+import com.app.project.admission.AdmissionControlInterceptor;
+import com.app.project.binary.UserBinaryHttpMessageConverter;
+import com.app.project.metrics.RequestMetricsInterceptor;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private final RequestMetricsInterceptor requestMetricsInterceptor;
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+    private final boolean latencyMetricsEnabled;
+
+    public WebConfig(RequestMetricsInterceptor requestMetricsInterceptor,
+                     AdmissionControlInterceptor admissionControlInterceptor,
+                     @Value("${metrics.latency.enabled}") boolean latencyMetricsEnabled) {
+        this.requestMetricsInterceptor = requestMetricsInterceptor;
+        this.admissionControlInterceptor = admissionControlInterceptor;
+        this.latencyMetricsEnabled = latencyMetricsEnabled;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (latencyMetricsEnabled) {
+            registry.addInterceptor(requestMetricsInterceptor);
+        }
+        registry.addInterceptor(admissionControlInterceptor);
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new UserBinaryHttpMessageConverter());
+    }
+}
@@ -1,12 +1,42 @@
 package com.app.project.controller;
 
+import com.app.project.admission.Admission;
+import com.app.project.admission.EndpointClass;
+import com.app.project.binary.UserBinaryFormat;
+import com.app.project.binary.UserBinaryWriter;
+import com.app.project.cache.UserJson;
+import com.app.project.cache.UserJsonCache;
+import com.app.project.dto.BatchOperationDto;
+import com.app.project.dto.BatchResultDto;
+import com.app.project.dto.BirthDateGrouping;
+import com.app.project.dto.BirthDateStatsDto;
 import com.app.project.dto.UpdateUserRequestDto;
+import com.app.project.dto.UserFilterDto;
+import com.app.project.dto.UserPageDto;
 import com.app.project.dto.UserRequestDto;
 import com.app.project.dto.UserResponseDto;
+import com.app.project.dto.VersionedUserDto;
+import com.app.project.exception.PreconditionFailedException;
+import com.app.project.mapper.UserProjection;
+import com.app.project.service.UserBatchService;
+import com.app.project.service.UserChangeService;
+import com.app.project.service.UserScanService;
 import com.app.project.service.UserService;
+import com.app.project.service.UserStatsService;
+import com.app.project.service.UserTransferService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -14,55 +44,345 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/users")
 public class UserController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+    private static final String DEFAULT_SEARCH_LIMIT = "20";
+    private static final String DEFAULT_AGE_BAND_WIDTH = "10";
+    private static final String DEFAULT_FILTER_LIMIT = "100";
+    private static final String GZIP = "gzip";
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+    private static final String ANY_ETAG = "*";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+    private static final List<MediaType> STREAM_FORMATS = List.of(MediaType.APPLICATION_JSON,
+            UserBinaryFormat.MEDIA_TYPE);
     private final UserService userService;
+    private final UserBatchService userBatchService;
+    private final UserChangeService userChangeService;
+    private final UserStatsService userStatsService;
+    private final UserScanService userScanService;
+    private final UserTransferService userTransferService;
+    private final UserJsonCache userJsonCache;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public List<UserResponseDto> getAllUsers() {
-        return userService.findAllUsers();
+    @Admission(EndpointClass.SCAN)
+    public void getAllUsers(@RequestParam(required = false) String cursor,
+                            @RequestParam(required = false) String fields,
+                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                            HttpServletResponse response) throws IOException, HttpMediaTypeNotAcceptableException {
+        UserProjection projection = UserProjection.of(fields);
+        writeUsers(accept, () -> userService.streamAllUsers(cursor, projection), response);
+    }
+
+    @GetMapping(params = "limit")
+    @Admission(EndpointClass.SCAN)
+    public ResponseEntity<List<UserResponseDto>> getUsersPage(@RequestParam(required = false) String cursor,
+                                                              @RequestParam int limit,
+                                                              @RequestParam(required = false) String fields) {
+        return toResponse(userService.findAllUsers(cursor, limit, UserProjection.of(fields)));
+    }
+
+    /**
+     * Server-Sent Events stream of committed user changes, resuming after the
+     * {@code Last-Event-ID} header or the {@code cursor} parameter when given.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getChanges(@RequestParam(required = false) String cursor,
+                                 @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return userChangeService.subscribe(lastEventId != null ? lastEventId : cursor);
+    }
+
+    @GetMapping("/search")
+    @Admission(EndpointClass.SCAN)
+    public List<UserResponseDto> searchUsers(@RequestParam("q") String query,
+                                             @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) int limit,
+                                             @RequestParam(required = false) String fields) {
+        return userService.search(query, limit, UserProjection.of(fields));
     }
 
     @GetMapping("/range")
-    public List<UserResponseDto> getAllUsersByRange(@RequestParam LocalDate from,
-                                         @RequestParam LocalDate to) {
-        return userService.findAllByRange(from, to);
+    @Admission(EndpointClass.SCAN)
+    public void getAllUsersByRange(@RequestParam LocalDate from,
+                                   @RequestParam LocalDate to,
+                                   @RequestParam(required = false) String cursor,
+                                   @RequestParam(required = false) String fields,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                   HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        UserProjection projection = UserProjection.of(fields);
+        writeUsers(accept, () -> userService.streamAllByRange(from, to, cursor, projection), response);
+    }
+
+    @GetMapping(value = "/range", params = "limit")
+    @Admission(EndpointClass.SCAN)
+    public ResponseEntity<List<UserResponseDto>> getUsersPageByRange(@RequestParam LocalDate from,
+                                                                     @RequestParam LocalDate to,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam int limit,
+                                                                     @RequestParam(required = false) String fields) {
+        return toResponse(userService.findAllByRange(from, to, cursor, limit, UserProjection.of(fields)));
+    }
+
+    @GetMapping("/filter")
+    @Admission(EndpointClass.SCAN)
+    public ResponseEntity<List<UserResponseDto>> filterUsers(UserFilterDto filter,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = DEFAULT_FILTER_LIMIT)
+                                                             int limit,
+                                                             @RequestParam(required = false) String fields) {
+        return toResponse(userScanService.filterUsers(filter, cursor, limit, UserProjection.of(fields)));
+    }
+
+    @GetMapping("/stats/birth-dates")
+    @Admission(EndpointClass.SCAN)
+    public BirthDateStatsDto getBirthDateStats(@RequestParam BirthDateGrouping groupBy,
+                                               @RequestParam(defaultValue = DEFAULT_AGE_BAND_WIDTH) int bandWidth,
+                                               @RequestParam(required = false) LocalDate asOf) {
+        return userStatsService.countByBirthDate(groupBy, bandWidth, asOf != null ? asOf : LocalDate.now());
+    }
+
+    @GetMapping("/by-email")
+    @Admission(EndpointClass.POINT_READ)
+    public UserResponseDto getUserByEmail(@RequestParam String email,
+                                          @RequestParam(required = false) String fields) {
+        return userService.getByEmail(email, UserProjection.of(fields));
     }
 
     @PostMapping
+    @Admission(EndpointClass.WRITE)
     @ResponseStatus(HttpStatus.CREATED)
     public UserResponseDto registerUser(@RequestBody @Valid UserRequestDto requestDto) {
         return userService.create(requestDto);
     }
 
+    @PostMapping("/batch")
+    @Admission(EndpointClass.WRITE)
+    public List<BatchResultDto> applyBatch(@RequestBody List<BatchOperationDto> operations) {
+        return userBatchService.apply(operations);
+    }
+
+    /**
+     * Every user as NDJSON, gzipped when the client accepts it.
+     */
+    @GetMapping("/export")
+    public void exportUsers(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                            HttpServletResponse response) throws IOException {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains(GZIP);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        try (OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), TRANSFER_BUFFER_SIZE)
+                : response.getOutputStream()) {
+            userTransferService.exportUsers(out);
+        }
+    }
+
+    /**
+     * Creates a user per NDJSON line of the body, gunzipping it when sent with
+     * {@code Content-Encoding: gzip}, and answers with NDJSON rejects and progress events
+     * while the body is still being read.
+     */
+    @PostMapping("/import")
+    public void importUsers(@RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                            InputStream body,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (InputStream in = GZIP.equalsIgnoreCase(contentEncoding)
+                ? new GZIPInputStream(body, TRANSFER_BUFFER_SIZE)
+                : body) {
+            userTransferService.importUsers(in, response.getOutputStream());
+        }
+    }
+
     @GetMapping("/{id}")
-    public UserResponseDto getUserById(@PathVariable Long id) {
-        return userService.getById(id);
+    @Admission(EndpointClass.POINT_READ)
+    public ResponseEntity<byte[]> getUserById(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch,
+                                              @RequestParam(required = false) String fields) {
+        UserProjection projection = UserProjection.of(fields);
+        if (ifNoneMatch != null) {
+            long version = userService.getVersion(id);
+            if (matchesAny(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTagOf(version)).build();
+            }
+        }
+        UserJson user = projection.isAll()
+                ? userJsonCache.get(id, this::serializeUser)
+                : serializeUser(id, projection);
+        return ResponseEntity.ok()
+                .eTag(eTagOf(user.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(user.json());
     }
 
     @PutMapping("/{id}")
-    public UserResponseDto updateUser(@PathVariable Long id,
-                           @RequestBody @Valid UserRequestDto requestDto) {
-        return userService.update(id, requestDto);
+    @Admission(EndpointClass.WRITE)
+    public ResponseEntity<UserResponseDto> updateUser(@PathVariable Long id,
+                           @RequestBody @Valid UserRequestDto requestDto,
+                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return toResponse(userService.update(id, requestDto, expectedVersion(ifMatch)));
     }
 
     @PatchMapping("/{id}")
-    public UserResponseDto updateUser(@PathVariable Long id,
-                           @RequestBody UpdateUserRequestDto requestDto) {
-        return userService.update(id, requestDto);
+    @Admission(EndpointClass.WRITE)
+    public ResponseEntity<UserResponseDto> updateUser(@PathVariable Long id,
+                           @RequestBody @Valid UpdateUserRequestDto requestDto,
+                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return toResponse(userService.update(id, requestDto, expectedVersion(ifMatch)));
     }
 
     @DeleteMapping("/{id}")
+    @Admission(EndpointClass.WRITE)
     public UserResponseDto deleteUser(@PathVariable Long id) {
         return userService.deleteById(id);
     }
+
+    /**
+     * Writes the users as a JSON array, or as {@link UserBinaryFormat} when the client
+     * prefers it, and closes the snapshot behind them whatever happens. The streams are
+     * never handed to a message converter: when none could write them, nothing would close
+     * them. The format is chosen before {@code users} is called, so a request that no format
+     * satisfies is answered with 406 without opening a snapshot.
+     */
+    private void writeUsers(String accept, Supplier<Stream<UserResponseDto>> users, HttpServletResponse response)
+            throws IOException, HttpMediaTypeNotAcceptableException {
+        MediaType format = streamFormat(accept);
+        try (Stream<UserResponseDto> stream = users.get()) {
+            response.setContentType(format.toString());
+            Iterator<UserResponseDto> iterator = stream.iterator();
+            if (format.equals(UserBinaryFormat.MEDIA_TYPE)) {
+                UserBinaryWriter writer = new UserBinaryWriter(response.getOutputStream());
+                while (iterator.hasNext()) {
+                    writer.write(iterator.next());
+                }
+                writer.flush();
+            } else {
+                try (SequenceWriter writer = objectMapper.writer()
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .writeValuesAsArray(response.getOutputStream())) {
+                    while (iterator.hasNext()) {
+                        writer.write(iterator.next());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The first of JSON and {@link UserBinaryFormat} that {@code accept} allows, taking the
+     * accepted types by quality; JSON when the header is missing.
+     */
+    private static MediaType streamFormat(String accept) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(accept == null || accept.isBlank()
+                    ? List.of(MediaType.ALL)
+                    : MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            throw new HttpMediaTypeNotAcceptableException(e.getMessage());
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType format : STREAM_FORMATS) {
+                if (type.includes(format)) {
+                    return format;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(STREAM_FORMATS);
+    }
+
+    private UserJson serializeUser(long id) {
+        return serializeUser(id, UserProjection.ALL);
+    }
+
+    private UserJson serializeUser(long id, UserProjection projection) {
+        VersionedUserDto user = userService.getVersionedById(id, projection);
+        try {
+            return new UserJson(user.getVersion(), objectMapper.writeValueAsBytes(user.getUser()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String eTagOf(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private boolean matchesAny(String ifNoneMatch, long version) {
+        String eTag = eTagOf(version);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith(WEAK_ETAG_PREFIX)) {
+                tag = tag.substring(WEAK_ETAG_PREFIX.length());
+            }
+            if (tag.equals(ANY_ETAG) || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Match uses strong comparison against the one current version, so anything other
+     * than a single strong tag of a version or {@code *} can never match.
+     */
+    private Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals(ANY_ETAG)) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to the mismatch below
+            }
+        }
+        throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the current version");
+    }
+
+    private ResponseEntity<UserResponseDto> toResponse(VersionedUserDto user) {
+        return ResponseEntity.ok()
+                .eTag(eTagOf(user.getVersion()))
+                .body(user.getUser());
+    }
+
+    private ResponseEntity<List<UserResponseDto>> toResponse(UserPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getUsers());
+    }
 }
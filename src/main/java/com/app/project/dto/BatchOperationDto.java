@@ -0,0 +1,13 @@
+package com.app.project.dto;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class BatchOperationDto {
+    private BatchOperationType operation;
+    private Long id;
+    private UserRequestDto user;
+    private UpdateUserRequestDto patch;
+}
@@ -0,0 +1,8 @@
+package com.app.project.dto;
+
+public enum BatchOperationType {
+    CREATE,
+    UPDATE,
+    PATCH,
+    DELETE
+}
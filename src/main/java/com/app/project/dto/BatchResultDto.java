@@ -0,0 +1,15 @@
+package com.app.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResultDto {
+    private int index;
+    private int status;
+    private Long id;
+    private String error;
+}
@@ -0,0 +1,7 @@
+package com.app.project.dto;
+
+public enum BirthDateGrouping {
+    YEAR,
+    MONTH,
+    AGE_BAND
+}
@@ -0,0 +1,18 @@
+package com.app.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BirthDateStatsDto {
+    private BirthDateGrouping groupBy;
+    private LocalDate asOf;
+    private Integer acceptableAge;
+    private long total;
+    private List<CountBucketDto> buckets;
+}
@@ -0,0 +1,16 @@
+package com.app.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDate;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CountBucketDto {
+    private String label;
+    private LocalDate from;
+    private LocalDate to;
+    private long count;
+}
@@ -0,0 +1,21 @@
+package com.app.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportEventDto {
+    public static final String REJECTED = "rejected";
+    public static final String PROGRESS = "progress";
+    public static final String DONE = "done";
+    private String type;
+    private Long line;
+    private Integer status;
+    private String error;
+    private Long records;
+    private Long created;
+    private Long rejected;
+}
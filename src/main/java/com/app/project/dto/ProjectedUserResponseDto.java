@@ -0,0 +1,22 @@
+package com.app.project.dto;
+
+import com.app.project.mapper.ProjectedUserSerializer;
+import com.app.project.mapper.UserProjection;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * User response holding only the fields of its projection; the others stay null and are
+ * not written at all, not even as null.
+ */
+@JsonSerialize(using = ProjectedUserSerializer.class)
+public class ProjectedUserResponseDto extends UserResponseDto {
+    private final UserProjection projection;
+
+    public ProjectedUserResponseDto(UserProjection projection) {
+        this.projection = projection;
+    }
+
+    public UserProjection getProjection() {
+        return projection;
+    }
+}
@@ -1,11 +1,14 @@
 package com.app.project.dto;
 
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
 @Data
 @Accessors(chain = true)
 public class UpdateUserRequestDto {
+    @Size(max = 256, message = "can't be longer than {max} characters")
     private String firstName;
+    @Size(max = 256, message = "can't be longer than {max} characters")
     private String lastName;
 }
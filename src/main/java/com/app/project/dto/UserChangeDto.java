@@ -0,0 +1,15 @@
+package com.app.project.dto;
+
+import com.app.project.changes.UserChangeType;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class UserChangeDto {
+    private long sequence;
+    private UserChangeType type;
+    private Long id;
+    private long version;
+    private UserResponseDto user;
+}
@@ -0,0 +1,12 @@
+package com.app.project.dto;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class UserFilterDto {
+    private String emailDomain;
+    private String addressContains;
+    private String phonePrefix;
+}
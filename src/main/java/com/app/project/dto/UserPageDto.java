@@ -0,0 +1,12 @@
+package com.app.project.dto;
+
+import java.util.List;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class UserPageDto {
+    private List<UserResponseDto> users;
+    private String nextCursor;
+}
@@ -2,6 +2,7 @@ package com.app.project.dto;
 
 import com.app.project.validation.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDate;
 import lombok.Data;
 import lombok.experimental.Accessors;
@@ -10,12 +11,17 @@ import lombok.experimental.Accessors;
 @Accessors(chain = true)
 public class UserRequestDto {
     @Email
+    @Size(max = 254, message = "can't be longer than {max} characters")
     private String email;
     @NotBlank(message = "can't be blank")
+    @Size(max = 256, message = "can't be longer than {max} characters")
     private String firstName;
     @NotBlank(message = "can't be blank")
+    @Size(max = 256, message = "can't be longer than {max} characters")
     private String lastName;
     private LocalDate birthDate;
+    @Size(max = 1024, message = "can't be longer than {max} characters")
     private String address;
+    @Size(max = 64, message = "can't be longer than {max} characters")
     private String phoneNumber;
 }
@@ -0,0 +1,11 @@
+package com.app.project.dto;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+@Data
+@Accessors(chain = true)
+public class VersionedUserDto {
+    private long version;
+    private UserResponseDto user;
+}
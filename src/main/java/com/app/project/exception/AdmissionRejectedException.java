@@ -0,0 +1,18 @@
+package com.app.project.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed. Rejections are expected in bulk under overload, so no
+ * stack trace is captured.
+ */
+public class AdmissionRejectedException extends ServiceUnavailableException {
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
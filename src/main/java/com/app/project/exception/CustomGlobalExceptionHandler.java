@@ -1,8 +1,10 @@
 package com.app.project.exception;
 
+import com.app.project.metrics.Metrics;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
@@ -17,6 +19,12 @@ import java.util.Map;
 
 @ControllerAdvice
 public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler {
+    private final Metrics metrics;
+
+    public CustomGlobalExceptionHandler(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex,
@@ -24,6 +32,7 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
             HttpStatusCode status,
             WebRequest request
     ) {
+        countError(ex);
         Map<String, Object> body = new HashMap<>();
         body.put("status", HttpStatus.BAD_REQUEST);
         List<String> errors = ex.getBindingResult().getAllErrors().stream()
@@ -43,11 +52,45 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
         return getObjectResponseEntity(ex, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Object> preconditionFailed(PreconditionFailedException ex) {
+        return getObjectResponseEntity(ex, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Object> serviceUnavailable(ServiceUnavailableException ex) {
+        ResponseEntity<Object> response = getObjectResponseEntity(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        if (ex.getRetryAfter() == null) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(IncorrectArgumentException.class)
     public ResponseEntity<Object> argumentError(IncorrectArgumentException ex) {
         return getObjectResponseEntity(ex, HttpStatus.BAD_REQUEST);
     }
 
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(
+            Exception ex,
+            Object body,
+            HttpHeaders headers,
+            HttpStatusCode statusCode,
+            WebRequest request
+    ) {
+        countError(ex);
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
+
+    private void countError(Exception ex) {
+        metrics.counter("http_server_errors_total", "Errors handled per exception type",
+                "exception", ex.getClass().getSimpleName()).increment();
+    }
+
     private String getErrorMessage(ObjectError error) {
         if (error instanceof FieldError) {
             String field = ((FieldError) error).getField();
@@ -58,9 +101,12 @@ public class CustomGlobalExceptionHandler extends ResponseEntityExceptionHandler
     }
 
     private ResponseEntity<Object> getObjectResponseEntity (Exception ex, HttpStatus status){
+        countError(ex);
         Map<String, Object> map = new HashMap<>();
         map.put("status", status);
         map.put("error", ex.getMessage());
-        return new ResponseEntity<>(map, status);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(map);
     }
 }
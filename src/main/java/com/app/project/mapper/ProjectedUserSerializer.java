@@ -0,0 +1,19 @@
+package com.app.project.mapper;
+
+import com.app.project.dto.ProjectedUserResponseDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+public class ProjectedUserSerializer extends StdSerializer<ProjectedUserResponseDto> {
+    public ProjectedUserSerializer() {
+        super(ProjectedUserResponseDto.class);
+    }
+
+    @Override
+    public void serialize(ProjectedUserResponseDto user, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        user.getProjection().write(gen, user);
+    }
+}
@@ -0,0 +1,75 @@
+package com.app.project.mapper;
+
+import com.app.project.dto.UserResponseDto;
+import com.app.project.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.function.BiConsumer;
+
+/**
+ * Fields of a user response that a {@link UserProjection} can select, in response order.
+ * Each one knows how to copy itself from the model and write itself as JSON, so a
+ * projection only ever touches the fields it selects.
+ */
+public enum UserField {
+    ID("id", (user, dto) -> dto.setId(user.getId()), (gen, dto) -> writeNumber(gen, dto.getId())),
+    EMAIL("email", (user, dto) -> dto.setEmail(user.getEmail()), (gen, dto) -> gen.writeString(dto.getEmail())),
+    FIRST_NAME("firstName", (user, dto) -> dto.setFirstName(user.getFirstName()),
+            (gen, dto) -> gen.writeString(dto.getFirstName())),
+    LAST_NAME("lastName", (user, dto) -> dto.setLastName(user.getLastName()),
+            (gen, dto) -> gen.writeString(dto.getLastName())),
+    BIRTH_DATE("birthDate", (user, dto) -> dto.setBirthDate(user.getBirthDate()),
+            (gen, dto) -> writeDate(gen, dto.getBirthDate())),
+    ADDRESS("address", (user, dto) -> dto.setAddress(user.getAddress()),
+            (gen, dto) -> gen.writeString(dto.getAddress())),
+    PHONE_NUMBER("phoneNumber", (user, dto) -> dto.setPhoneNumber(user.getPhoneNumber()),
+            (gen, dto) -> gen.writeString(dto.getPhoneNumber()));
+
+    private final String jsonName;
+    private final SerializedString serializedName;
+    private final BiConsumer<User, UserResponseDto> copier;
+    private final ValueWriter writer;
+
+    UserField(String jsonName, BiConsumer<User, UserResponseDto> copier, ValueWriter writer) {
+        this.jsonName = jsonName;
+        this.serializedName = new SerializedString(jsonName);
+        this.copier = copier;
+        this.writer = writer;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    void copy(User user, UserResponseDto dto) {
+        copier.accept(user, dto);
+    }
+
+    void write(JsonGenerator gen, UserResponseDto dto) throws IOException {
+        gen.writeFieldName(serializedName);
+        writer.write(gen, dto);
+    }
+
+    private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeDate(JsonGenerator gen, LocalDate value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value.toString());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(JsonGenerator gen, UserResponseDto dto) throws IOException;
+    }
+}
@@ -14,6 +14,8 @@ public class UserMapperImpl implements UserMapper<UserRequestDto, User, UserResp
         user.setBirthDate(requestDto.getBirthDate());
         user.setFirstName(requestDto.getFirstName());
         user.setLastName(requestDto.getLastName());
+        user.setAddress(requestDto.getAddress());
+        user.setPhoneNumber(requestDto.getPhoneNumber());
         return user;
     }
 
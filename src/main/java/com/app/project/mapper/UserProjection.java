@@ -0,0 +1,101 @@
+package com.app.project.mapper;
+
+import com.app.project.dto.ProjectedUserResponseDto;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.exception.IncorrectArgumentException;
+import com.app.project.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset of a user response, from a {@code fields} parameter such as
+ * {@code id,email}. A projection is compiled once per distinct set of fields, whatever
+ * order or repetition they were asked in, and maps and writes only the fields it selects,
+ * always in {@link UserField} order. {@link #ALL} stands for the full response and is
+ * served by the regular mapper.
+ */
+public final class UserProjection {
+    private static final UserField[] FIELDS = UserField.values();
+    private static final Map<String, UserField> FIELDS_BY_NAME = Arrays.stream(FIELDS)
+            .collect(Collectors.toUnmodifiableMap(UserField::jsonName, Function.identity()));
+    private static final int ALL_MASK = (1 << FIELDS.length) - 1;
+    private static final AtomicReferenceArray<UserProjection> COMPILED = new AtomicReferenceArray<>(ALL_MASK + 1);
+    public static final UserProjection ALL = compiled(ALL_MASK);
+
+    private final int mask;
+    private final UserField[] fields;
+
+    private UserProjection(int mask) {
+        this.mask = mask;
+        this.fields = Arrays.stream(FIELDS)
+                .filter(field -> (mask & 1 << field.ordinal()) != 0)
+                .toArray(UserField[]::new);
+    }
+
+    /**
+     * The projection selecting the comma-separated {@code fields}, or {@link #ALL} when
+     * null.
+     */
+    public static UserProjection of(String fields) {
+        if (fields == null) {
+            return ALL;
+        }
+        int mask = 0;
+        int start = 0;
+        for (int i = 0; i <= fields.length(); i++) {
+            if (i == fields.length() || fields.charAt(i) == ',') {
+                String name = fields.substring(start, i).trim();
+                if (!name.isEmpty()) {
+                    UserField field = FIELDS_BY_NAME.get(name);
+                    if (field == null) {
+                        throw new IncorrectArgumentException("Unknown field '" + name + "', expected any of "
+                                + FIELDS_BY_NAME.keySet().stream().sorted().toList());
+                    }
+                    mask |= 1 << field.ordinal();
+                }
+                start = i + 1;
+            }
+        }
+        if (mask == 0) {
+            throw new IncorrectArgumentException("Argument 'fields' must name at least one field");
+        }
+        return compiled(mask);
+    }
+
+    public boolean isAll() {
+        return mask == ALL_MASK;
+    }
+
+    public UserResponseDto toDto(User user) {
+        UserResponseDto dto = new ProjectedUserResponseDto(this);
+        for (UserField field : fields) {
+            field.copy(user, dto);
+        }
+        return dto;
+    }
+
+    public void write(JsonGenerator gen, UserResponseDto dto) throws IOException {
+        gen.writeStartObject(dto);
+        for (UserField field : fields) {
+            field.write(gen, dto);
+        }
+        gen.writeEndObject();
+    }
+
+    private static UserProjection compiled(int mask) {
+        UserProjection projection = COMPILED.get(mask);
+        if (projection == null) {
+            projection = new UserProjection(mask);
+            UserProjection raced = COMPILED.compareAndExchange(mask, null, projection);
+            if (raced != null) {
+                projection = raced;
+            }
+        }
+        return projection;
+    }
+}
@@ -0,0 +1,104 @@
+package com.app.project.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process registry of counters, gauges and latency summaries, rendered in the
+ * Prometheus text exposition format. Series are created on first use and live for the
+ * lifetime of the application.
+ */
+@Component
+public class Metrics {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, Type.COUNTER).series
+                .computeIfAbsent(labelsOf(labels), key -> new LongAdder());
+    }
+
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.SUMMARY).series
+                .computeIfAbsent(labelsOf(labels), key -> new LatencyHistogram());
+    }
+
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).series.put(labelsOf(labels), value);
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        families.forEach((name, family) -> {
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type.name().toLowerCase()).append('\n');
+            family.series.forEach((labels, series) -> {
+                switch (family.type) {
+                    case COUNTER -> sample(out, name, labels, ((LongAdder) series).sum());
+                    case GAUGE -> sample(out, name, labels, ((LongSupplier) series).getAsLong());
+                    case SUMMARY -> summary(out, name, labels, ((LatencyHistogram) series).snapshot());
+                }
+            });
+        });
+        return out.toString();
+    }
+
+    private void summary(StringBuilder out, String name, String labels, LatencyHistogram.Snapshot snapshot) {
+        for (double quantile : QUANTILES) {
+            String quantileLabel = "quantile=\"" + quantile + "\"";
+            sample(out, name, labels.isEmpty() ? quantileLabel : labels + "," + quantileLabel,
+                    snapshot.quantileNanos(quantile) / NANOS_PER_SECOND);
+        }
+        sample(out, name + "_sum", labels, snapshot.sumNanos() / NANOS_PER_SECOND);
+        sample(out, name + "_count", labels, snapshot.count());
+    }
+
+    private void sample(StringBuilder out, String name, String labels, Object value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(type, help));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.type);
+        }
+        return family;
+    }
+
+    private String labelsOf(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return text.toString();
+    }
+
+    private String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private enum Type {
+        COUNTER, GAUGE, SUMMARY
+    }
+
+    private record Family(Type type, String help, Map<String, Object> series) {
+        private Family(Type type, String help) {
+            this(type, help, new ConcurrentSkipListMap<>());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.app.project.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times every request by its route template rather than the raw path, so
+ * {@code /users/1} and {@code /users/2} land in the same series.
+ */
+@Component
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".start";
+    private static final String UNMATCHED_URI = "UNMATCHED";
+    private final Metrics metrics;
+
+    public RequestMetricsInterceptor(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        metrics.histogram("http_server_requests_seconds", "HTTP request latency by route and status",
+                        "method", request.getMethod(),
+                        "uri", pattern == null ? UNMATCHED_URI : pattern.toString(),
+                        "status", String.valueOf(response.getStatus()))
+                .recordSince(start);
+    }
+}
@@ -0,0 +1,68 @@
+package com.app.project.metrics;
+
+import com.app.project.service.UserBatchService;
+import com.app.project.service.UserService;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the user services in a proxy that records the latency of every interface method.
+ * Methods returning a lazy {@code Stream} are timed until the stream is returned, not
+ * until it is consumed. Nothing is wrapped when {@code metrics.latency.enabled} is off.
+ */
+@Component
+public class ServiceMetricsPostProcessor implements BeanPostProcessor {
+    private static final List<Class<?>> INSTRUMENTED = List.of(UserService.class, UserBatchService.class);
+    private final ObjectProvider<Metrics> metrics;
+    private final boolean enabled;
+
+    public ServiceMetricsPostProcessor(ObjectProvider<Metrics> metrics,
+                                       @Value("${metrics.latency.enabled}") boolean enabled) {
+        this.metrics = metrics;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled) {
+            return bean;
+        }
+        for (Class<?> service : INSTRUMENTED) {
+            if (service.isInstance(bean)) {
+                return instrument(bean, service, metrics.getObject());
+            }
+        }
+        return bean;
+    }
+
+    public static <T> T instrument(Object target, Class<T> service, Metrics metrics) {
+        Map<Method, LatencyHistogram> histograms = new HashMap<>();
+        for (Method method : service.getMethods()) {
+            histograms.put(method, metrics.histogram("service_method_seconds", "Service method latency",
+                    "service", service.getSimpleName(), "method", method.getName()));
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            LatencyHistogram histogram = histograms.get(method);
+            long start = System.nanoTime();
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (histogram != null) {
+                    histogram.recordSince(start);
+                }
+            }
+        };
+        return service.cast(Proxy.newProxyInstance(service.getClassLoader(), new Class<?>[] {service}, handler));
+    }
+}
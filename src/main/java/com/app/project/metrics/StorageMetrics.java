@@ -0,0 +1,19 @@
+package com.app.project.metrics;
+
+import com.app.project.storage.TieredUserStorage;
+import com.app.project.storage.UserStorage;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StorageMetrics {
+    public StorageMetrics(Metrics metrics, UserStorage storage) {
+        metrics.gauge("user_store_users", "Users held by the store", storage::size);
+        metrics.gauge("user_store_memory_bytes", "Estimated heap used by the store", storage::sizeInBytes);
+        metrics.gauge("user_store_open_snapshots", "Snapshots of the store not closed yet", storage::openSnapshots);
+        if (storage instanceof TieredUserStorage tiered) {
+            metrics.gauge("user_store_hot_users", "Users held on the heap by the tiered store", tiered::hotSize);
+            metrics.gauge("user_store_cold_bytes", "Bytes of cold segment files mapped by the tiered store",
+                    tiered::coldSizeInBytes);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.app.project.model;
 
 import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class User {
     private Long id;
     private String email;
@@ -12,4 +18,5 @@ public class User {
     private LocalDate birthDate;
     private String address;
     private String phoneNumber;
+    private long version;
 }
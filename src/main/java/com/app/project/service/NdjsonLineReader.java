@@ -0,0 +1,110 @@
+package com.app.project.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits a byte stream into lines without decoding it, so a line can be handed to the
+ * JSON parser as is. Lines longer than the limit are skipped up to their newline and only
+ * flagged, which keeps memory bounded whatever the input holds.
+ */
+class NdjsonLineReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_LINE_SIZE = 1024;
+    private final InputStream in;
+    private final int maxLineBytes;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private byte[] line = new byte[INITIAL_LINE_SIZE];
+    private int position;
+    private int limit;
+    private int length;
+    private boolean tooLong;
+    private long number;
+
+    NdjsonLineReader(InputStream in, int maxLineBytes) {
+        this.in = in;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * Advances to the next line and returns false at the end of the stream.
+     */
+    boolean next() throws IOException {
+        length = 0;
+        tooLong = false;
+        boolean started = false;
+        while (true) {
+            if (position == limit) {
+                int read = in.read(buffer);
+                if (read < 0) {
+                    if (started) {
+                        number++;
+                    }
+                    return started;
+                }
+                position = 0;
+                limit = read;
+            }
+            started = true;
+            int end = position;
+            while (end < limit && buffer[end] != '\n') {
+                end++;
+            }
+            append(position, end - position);
+            if (end < limit) {
+                position = end + 1;
+                number++;
+                if (length > 0 && line[length - 1] == '\r') {
+                    length--;
+                }
+                return true;
+            }
+            position = limit;
+        }
+    }
+
+    byte[] line() {
+        return line;
+    }
+
+    int length() {
+        return length;
+    }
+
+    boolean isTooLong() {
+        return tooLong;
+    }
+
+    boolean isBlank() {
+        for (int i = 0; i < length; i++) {
+            if (!Character.isWhitespace(line[i])) {
+                return false;
+            }
+        }
+        return !tooLong;
+    }
+
+    /**
+     * One-based number of the current line.
+     */
+    long number() {
+        return number;
+    }
+
+    private void append(int from, int count) {
+        if (tooLong || count == 0) {
+            return;
+        }
+        if (length + count > maxLineBytes) {
+            tooLong = true;
+            length = 0;
+            return;
+        }
+        if (length + count > line.length) {
+            line = Arrays.copyOf(line, Math.min(maxLineBytes, Math.max(line.length * 2, length + count)));
+        }
+        System.arraycopy(buffer, from, line, length, count);
+        length += count;
+    }
+}
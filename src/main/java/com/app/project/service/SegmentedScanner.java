@@ -0,0 +1,117 @@
+package com.app.project.service;
+
+import com.app.project.model.User;
+import com.app.project.storage.UserSnapshot;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Filters and maps a snapshot in id order. Small scans run on the calling thread. When
+ * {@code scan.parallel-threshold} is positive, scans of at least that many users are split
+ * into id ranges of about {@code scan.segment-size} ids that run on a dedicated fork-join
+ * pool of {@code scan.parallelism} threads, so a large scan can't take more cores than that
+ * and never runs on the request or common pools. The threshold is off by default: where
+ * parallel scans pay off depends on the core count and should be measured with
+ * {@code ScanBenchmark} on the target hardware before it is set.
+ *
+ * <p>Segments are submitted in waves of twice the parallelism and joined in id order, so
+ * the output is the same as a sequential scan, and a scan that has found {@code limit}
+ * users stops the rest instead of reading the whole store. A scan returns only once none of
+ * its segments is still reading, so the caller can close the snapshot right after.
+ */
+@Component
+public class SegmentedScanner implements AutoCloseable {
+    private static final int WAVE_PER_THREAD = 2;
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final int parallelThreshold;
+    private final int segmentSize;
+
+    public SegmentedScanner(@Value("${scan.parallelism}") int parallelism,
+                            @Value("${scan.parallel-threshold}") int parallelThreshold,
+                            @Value("${scan.segment-size}") int segmentSize) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.parallelThreshold = parallelThreshold;
+        this.segmentSize = segmentSize;
+        this.pool = new ForkJoinPool(this.parallelism, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("scan-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Up to {@code limit} users of {@code snapshot} with ids above {@code afterId} that
+     * match {@code filter}, mapped and in id order. {@code lastId} is an id no visible user
+     * exceeds, and {@code expectedUsers} the estimated number of users to scan.
+     */
+    public <T> List<T> scan(UserSnapshot snapshot, long afterId, long lastId, long expectedUsers,
+                            Predicate<User> filter, Function<User, T> mapper, int limit) {
+        if (parallelThreshold <= 0 || expectedUsers < parallelThreshold || parallelism == 1
+                || lastId - afterId <= segmentSize) {
+            return scanSegment(snapshot, afterId, Long.MAX_VALUE, filter, mapper, limit, new AtomicBoolean());
+        }
+        List<T> result = new ArrayList<>();
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<ForkJoinTask<List<T>>> wave = new ArrayList<>();
+        long from = afterId;
+        try {
+            while (from < lastId && result.size() < limit) {
+                wave.clear();
+                for (int i = 0; i < parallelism * WAVE_PER_THREAD && from < lastId; i++) {
+                    long segmentFrom = from;
+                    long segmentTo = lastId - from <= segmentSize ? Long.MAX_VALUE : from + segmentSize;
+                    wave.add(pool.submit(
+                            () -> scanSegment(snapshot, segmentFrom, segmentTo, filter, mapper, limit, stopped)));
+                    from = segmentTo == Long.MAX_VALUE ? lastId : segmentTo;
+                }
+                for (ForkJoinTask<List<T>> segment : wave) {
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                    List<T> matches = segment.join();
+                    result.addAll(matches.subList(0, Math.min(matches.size(), limit - result.size())));
+                }
+            }
+        } finally {
+            stopped.set(true);
+            wave.forEach(ForkJoinTask::quietlyJoin);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Matches among users with ids in {@code (afterId, upToId]}, up to the first user read
+     * after {@code stopped} is set.
+     */
+    private static <T> List<T> scanSegment(UserSnapshot snapshot, long afterId, long upToId, Predicate<User> filter,
+                                           Function<User, T> mapper, int limit, AtomicBoolean stopped) {
+        if (stopped.get()) {
+            return List.of();
+        }
+        try (Stream<User> users = snapshot.valuesAfter(afterId)) {
+            return users.takeWhile(user -> !stopped.get() && user.getId() <= upToId)
+                    .filter(filter)
+                    .limit(limit)
+                    .map(mapper)
+                    .toList();
+        }
+    }
+}
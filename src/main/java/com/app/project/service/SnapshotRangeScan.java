@@ -0,0 +1,141 @@
+package com.app.project.service;
+
+import com.app.project.model.User;
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.UserSnapshot;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Birth date range scan over one {@link UserSnapshot}, in (birth date, id) order. The index
+ * holds current birth dates, so index entries of ids written since the snapshot are skipped
+ * and the snapshot versions of those ids are merged in by position instead. The changed ids
+ * are read once, and the ids written since are drained after each batch of index entries,
+ * when they include every id a write has moved out of the part of the index already walked.
+ * Their snapshot versions wait in position order until the scan reaches them, so a batch
+ * only merges the ones inside its own window.
+ */
+final class SnapshotRangeScan implements Iterator<User> {
+    private static final int BATCH = 256;
+    private static final Comparator<User> POSITION = Comparator
+            .comparingLong((User user) -> user.getBirthDate().toEpochDay())
+            .thenComparingLong(User::getId);
+    private static final Comparator<BirthDateIndex.Entry> ENTRY_POSITION = Comparator
+            .comparingLong(BirthDateIndex.Entry::epochDay)
+            .thenComparingLong(BirthDateIndex.Entry::id);
+
+    private final UserSnapshot snapshot;
+    private final BirthDateIndex index;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final LongAdder rowsScanned;
+    private final LongAdder rowsReturned;
+    private long afterEpochDay;
+    private long afterId;
+    private final Set<Long> changedIds = new HashSet<>();
+    private final TreeMap<BirthDateIndex.Entry, User> changedAhead = new TreeMap<>(ENTRY_POSITION);
+    private Iterator<User> batch = Collections.emptyIterator();
+    private boolean started;
+    private boolean exhausted;
+
+    SnapshotRangeScan(UserSnapshot snapshot, BirthDateIndex index, LocalDate from, LocalDate to,
+                      long afterEpochDay, long afterId, LongAdder rowsScanned, LongAdder rowsReturned) {
+        this.snapshot = snapshot;
+        this.index = index;
+        this.from = from;
+        this.to = to;
+        this.afterEpochDay = afterEpochDay;
+        this.afterId = afterId;
+        this.rowsScanned = rowsScanned;
+        this.rowsReturned = rowsReturned;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!batch.hasNext()) {
+            if (exhausted) {
+                return false;
+            }
+            batch = nextBatch().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public User next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        rowsReturned.increment();
+        return batch.next();
+    }
+
+    private List<User> nextBatch() {
+        List<BirthDateIndex.Entry> entries = index.findEntriesBetween(from, to, afterEpochDay, afterId)
+                .limit(BATCH)
+                .toList();
+        rowsScanned.add(entries.size());
+        exhausted = entries.size() < BATCH;
+        long untilEpochDay = exhausted ? Long.MAX_VALUE : entries.get(BATCH - 1).epochDay();
+        long untilId = exhausted ? Long.MAX_VALUE : entries.get(BATCH - 1).id();
+        if (!started) {
+            started = true;
+            addChanged(snapshot.changedIds());
+        }
+        addChanged(snapshot.drainChangedIds());
+        List<User> users = new ArrayList<>(entries.size());
+        for (BirthDateIndex.Entry entry : entries) {
+            if (!changedIds.contains(entry.id())) {
+                snapshot.get(entry.id())
+                        .filter(this::isBetween)
+                        .ifPresent(users::add);
+            }
+        }
+        SortedMap<BirthDateIndex.Entry, User> window = changedAhead.headMap(
+                new BirthDateIndex.Entry(untilEpochDay, untilId), true);
+        users.addAll(window.values());
+        window.clear();
+        users.sort(POSITION);
+        afterEpochDay = untilEpochDay;
+        afterId = untilId;
+        return users;
+    }
+
+    /**
+     * Remembers the snapshot versions of newly changed ids that the scan has yet to reach.
+     * Those behind it were either returned from their index entry before they changed or
+     * never existed in range.
+     */
+    private void addChanged(Collection<Long> ids) {
+        for (Long id : ids) {
+            if (changedIds.add(id)) {
+                snapshot.get(id)
+                        .filter(this::isBetween)
+                        .filter(user -> isAfter(user, afterEpochDay, afterId))
+                        .ifPresent(user -> changedAhead.put(
+                                new BirthDateIndex.Entry(user.getBirthDate().toEpochDay(), id), user));
+            }
+        }
+    }
+
+    private boolean isBetween(User user) {
+        LocalDate birthDate = user.getBirthDate();
+        return birthDate != null && birthDate.isAfter(from) && birthDate.isBefore(to);
+    }
+
+    private static boolean isAfter(User user, long epochDay, long id) {
+        long userEpochDay = user.getBirthDate().toEpochDay();
+        return userEpochDay > epochDay || userEpochDay == epochDay && user.getId() > id;
+    }
+}
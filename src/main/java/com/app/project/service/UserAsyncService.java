@@ -0,0 +1,38 @@
+package com.app.project.service;
+
+import com.app.project.dto.UpdateUserRequestDto;
+import com.app.project.dto.UserPageDto;
+import com.app.project.dto.UserRequestDto;
+import com.app.project.dto.UserResponseDto;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link UserService}. Failures complete the future
+ * exceptionally with a {@link java.util.concurrent.CompletionException} whose cause is the
+ * exception the blocking method would have thrown: {@code join()} and dependent stages see
+ * the {@code CompletionException}, and {@code get()} throws an
+ * {@link java.util.concurrent.ExecutionException} with the same cause.
+ */
+public interface UserAsyncService {
+    CompletableFuture<UserResponseDto> create(UserRequestDto user);
+
+    CompletableFuture<UserResponseDto> getById(Long id);
+
+    CompletableFuture<UserResponseDto> getByEmail(String email);
+
+    CompletableFuture<List<UserResponseDto>> findAllUsers();
+
+    CompletableFuture<UserPageDto> findAllUsers(String cursor, int limit);
+
+    CompletableFuture<List<UserResponseDto>> findAllByRange(LocalDate from, LocalDate to);
+
+    CompletableFuture<UserPageDto> findAllByRange(LocalDate from, LocalDate to, String cursor, int limit);
+
+    CompletableFuture<UserResponseDto> update(Long id, UserRequestDto user);
+
+    CompletableFuture<UserResponseDto> update(Long id, UpdateUserRequestDto requestDto);
+
+    CompletableFuture<UserResponseDto> deleteById(Long id);
+}
@@ -0,0 +1,87 @@
+package com.app.project.service;
+
+import com.app.project.dto.UpdateUserRequestDto;
+import com.app.project.dto.UserPageDto;
+import com.app.project.dto.UserRequestDto;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.mapper.UserProjection;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link UserService} calls on the application task executor, which Spring Boot
+ * backs with virtual threads when {@code spring.threads.virtual.enabled} is set and with
+ * the {@code spring.task.execution.pool} thread pool otherwise.
+ */
+@Service
+public class UserAsyncServiceImpl implements UserAsyncService {
+    private final UserService userService;
+    private final Executor executor;
+
+    public UserAsyncServiceImpl(UserService userService,
+                                @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                Executor executor) {
+        this.userService = userService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<UserResponseDto> create(UserRequestDto user) {
+        return async(() -> userService.create(user));
+    }
+
+    @Override
+    public CompletableFuture<UserResponseDto> getById(Long id) {
+        return async(() -> userService.getById(id));
+    }
+
+    @Override
+    public CompletableFuture<UserResponseDto> getByEmail(String email) {
+        return async(() -> userService.getByEmail(email, UserProjection.ALL));
+    }
+
+    @Override
+    public CompletableFuture<List<UserResponseDto>> findAllUsers() {
+        return async(userService::findAllUsers);
+    }
+
+    @Override
+    public CompletableFuture<UserPageDto> findAllUsers(String cursor, int limit) {
+        return async(() -> userService.findAllUsers(cursor, limit, UserProjection.ALL));
+    }
+
+    @Override
+    public CompletableFuture<List<UserResponseDto>> findAllByRange(LocalDate from, LocalDate to) {
+        return async(() -> userService.findAllByRange(from, to));
+    }
+
+    @Override
+    public CompletableFuture<UserPageDto> findAllByRange(LocalDate from, LocalDate to, String cursor, int limit) {
+        return async(() -> userService.findAllByRange(from, to, cursor, limit, UserProjection.ALL));
+    }
+
+    @Override
+    public CompletableFuture<UserResponseDto> update(Long id, UserRequestDto user) {
+        return async(() -> userService.update(id, user));
+    }
+
+    @Override
+    public CompletableFuture<UserResponseDto> update(Long id, UpdateUserRequestDto requestDto) {
+        return async(() -> userService.update(id, requestDto));
+    }
+
+    @Override
+    public CompletableFuture<UserResponseDto> deleteById(Long id) {
+        return async(() -> userService.deleteById(id));
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+}
@@ -0,0 +1,9 @@
+package com.app.project.service;
+
+import com.app.project.dto.BatchOperationDto;
+import com.app.project.dto.BatchResultDto;
+import java.util.List;
+
+public interface UserBatchService {
+    List<BatchResultDto> apply(List<BatchOperationDto> operations);
+}
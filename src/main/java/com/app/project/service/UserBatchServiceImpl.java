@@ -0,0 +1,113 @@
+package com.app.project.service;
+
+import com.app.project.dto.BatchOperationDto;
+import com.app.project.dto.BatchOperationType;
+import com.app.project.dto.BatchResultDto;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.exception.EntityNotFoundException;
+import com.app.project.exception.IncorrectArgumentException;
+import com.app.project.exception.UserRegistrationException;
+import com.app.project.storage.UserStorage;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class UserBatchServiceImpl implements UserBatchService {
+    private final UserService userService;
+    private final UserStorage storage;
+    private final Validator validator;
+    @Value("${batch.max-size}")
+    private int maxSize;
+
+    public UserBatchServiceImpl(UserService userService, UserStorage storage, Validator validator) {
+        this.userService = userService;
+        this.storage = storage;
+        this.validator = validator;
+    }
+
+    @Override
+    public List<BatchResultDto> apply(List<BatchOperationDto> operations) {
+        if (operations.size() > maxSize) {
+            throw new IncorrectArgumentException("Batch can't contain more than " + maxSize + " operations");
+        }
+        List<BatchResultDto> results = new ArrayList<>(operations.size());
+        storage.batch(() -> {
+            for (int i = 0; i < operations.size(); i++) {
+                results.add(apply(i, operations.get(i)));
+            }
+        });
+        return results;
+    }
+
+    private BatchResultDto apply(int index, BatchOperationDto operation) {
+        BatchResultDto result = new BatchResultDto().setIndex(index);
+        String error = validate(operation);
+        if (error != null) {
+            return result.setStatus(HttpStatus.BAD_REQUEST.value()).setError(error);
+        }
+        try {
+            UserResponseDto user = execute(operation);
+            return result.setId(user.getId()).setStatus(successStatus(operation));
+        } catch (EntityNotFoundException e) {
+            return result.setId(operation.getId())
+                    .setStatus(HttpStatus.NOT_FOUND.value())
+                    .setError(e.getMessage());
+        } catch (UserRegistrationException | IncorrectArgumentException e) {
+            return result.setId(operation.getId())
+                    .setStatus(HttpStatus.BAD_REQUEST.value())
+                    .setError(e.getMessage());
+        }
+    }
+
+    private String validate(BatchOperationDto operation) {
+        if (operation == null || operation.getOperation() == null) {
+            return "operation can't be null";
+        }
+        return switch (operation.getOperation()) {
+            case CREATE -> validateUser(operation);
+            case UPDATE -> operation.getId() == null ? "id can't be null" : validateUser(operation);
+            case PATCH -> operation.getId() == null ? "id can't be null"
+                    : operation.getPatch() == null ? "patch can't be null" : violations("patch", operation.getPatch());
+            case DELETE -> operation.getId() == null ? "id can't be null" : null;
+        };
+    }
+
+    private String validateUser(BatchOperationDto operation) {
+        if (operation.getUser() == null) {
+            return "user can't be null";
+        }
+        return violations("user", operation.getUser());
+    }
+
+    private String violations(String name, Object value) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(value);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> name + "." + v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private UserResponseDto execute(BatchOperationDto operation) {
+        return switch (operation.getOperation()) {
+            case CREATE -> userService.create(operation.getUser());
+            case UPDATE -> userService.update(operation.getId(), operation.getUser());
+            case PATCH -> userService.update(operation.getId(), operation.getPatch());
+            case DELETE -> userService.deleteById(operation.getId());
+        };
+    }
+
+    private int successStatus(BatchOperationDto operation) {
+        return operation.getOperation() == BatchOperationType.CREATE
+                ? HttpStatus.CREATED.value() : HttpStatus.OK.value();
+    }
+}
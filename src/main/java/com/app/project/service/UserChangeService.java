@@ -0,0 +1,10 @@
+package com.app.project.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface UserChangeService {
+    /**
+     * Streams changes committed after {@code cursor}, or after now if it is null.
+     */
+    SseEmitter subscribe(String cursor);
+}
@@ -0,0 +1,177 @@
+package com.app.project.service;
+
+import com.app.project.changes.UserChange;
+import com.app.project.changes.UserChangeFeed;
+import com.app.project.dto.UserChangeDto;
+import com.app.project.dto.UserRequestDto;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.exception.IncorrectArgumentException;
+import com.app.project.exception.ServiceUnavailableException;
+import com.app.project.mapper.UserMapper;
+import com.app.project.metrics.Metrics;
+import com.app.project.model.User;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams the {@link UserChangeFeed} to Server-Sent Events subscribers, each on its own
+ * thread, so a slow client only holds up itself: its writes block on the socket and it
+ * falls behind the feed. A subscriber that falls further behind than the feed keeps, or
+ * resumes from a cursor the feed can't serve, gets a {@code resync} event carrying the
+ * cursor to resume from once it has reloaded the users, and its stream ends.
+ *
+ * <p>Cursors are {@code <feed epoch>:<sequence>} and sent as event ids, so an EventSource
+ * resumes through {@code Last-Event-ID} on its own.
+ */
+@Slf4j
+@Service
+public class UserChangeServiceImpl implements UserChangeService {
+    private static final String CURSOR_SEPARATOR = ":";
+    private static final String CHANGE_EVENT = "change";
+    private static final String RESYNC_EVENT = "resync";
+    private static final String HEARTBEAT = "heartbeat";
+    private static final int SEND_BATCH = 256;
+
+    private final UserChangeFeed feed;
+    private final UserMapper<UserRequestDto, User, UserResponseDto> mapper;
+    private final int maxSubscribers;
+    private final Semaphore subscribers;
+    private final long heartbeatMs;
+    private final long timeoutMs;
+    private final ExecutorService executor;
+    private final LongAdder changesSent;
+    private final LongAdder resyncs;
+
+    public UserChangeServiceImpl(UserChangeFeed feed,
+                                 UserMapper<UserRequestDto, User, UserResponseDto> mapper,
+                                 @Value("${changes.max-subscribers}") int maxSubscribers,
+                                 @Value("${changes.heartbeat-ms}") long heartbeatMs,
+                                 @Value("${changes.sse-timeout-ms}") long timeoutMs,
+                                 Metrics metrics) {
+        this.feed = feed;
+        this.mapper = mapper;
+        this.maxSubscribers = maxSubscribers;
+        this.subscribers = new Semaphore(maxSubscribers);
+        this.heartbeatMs = heartbeatMs;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "user-changes-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.changesSent = metrics.counter("user_changes_sent_total", "User changes sent to subscribers");
+        this.resyncs = metrics.counter("user_change_resyncs_total",
+                "Subscribers told to resync because the feed no longer held their next change");
+        metrics.gauge("user_change_subscribers", "Open change subscriptions",
+                () -> maxSubscribers - subscribers.availablePermits());
+    }
+
+    @Override
+    public SseEmitter subscribe(String cursor) {
+        long after = cursor == null ? feed.lastSequence() : parseCursor(cursor);
+        if (!subscribers.tryAcquire()) {
+            throw new ServiceUnavailableException("Can't open more than " + maxSubscribers
+                    + " change subscriptions");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+        try {
+            executor.execute(() -> stream(emitter, after, open));
+        } catch (RejectedExecutionException e) {
+            subscribers.release();
+            throw new ServiceUnavailableException("Change subscriptions are shutting down");
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void stream(SseEmitter emitter, long after, AtomicBoolean open) {
+        try {
+            long sequence = after;
+            while (open.get()) {
+                if (feed.isLost(sequence)) {
+                    resyncs.increment();
+                    String resumeAt = cursorOf(feed.lastSequence());
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).id(resumeAt).data(resumeAt));
+                    emitter.complete();
+                    return;
+                }
+                List<UserChange> changes = feed.readAfter(sequence, SEND_BATCH, heartbeatMs);
+                if (changes.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment(HEARTBEAT));
+                    continue;
+                }
+                Set<ResponseBodyEmitter.DataWithMediaType> events = new LinkedHashSet<>();
+                for (UserChange change : changes) {
+                    events.addAll(SseEmitter.event()
+                            .id(cursorOf(change.sequence()))
+                            .name(CHANGE_EVENT)
+                            .data(toDto(change), MediaType.APPLICATION_JSON)
+                            .build());
+                }
+                emitter.send(events);
+                changesSent.add(changes.size());
+                sequence = changes.get(changes.size() - 1).sequence();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Change subscriber went away", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } finally {
+            subscribers.release();
+        }
+    }
+
+    private UserChangeDto toDto(UserChange change) {
+        return new UserChangeDto()
+                .setSequence(change.sequence())
+                .setType(change.type())
+                .setId(change.id())
+                .setVersion(change.version())
+                .setUser(change.user() == null ? null : mapper.toDto(change.user()));
+    }
+
+    private String cursorOf(long sequence) {
+        return feed.epoch() + CURSOR_SEPARATOR + sequence;
+    }
+
+    /**
+     * The sequence to stream after, or -1 for a cursor of an earlier feed, which always
+     * resyncs.
+     */
+    private long parseCursor(String cursor) {
+        int separator = cursor.indexOf(CURSOR_SEPARATOR);
+        try {
+            long epoch = Long.parseLong(cursor.substring(0, separator));
+            long sequence = Long.parseLong(cursor.substring(separator + 1));
+            return epoch == feed.epoch() ? sequence : -1L;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IncorrectArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
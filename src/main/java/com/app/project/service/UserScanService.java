@@ -0,0 +1,14 @@
+package com.app.project.service;
+
+import com.app.project.dto.UserFilterDto;
+import com.app.project.dto.UserPageDto;
+import com.app.project.mapper.UserProjection;
+
+public interface UserScanService {
+    /**
+     * Page of users, in id order after {@code cursor}, matching every criterion of
+     * {@code filter} that is set, with the fields of {@code projection}. None of the
+     * criteria has an index, so this scans the store.
+     */
+    UserPageDto filterUsers(UserFilterDto filter, String cursor, int limit, UserProjection projection);
+}
@@ -0,0 +1,90 @@
+package com.app.project.service;
+
+import com.app.project.dto.UserFilterDto;
+import com.app.project.dto.UserPageDto;
+import com.app.project.dto.UserRequestDto;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.exception.IncorrectArgumentException;
+import com.app.project.mapper.UserMapper;
+import com.app.project.mapper.UserProjection;
+import com.app.project.model.User;
+import com.app.project.storage.UserSnapshot;
+import com.app.project.storage.UserStorage;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UserScanServiceImpl implements UserScanService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private final UserMapper<UserRequestDto, User, UserResponseDto> mapper;
+    private final UserStorage storage;
+    private final SegmentedScanner scanner;
+
+    public UserScanServiceImpl(UserMapper<UserRequestDto, User, UserResponseDto> mapper,
+                               UserStorage storage,
+                               SegmentedScanner scanner) {
+        this.mapper = mapper;
+        this.storage = storage;
+        this.scanner = scanner;
+    }
+
+    @Override
+    public UserPageDto filterUsers(UserFilterDto filter, String cursor, int limit, UserProjection projection) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IncorrectArgumentException("Argument 'limit' must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long afterId = parseCursor(cursor);
+        List<User> users;
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            long lastId = storage.lastId();
+            long expectedUsers = Math.min(storage.size(), Math.max(0, lastId - afterId));
+            users = scanner.scan(snapshot, afterId, lastId, expectedUsers, predicate(filter), Function.identity(),
+                    limit + 1);
+        }
+        UserPageDto page = new UserPageDto();
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            page.setNextCursor(String.valueOf(users.get(limit - 1).getId()));
+        }
+        Function<User, UserResponseDto> toDto = projection.isAll() ? mapper::toDto : projection::toDto;
+        return page.setUsers(users.stream().map(toDto).toList());
+    }
+
+    private static Predicate<User> predicate(UserFilterDto filter) {
+        Predicate<User> predicate = user -> true;
+        if (filter.getEmailDomain() != null) {
+            String suffix = "@" + filter.getEmailDomain();
+            predicate = predicate.and(user -> endsWithIgnoreCase(user.getEmail(), suffix));
+        }
+        if (filter.getAddressContains() != null) {
+            String part = filter.getAddressContains().toLowerCase(Locale.ROOT);
+            predicate = predicate.and(user -> user.getAddress() != null
+                    && user.getAddress().toLowerCase(Locale.ROOT).contains(part));
+        }
+        if (filter.getPhonePrefix() != null) {
+            String prefix = filter.getPhonePrefix();
+            predicate = predicate.and(user -> user.getPhoneNumber() != null
+                    && user.getPhoneNumber().startsWith(prefix));
+        }
+        return predicate;
+    }
+
+    private static boolean endsWithIgnoreCase(String value, String suffix) {
+        return value != null && value.regionMatches(true, value.length() - suffix.length(), suffix, 0,
+                suffix.length());
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IncorrectArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
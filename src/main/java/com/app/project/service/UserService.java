@@ -1,24 +1,52 @@
 package com.app.project.service;
 
 import com.app.project.dto.UpdateUserRequestDto;
+import com.app.project.dto.UserPageDto;
 import com.app.project.dto.UserRequestDto;
 import com.app.project.dto.UserResponseDto;
-import com.app.project.model.User;
+import com.app.project.dto.VersionedUserDto;
+import com.app.project.mapper.UserProjection;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Read methods that take a {@link UserProjection} return users with only its fields set;
+ * {@link UserProjection#ALL} returns them whole.
+ */
 public interface UserService {
     UserResponseDto create(UserRequestDto user);
 
     UserResponseDto getById(Long id);
 
+    long getVersion(Long id);
+
+    VersionedUserDto getVersionedById(Long id, UserProjection projection);
+
+    UserResponseDto getByEmail(String email, UserProjection projection);
+
     List<UserResponseDto> findAllUsers();
 
+    Stream<UserResponseDto> streamAllUsers(String cursor, UserProjection projection);
+
+    UserPageDto findAllUsers(String cursor, int limit, UserProjection projection);
+
     List<UserResponseDto> findAllByRange(LocalDate from, LocalDate to);
 
+    Stream<UserResponseDto> streamAllByRange(LocalDate from, LocalDate to, String cursor,
+                                             UserProjection projection);
+
+    UserPageDto findAllByRange(LocalDate from, LocalDate to, String cursor, int limit, UserProjection projection);
+
+    List<UserResponseDto> search(String query, int limit, UserProjection projection);
+
     UserResponseDto update(Long id, UserRequestDto user);
 
     UserResponseDto update(Long id, UpdateUserRequestDto requestDto);
 
+    VersionedUserDto update(Long id, UserRequestDto user, Long expectedVersion);
+
+    VersionedUserDto update(Long id, UpdateUserRequestDto requestDto, Long expectedVersion);
+
     UserResponseDto deleteById(Long id);
 }
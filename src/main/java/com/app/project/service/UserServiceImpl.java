@@ -1,42 +1,79 @@
 package com.app.project.service;
 
 import com.app.project.dto.UpdateUserRequestDto;
+import com.app.project.dto.UserPageDto;
 import com.app.project.dto.UserRequestDto;
 import com.app.project.dto.UserResponseDto;
+import com.app.project.dto.VersionedUserDto;
 import com.app.project.exception.EntityNotFoundException;
 import com.app.project.exception.IncorrectArgumentException;
+import com.app.project.exception.PreconditionFailedException;
 import com.app.project.exception.UserRegistrationException;
 import com.app.project.mapper.UserMapper;
+import com.app.project.mapper.UserProjection;
+import com.app.project.metrics.Metrics;
 import com.app.project.model.User;
-import com.app.project.storage.Storage;
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.EmailIndex;
+import com.app.project.storage.NameIndex;
+import com.app.project.storage.UserSnapshot;
+import com.app.project.storage.UserStorage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class UserServiceImpl implements UserService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String RANGE_CURSOR_SEPARATOR = ":";
     private final UserMapper<UserRequestDto, User, UserResponseDto> mapper;
+    private final UserStorage storage;
+    private final BirthDateIndex birthDateIndex;
+    private final EmailIndex emailIndex;
+    private final NameIndex nameIndex;
+    private final LongAdder rangeRowsScanned;
+    private final LongAdder rangeRowsReturned;
     @Value("${acceptable_age}")
     private int acceptableAge;
-    private int deletedElementNumbers = 0;
 
-    public UserServiceImpl(UserMapper<UserRequestDto, User, UserResponseDto> mapper) {
+    public UserServiceImpl(UserMapper<UserRequestDto, User, UserResponseDto> mapper,
+                           UserStorage storage,
+                           BirthDateIndex birthDateIndex,
+                           EmailIndex emailIndex,
+                           NameIndex nameIndex,
+                           Metrics metrics) {
         this.mapper = mapper;
+        this.storage = storage;
+        this.birthDateIndex = birthDateIndex;
+        this.emailIndex = emailIndex;
+        this.nameIndex = nameIndex;
+        this.rangeRowsScanned = metrics.counter("user_range_rows_scanned_total",
+                "Index entries visited by birth date range queries");
+        this.rangeRowsReturned = metrics.counter("user_range_rows_returned_total",
+                "Users returned by birth date range queries");
     }
 
     @Override
     public UserResponseDto create(UserRequestDto requestDto) {
+        if (requestDto.getBirthDate() == null) {
+            throw new UserRegistrationException("User can't be registered without birth date");
+        }
         if (LocalDate.now().minusYears(acceptableAge).isBefore(requestDto.getBirthDate())) {
             throw new UserRegistrationException("User can't be registered, cause he is younger than 18");
         }
-            User user = mapper.toModel(requestDto);
-            Long id = Storage.storage.size() + 1L + deletedElementNumbers;
-            user.setId(id);
-            Storage.storage.put(user.getId(), user);
-            return mapper.toDto(user);
+        User user = mapper.toModel(requestDto);
+        user.setId(storage.nextId());
+        storage.put(user);
+        return mapper.toDto(user);
     }
 
     @Override
@@ -44,54 +81,225 @@ public class UserServiceImpl implements UserService {
         return mapper.toDto(findUserById(id));
     }
 
+    @Override
+    public long getVersion(Long id) {
+        return findUserById(id).getVersion();
+    }
+
+    @Override
+    public VersionedUserDto getVersionedById(Long id, UserProjection projection) {
+        return toVersioned(findUserById(id), projection);
+    }
+
+    @Override
+    public UserResponseDto getByEmail(String email, UserProjection projection) {
+        return emailIndex.findId(email)
+                .flatMap(storage::get)
+                .filter(u -> email.equalsIgnoreCase(u.getEmail()))
+                .map(mapperFor(projection))
+                .orElseThrow(() -> new EntityNotFoundException("Can't find user by email = " + email));
+    }
+
     @Override
     public List<UserResponseDto> findAllUsers() {
-        return Storage.storage.values().stream()
-                .map(mapper::toDto)
-                .toList();
+        try (Stream<UserResponseDto> users = streamAllUsers(null, UserProjection.ALL)) {
+            return users.toList();
+        }
+    }
+
+    @Override
+    public Stream<UserResponseDto> streamAllUsers(String cursor, UserProjection projection) {
+        return usersAfter(cursor).map(mapperFor(projection));
+    }
+
+    @Override
+    public UserPageDto findAllUsers(String cursor, int limit, UserProjection projection) {
+        checkLimit(limit);
+        List<User> users;
+        try (Stream<User> stream = usersAfter(cursor)) {
+            users = stream.limit(limit + 1L).toList();
+        }
+        return toPage(users, limit, last -> String.valueOf(last.getId()), projection);
     }
 
     @Override
     public List<UserResponseDto> findAllByRange(LocalDate from, LocalDate to) {
-        if (from.isAfter(to)) {
-            throw new IncorrectArgumentException("Argument 'from' must be greater than 'to'");
+        try (Stream<UserResponseDto> users = streamAllByRange(from, to, null, UserProjection.ALL)) {
+            return users.toList();
         }
-        return Storage.storage.values().stream()
-                .filter(u -> u.getBirthDate().isAfter(from) && u.getBirthDate().isBefore(to))
-                .map(mapper::toDto)
+    }
+
+    @Override
+    public Stream<UserResponseDto> streamAllByRange(LocalDate from, LocalDate to, String cursor,
+                                                    UserProjection projection) {
+        return usersInRange(from, to, cursor).map(mapperFor(projection));
+    }
+
+    @Override
+    public UserPageDto findAllByRange(LocalDate from, LocalDate to, String cursor, int limit,
+                                      UserProjection projection) {
+        checkLimit(limit);
+        List<User> users;
+        try (Stream<User> stream = usersInRange(from, to, cursor)) {
+            users = stream.limit(limit + 1L).toList();
+        }
+        return toPage(users, limit, last -> last.getBirthDate().toEpochDay()
+                + RANGE_CURSOR_SEPARATOR + last.getId(), projection);
+    }
+
+    @Override
+    public List<UserResponseDto> search(String query, int limit, UserProjection projection) {
+        checkLimit(limit);
+        List<String> tokens = NameIndex.tokenize(query);
+        if (tokens.isEmpty()) {
+            throw new IncorrectArgumentException("Argument 'q' must contain a letter or digit");
+        }
+        String longest = tokens.stream()
+                .max(Comparator.comparingInt(String::length))
+                .orElseThrow();
+        return nameIndex.findIds(longest)
+                .distinct()
+                .map(storage::get)
+                .flatMap(Optional::stream)
+                .filter(user -> tokens.stream().allMatch(token -> nameIndex.matches(user, token)))
+                .limit(limit)
+                .map(mapperFor(projection))
                 .toList();
     }
 
     @Override
     public UserResponseDto update(Long id, UserRequestDto requestDto) {
-        findUserById(id);
+        return update(id, requestDto, null).getUser();
+    }
+
+    @Override
+    public UserResponseDto update(Long id, UpdateUserRequestDto requestDto) {
+        return update(id, requestDto, null).getUser();
+    }
+
+    @Override
+    public VersionedUserDto update(Long id, UserRequestDto requestDto, Long expectedVersion) {
         User user = mapper.toModel(requestDto);
         user.setId(id);
-        Storage.storage.put(id, user);
-        return mapper.toDto(user);
+        return storage.computeIfPresent(id, current -> {
+                    checkVersion(current, expectedVersion);
+                    return user;
+                })
+                .map(this::toVersioned)
+                .orElseThrow(() -> notFound(id));
     }
 
     @Override
-    public UserResponseDto update(Long id, UpdateUserRequestDto requestDto) {
-        User user = findUserById(id);
-        user.setFirstName(requestDto.getFirstName());
-        user.setLastName(requestDto.getLastName());
-        Storage.storage.put(id, user);
-        return mapper.toDto(user);
+    public VersionedUserDto update(Long id, UpdateUserRequestDto requestDto, Long expectedVersion) {
+        return storage.computeIfPresent(id, current -> {
+                    checkVersion(current, expectedVersion);
+                    return current.toBuilder()
+                            .firstName(requestDto.getFirstName())
+                            .lastName(requestDto.getLastName())
+                            .build();
+                })
+                .map(this::toVersioned)
+                .orElseThrow(() -> notFound(id));
     }
 
     @Override
     public UserResponseDto deleteById(Long id) {
-        User deletedUser = findUserById(id);
-        Storage.storage.remove(id);
-        deletedElementNumbers++;
-        return mapper.toDto(deletedUser);
+        return storage.remove(id)
+                .map(mapper::toDto)
+                .orElseThrow(() -> notFound(id));
     }
 
-    private User findUserById(Long id) {
-        if (!Storage.storage.containsKey(id)) {
-            throw new EntityNotFoundException("Can't find user by id = " + id);
+    private void checkVersion(User current, Long expectedVersion) {
+        if (expectedVersion != null && current.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("User with id = " + current.getId() + " has version "
+                    + current.getVersion() + ", not " + expectedVersion);
+        }
+    }
+
+    private VersionedUserDto toVersioned(User user) {
+        return toVersioned(user, UserProjection.ALL);
+    }
+
+    private VersionedUserDto toVersioned(User user, UserProjection projection) {
+        return new VersionedUserDto()
+                .setVersion(user.getVersion())
+                .setUser(mapperFor(projection).apply(user));
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IncorrectArgumentException("Argument 'limit' must be between 1 and " + MAX_PAGE_SIZE);
         }
-        return Storage.storage.get(id);
+    }
+
+    /**
+     * Cursors are taken from the users rather than the responses, which may not carry the
+     * fields a cursor is made of.
+     */
+    private UserPageDto toPage(List<User> users, int limit, Function<User, String> cursorOf,
+                               UserProjection projection) {
+        Function<User, UserResponseDto> toDto = mapperFor(projection);
+        if (users.size() <= limit) {
+            return new UserPageDto().setUsers(users.stream().map(toDto).toList());
+        }
+        List<User> page = users.subList(0, limit);
+        return new UserPageDto()
+                .setUsers(page.stream().map(toDto).toList())
+                .setNextCursor(cursorOf.apply(page.get(limit - 1)));
+    }
+
+    private Function<User, UserResponseDto> mapperFor(UserProjection projection) {
+        return projection.isAll() ? mapper::toDto : projection::toDto;
+    }
+
+    private Stream<User> usersAfter(String cursor) {
+        long afterId = parseIdCursor(cursor);
+        UserSnapshot snapshot = storage.snapshot();
+        return snapshot.valuesAfter(afterId)
+                .onClose(snapshot::close);
+    }
+
+    private Stream<User> usersInRange(LocalDate from, LocalDate to, String cursor) {
+        if (from.isAfter(to)) {
+            throw new IncorrectArgumentException("Argument 'from' must be greater than 'to'");
+        }
+        long[] position = cursor == null ? new long[] {Long.MIN_VALUE, Long.MIN_VALUE} : parseRangeCursor(cursor);
+        UserSnapshot snapshot = storage.snapshot();
+        SnapshotRangeScan scan = new SnapshotRangeScan(snapshot, birthDateIndex, from, to,
+                position[0], position[1], rangeRowsScanned, rangeRowsReturned);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(scan,
+                        Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false)
+                .onClose(snapshot::close);
+    }
+
+    private long parseIdCursor(String cursor) {
+        if (cursor == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IncorrectArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private long[] parseRangeCursor(String cursor) {
+        int separator = cursor.indexOf(RANGE_CURSOR_SEPARATOR);
+        try {
+            return new long[] {
+                    Long.parseLong(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1))
+            };
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IncorrectArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private User findUserById(Long id) {
+        return storage.get(id).orElseThrow(() -> notFound(id));
+    }
+
+    private EntityNotFoundException notFound(Long id) {
+        return new EntityNotFoundException("Can't find user by id = " + id);
     }
 }
@@ -0,0 +1,13 @@
+package com.app.project.service;
+
+import com.app.project.dto.BirthDateGrouping;
+import com.app.project.dto.BirthDateStatsDto;
+import java.time.LocalDate;
+
+public interface UserStatsService {
+    /**
+     * Counts users by birth year, birth month or age on {@code asOf} in bands of
+     * {@code bandWidth} years starting at the acceptable age.
+     */
+    BirthDateStatsDto countByBirthDate(BirthDateGrouping groupBy, int bandWidth, LocalDate asOf);
+}
@@ -0,0 +1,104 @@
+package com.app.project.service;
+
+import com.app.project.dto.BirthDateGrouping;
+import com.app.project.dto.BirthDateStatsDto;
+import com.app.project.dto.CountBucketDto;
+import com.app.project.exception.IncorrectArgumentException;
+import com.app.project.storage.BirthDateCounts;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers aggregations from {@link BirthDateCounts}, so every bucket is a range count and
+ * a query costs {@code O(buckets * log days)} whatever the number of users.
+ *
+ * <p>Age bands are half-open, {@code [acceptable_age + k * width, acceptable_age + (k + 1) * width)},
+ * preceded by one band for users younger than the acceptable age and continued until the
+ * oldest user is covered.
+ */
+@Service
+public class UserStatsServiceImpl implements UserStatsService {
+    private static final int MAX_BAND_WIDTH = 100;
+    private final BirthDateCounts counts;
+    private final int acceptableAge;
+
+    public UserStatsServiceImpl(BirthDateCounts counts, @Value("${acceptable_age}") int acceptableAge) {
+        this.counts = counts;
+        this.acceptableAge = acceptableAge;
+    }
+
+    @Override
+    public BirthDateStatsDto countByBirthDate(BirthDateGrouping groupBy, int bandWidth, LocalDate asOf) {
+        BirthDateStatsDto stats = new BirthDateStatsDto()
+                .setGroupBy(groupBy);
+        List<CountBucketDto> buckets = switch (groupBy) {
+            case YEAR -> byYear();
+            case MONTH -> byMonth();
+            case AGE_BAND -> {
+                if (bandWidth < 1 || bandWidth > MAX_BAND_WIDTH) {
+                    throw new IncorrectArgumentException("Argument 'bandWidth' must be between 1 and "
+                            + MAX_BAND_WIDTH);
+                }
+                stats.setAsOf(asOf).setAcceptableAge(acceptableAge);
+                yield byAgeBand(bandWidth, asOf);
+            }
+        };
+        return stats.setBuckets(buckets)
+                .setTotal(buckets.stream().mapToLong(CountBucketDto::getCount).sum());
+    }
+
+    private List<CountBucketDto> byYear() {
+        List<CountBucketDto> buckets = new ArrayList<>();
+        LocalDate first = counts.first();
+        LocalDate last = counts.last();
+        if (first == null || last == null) {
+            return buckets;
+        }
+        for (int year = first.getYear(); year <= last.getYear(); year++) {
+            buckets.add(bucket(String.valueOf(year), LocalDate.of(year, Month.JANUARY, 1),
+                    LocalDate.of(year + 1, Month.JANUARY, 1)));
+        }
+        return buckets;
+    }
+
+    private List<CountBucketDto> byMonth() {
+        List<CountBucketDto> buckets = new ArrayList<>();
+        for (Month month : Month.values()) {
+            buckets.add(new CountBucketDto()
+                    .setLabel(month.name())
+                    .setCount(counts.count(month)));
+        }
+        return buckets;
+    }
+
+    private List<CountBucketDto> byAgeBand(int bandWidth, LocalDate asOf) {
+        List<CountBucketDto> buckets = new ArrayList<>();
+        buckets.add(bucket("<" + acceptableAge, youngerFrom(asOf, acceptableAge), asOf.plusDays(1)));
+        LocalDate first = counts.first();
+        for (int age = acceptableAge; first != null && first.isBefore(youngerFrom(asOf, age)); age += bandWidth) {
+            buckets.add(bucket(age + "-" + (age + bandWidth - 1), youngerFrom(asOf, age + bandWidth),
+                    youngerFrom(asOf, age)));
+        }
+        return buckets;
+    }
+
+    /**
+     * The earliest birth date of users younger than {@code age} on {@code asOf}; everyone
+     * born before it is at least that old.
+     */
+    private static LocalDate youngerFrom(LocalDate asOf, int age) {
+        return asOf.minusYears(age).plusDays(1);
+    }
+
+    private CountBucketDto bucket(String label, LocalDate from, LocalDate to) {
+        return new CountBucketDto()
+                .setLabel(label)
+                .setFrom(from)
+                .setTo(to)
+                .setCount(counts.countBetween(from, to));
+    }
+}
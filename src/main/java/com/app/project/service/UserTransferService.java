@@ -0,0 +1,18 @@
+package com.app.project.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface UserTransferService {
+    /**
+     * Writes every user as one JSON object per line, from a point-in-time snapshot.
+     */
+    void exportUsers(OutputStream out) throws IOException;
+
+    /**
+     * Creates a user for every line of {@code in}, one JSON {@code UserRequestDto} per line,
+     * and writes rejects, progress and a final summary to {@code out} as NDJSON events.
+     */
+    void importUsers(InputStream in, OutputStream out) throws IOException;
+}
@@ -0,0 +1,151 @@
+package com.app.project.service;
+
+import com.app.project.dto.BatchOperationDto;
+import com.app.project.dto.BatchOperationType;
+import com.app.project.dto.BatchResultDto;
+import com.app.project.dto.ImportEventDto;
+import com.app.project.dto.UserRequestDto;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.mapper.UserProjection;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves the whole user base through a single request in constant memory. Export streams a
+ * snapshot straight into the response. Import reads one line at a time, parses it into a
+ * {@link UserRequestDto} and hands full batches to {@link UserBatchService}, so records are
+ * validated and created exactly like {@code POST /users/batch} items, and only one batch
+ * is ever held at once.
+ */
+@Slf4j
+@Service
+public class UserTransferServiceImpl implements UserTransferService {
+    private final UserService userService;
+    private final UserBatchService userBatchService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+    private final int maxLineBytes;
+
+    public UserTransferServiceImpl(UserService userService,
+                                   UserBatchService userBatchService,
+                                   ObjectMapper objectMapper,
+                                   @Value("${import.batch-size}") int batchSize,
+                                   @Value("${import.max-line-bytes}") int maxLineBytes) {
+        this.userService = userService;
+        this.userBatchService = userBatchService;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(UserRequestDto.class);
+        this.batchSize = batchSize;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    @Override
+    public void exportUsers(OutputStream out) throws IOException {
+        JsonGenerator generator = lineGenerator(out);
+        try (Stream<UserResponseDto> users = userService.streamAllUsers(null, UserProjection.ALL)) {
+            Iterator<UserResponseDto> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                writeLine(generator, iterator.next());
+            }
+        }
+        generator.flush();
+    }
+
+    @Override
+    public void importUsers(InputStream in, OutputStream out) throws IOException {
+        long startedAt = System.nanoTime();
+        JsonGenerator generator = lineGenerator(out);
+        NdjsonLineReader lines = new NdjsonLineReader(in, maxLineBytes);
+        List<BatchOperationDto> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        ImportEventDto progress = new ImportEventDto()
+                .setType(ImportEventDto.PROGRESS)
+                .setRecords(0L)
+                .setCreated(0L)
+                .setRejected(0L);
+        while (lines.next()) {
+            if (lines.isBlank()) {
+                continue;
+            }
+            progress.setRecords(progress.getRecords() + 1);
+            if (lines.isTooLong()) {
+                reject(generator, progress, lines.number(), "Line is longer than " + maxLineBytes + " bytes");
+                continue;
+            }
+            UserRequestDto user;
+            try {
+                user = requestReader.readValue(lines.line(), 0, lines.length());
+            } catch (JsonProcessingException e) {
+                reject(generator, progress, lines.number(), "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            batch.add(new BatchOperationDto().setOperation(BatchOperationType.CREATE).setUser(user));
+            batchLines.add(lines.number());
+            if (batch.size() == batchSize) {
+                applyBatch(generator, progress, batch, batchLines);
+            }
+        }
+        applyBatch(generator, progress, batch, batchLines);
+        writeLine(generator, progress.setType(ImportEventDto.DONE));
+        generator.flush();
+        log.info("Imported {} of {} user records in {} ms", progress.getCreated(), progress.getRecords(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private void applyBatch(JsonGenerator generator, ImportEventDto progress, List<BatchOperationDto> batch,
+                            List<Long> batchLines) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (BatchResultDto result : userBatchService.apply(batch)) {
+            if (result.getStatus() == HttpStatus.CREATED.value()) {
+                progress.setCreated(progress.getCreated() + 1);
+            } else {
+                progress.setRejected(progress.getRejected() + 1);
+                writeLine(generator, new ImportEventDto()
+                        .setType(ImportEventDto.REJECTED)
+                        .setLine(batchLines.get(result.getIndex()))
+                        .setStatus(result.getStatus())
+                        .setError(result.getError()));
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+        writeLine(generator, progress);
+        generator.flush();
+    }
+
+    private void reject(JsonGenerator generator, ImportEventDto progress, long line, String error)
+            throws IOException {
+        progress.setRejected(progress.getRejected() + 1);
+        writeLine(generator, new ImportEventDto()
+                .setType(ImportEventDto.REJECTED)
+                .setLine(line)
+                .setStatus(HttpStatus.BAD_REQUEST.value())
+                .setError(error));
+    }
+
+    private JsonGenerator lineGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out)
+                .setRootValueSeparator(null);
+    }
+
+    private void writeLine(JsonGenerator generator, Object value) throws IOException {
+        generator.writeObject(value);
+        generator.writeRaw('\n');
+    }
+}
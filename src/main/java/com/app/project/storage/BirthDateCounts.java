@@ -0,0 +1,139 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Number of users born on each day, kept as a Fenwick tree over epoch days so the count
+ * of any date range costs two prefix sums of {@code O(log days)} each, plus a counter per
+ * calendar month. Every write adjusts the counts of the old and new birth dates, so
+ * aggregations never touch the users themselves.
+ *
+ * <p>Cells are updated one by one without a lock, so a count read while a write is half
+ * applied can be off by that one user, the same weak consistency the storage iterators
+ * have. Dates outside {@link #FIRST_DAY} and {@link #END_DAY} are counted on the nearest
+ * edge day.
+ */
+@Component
+public class BirthDateCounts implements UserStorageListener {
+    public static final LocalDate FIRST_DAY = LocalDate.of(1800, Month.JANUARY, 1);
+    public static final LocalDate END_DAY = LocalDate.of(2200, Month.JANUARY, 1);
+    private static final long FIRST_EPOCH_DAY = FIRST_DAY.toEpochDay();
+    private static final int DAYS = (int) (END_DAY.toEpochDay() - FIRST_EPOCH_DAY);
+    private final AtomicLongArray tree = new AtomicLongArray(DAYS + 1);
+    private final AtomicLongArray byMonth = new AtomicLongArray(Month.values().length);
+
+    @Override
+    public void onChange(User previous, User current) {
+        LocalDate oldDate = previous == null ? null : previous.getBirthDate();
+        LocalDate newDate = current == null ? null : current.getBirthDate();
+        if (Objects.equals(oldDate, newDate)) {
+            return;
+        }
+        if (oldDate != null) {
+            add(oldDate, -1);
+        }
+        if (newDate != null) {
+            add(newDate, 1);
+        }
+    }
+
+    @Override
+    public void rebuild(Stream<User> users) {
+        for (int i = 0; i < tree.length(); i++) {
+            tree.set(i, 0);
+        }
+        for (int i = 0; i < byMonth.length(); i++) {
+            byMonth.set(i, 0);
+        }
+        users.forEach(u -> onChange(null, u));
+    }
+
+    /**
+     * Users born on or after {@code from} and before {@code to}.
+     */
+    public long countBetween(LocalDate from, LocalDate to) {
+        int start = boundary(from);
+        int end = boundary(to);
+        return end <= start ? 0 : prefixSum(end) - prefixSum(start);
+    }
+
+    public long count(Month month) {
+        return byMonth.get(month.ordinal());
+    }
+
+    public long total() {
+        return prefixSum(DAYS);
+    }
+
+    /**
+     * The earliest birth date with a user, or null when there are none.
+     */
+    public LocalDate first() {
+        int day = dayOfRank(1);
+        return day < 0 ? null : FIRST_DAY.plusDays(day);
+    }
+
+    /**
+     * The latest birth date with a user, or null when there are none.
+     */
+    public LocalDate last() {
+        int day = dayOfRank(total());
+        return day < 0 ? null : FIRST_DAY.plusDays(day);
+    }
+
+    private void add(LocalDate date, long delta) {
+        for (int i = index(date) + 1; i <= DAYS; i += i & -i) {
+            tree.addAndGet(i, delta);
+        }
+        byMonth.addAndGet(date.getMonthValue() - 1, delta);
+    }
+
+    /**
+     * Users born on the first {@code days} days of the range.
+     */
+    private long prefixSum(int days) {
+        long sum = 0;
+        for (int i = days; i > 0; i -= i & -i) {
+            sum += tree.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * The day holding the {@code rank}-th user in birth date order, or -1 when there are
+     * fewer users.
+     */
+    private int dayOfRank(long rank) {
+        if (rank <= 0) {
+            return -1;
+        }
+        int position = 0;
+        long remaining = rank;
+        for (int step = Integer.highestOneBit(DAYS); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= DAYS) {
+                long count = tree.get(next);
+                if (count < remaining) {
+                    position = next;
+                    remaining -= count;
+                }
+            }
+        }
+        return position < DAYS ? position : -1;
+    }
+
+    private static int index(LocalDate date) {
+        return Math.min(DAYS - 1, boundary(date));
+    }
+
+    private static int boundary(LocalDate date) {
+        long day = date.toEpochDay() - FIRST_EPOCH_DAY;
+        return (int) Math.max(0, Math.min(DAYS, day));
+    }
+}
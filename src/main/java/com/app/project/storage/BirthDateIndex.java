@@ -0,0 +1,79 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sorted multi-valued index from epoch day to user ids. Day buckets are never unlinked
+ * once created (there are only a few tens of thousands of distinct birth dates), which
+ * keeps add and remove free of races between writers of different ids.
+ */
+@Component
+public class BirthDateIndex implements UserStorageListener {
+    private final ConcurrentSkipListMap<Long, ConcurrentSkipListSet<Long>> idsByEpochDay =
+            new ConcurrentSkipListMap<>();
+
+    @Override
+    public void onChange(User previous, User current) {
+        LocalDate oldDate = previous == null ? null : previous.getBirthDate();
+        LocalDate newDate = current == null ? null : current.getBirthDate();
+        if (Objects.equals(oldDate, newDate)) {
+            return;
+        }
+        if (oldDate != null) {
+            ConcurrentSkipListSet<Long> ids = idsByEpochDay.get(oldDate.toEpochDay());
+            if (ids != null) {
+                ids.remove(previous.getId());
+            }
+        }
+        if (newDate != null) {
+            idsByEpochDay.computeIfAbsent(newDate.toEpochDay(), d -> new ConcurrentSkipListSet<>())
+                    .add(current.getId());
+        }
+    }
+
+    @Override
+    public void rebuild(Stream<User> users) {
+        idsByEpochDay.clear();
+        users.forEach(u -> onChange(null, u));
+    }
+
+    public Stream<Long> findIdsBetween(LocalDate from, LocalDate to) {
+        return idsByEpochDay.subMap(from.toEpochDay(), false, to.toEpochDay(), false)
+                .values().stream()
+                .flatMap(ConcurrentSkipListSet::stream);
+    }
+
+    /**
+     * Entries strictly between {@code from} and {@code to} that sort after
+     * {@code (afterEpochDay, afterId)}, in (epoch day, id) order.
+     */
+    public Stream<Entry> findEntriesBetween(LocalDate from, LocalDate to, long afterEpochDay, long afterId) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        if (afterEpochDay <= fromDay) {
+            return entries(idsByEpochDay.subMap(fromDay, false, toDay, false));
+        }
+        if (afterEpochDay >= toDay) {
+            return Stream.empty();
+        }
+        ConcurrentSkipListSet<Long> firstDay = idsByEpochDay.get(afterEpochDay);
+        Stream<Entry> rest = entries(idsByEpochDay.subMap(afterEpochDay, false, toDay, false));
+        return firstDay == null ? rest : Stream.concat(firstDay.tailSet(afterId, false).stream()
+                .map(id -> new Entry(afterEpochDay, id)), rest);
+    }
+
+    private static Stream<Entry> entries(Map<Long, ConcurrentSkipListSet<Long>> days) {
+        return days.entrySet().stream()
+                .flatMap(day -> day.getValue().stream().map(id -> new Entry(day.getKey(), id)));
+    }
+
+    public record Entry(long epochDay, long id) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.app.project.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only store of UTF-8 strings in 1 MiB pages. A string is addressed by the long
+ * position of its varint length prefix and never crosses a page. Not thread-safe.
+ */
+final class ByteArena {
+    static final long NULL = -1L;
+    private static final int PAGE_BITS = 20;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int MAX_LENGTH_PREFIX = 3;
+
+    private byte[][] pages = new byte[8][];
+    private int pageCount;
+    private int pageOffset = PAGE_SIZE;
+    private long usedBytes;
+
+    long append(String value) {
+        return append(encode(value));
+    }
+
+    /**
+     * The UTF-8 bytes {@link #append(byte[])} takes for {@code value}, or null for null.
+     * Rejects a value that can't fit in a page, so callers can check every value before
+     * changing anything.
+     */
+    static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (MAX_LENGTH_PREFIX + bytes.length > PAGE_SIZE) {
+            throw new IllegalArgumentException("Value of " + bytes.length + " bytes is too long");
+        }
+        return bytes;
+    }
+
+    long append(byte[] bytes) {
+        if (bytes == null) {
+            return NULL;
+        }
+        int required = MAX_LENGTH_PREFIX + bytes.length;
+        if (pageOffset + required > PAGE_SIZE) {
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, pageCount * 2);
+            }
+            pages[pageCount++] = new byte[PAGE_SIZE];
+            pageOffset = 0;
+        }
+        byte[] page = pages[pageCount - 1];
+        long position = ((long) (pageCount - 1) << PAGE_BITS) | pageOffset;
+        int start = pageOffset;
+        int length = bytes.length;
+        while (length >= 0x80) {
+            page[pageOffset++] = (byte) (length | 0x80);
+            length >>>= 7;
+        }
+        page[pageOffset++] = (byte) length;
+        System.arraycopy(bytes, 0, page, pageOffset, bytes.length);
+        pageOffset += bytes.length;
+        usedBytes += pageOffset - start;
+        return position;
+    }
+
+    String read(long position) {
+        if (position == NULL) {
+            return null;
+        }
+        byte[] page = pages[(int) (position >>> PAGE_BITS)];
+        int offset = (int) (position & (PAGE_SIZE - 1));
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = page[offset++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return new String(page, offset, length, StandardCharsets.UTF_8);
+    }
+
+    int sizeOf(long position) {
+        if (position == NULL) {
+            return 0;
+        }
+        byte[] page = pages[(int) (position >>> PAGE_BITS)];
+        int offset = (int) (position & (PAGE_SIZE - 1));
+        int length = 0;
+        int shift = 0;
+        int prefix = 0;
+        byte b;
+        do {
+            b = page[offset++];
+            prefix++;
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return prefix + length;
+    }
+
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    long allocatedBytes() {
+        return (long) pageCount * PAGE_SIZE;
+    }
+}
@@ -0,0 +1,178 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import com.app.project.storage.persistence.UserRecordCodec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Append-only memory-mapped files holding the users {@link TieredUserStorage} paged out of
+ * the heap, as {@code [int length][user record]} in the {@link UserRecordCodec} layout. A
+ * record is never changed once written; a newer state of the user is written elsewhere and
+ * the old record only stops counting as live.
+ *
+ * <p>Only one thread appends at a time (the caller serializes it); readers need no lock
+ * because a {@link ColdRef} is published after its bytes are written. A retired segment's
+ * file is deleted, but its mapping stays valid for as long as a reference is reachable, so
+ * a reader racing with compaction never sees a closed buffer. The segment list is
+ * copy-on-write, since the metrics thread reads its size while the storage thread opens and
+ * retires segments.
+ *
+ * <p>Segments are a cache of state that the write-ahead log and snapshots already make
+ * durable, so they are dropped on startup rather than recovered.
+ */
+final class ColdSegments implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "cold-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private long nextSegment;
+    private Segment active;
+
+    ColdSegments(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(ColdSegments::isSegment).toList()) {
+                    Files.delete(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    ColdRef append(User user) {
+        byte[] record = UserRecordCodec.encode(user);
+        int size = Integer.BYTES + record.length;
+        if (size > segmentBytes) {
+            throw new IllegalArgumentException("User record of " + size + " bytes exceeds the segment size");
+        }
+        if (active == null || active.position + size > segmentBytes) {
+            active = open();
+        }
+        int offset = active.position;
+        active.buffer.putInt(offset, record.length);
+        active.buffer.put(offset + Integer.BYTES, record);
+        active.position += size;
+        active.liveBytes.addAndGet(size);
+        return new ColdRef(active, offset);
+    }
+
+    /**
+     * Marks the record behind {@code ref} as no longer holding the current state of its user.
+     */
+    static void release(ColdRef ref) {
+        ref.segment.liveBytes.addAndGet(-ref.size());
+    }
+
+    /**
+     * Full segments that are at most half live, oldest first. Segments with nothing live
+     * left are deleted on the way.
+     */
+    List<Segment> sparse() {
+        List<Segment> sparse = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment == active) {
+                continue;
+            }
+            long live = segment.liveBytes.get();
+            if (live == 0) {
+                retire(segment);
+            } else if (live * 2 <= segment.position) {
+                sparse.add(segment);
+            }
+        }
+        return sparse;
+    }
+
+    long mappedBytes() {
+        return (long) segments.size() * segmentBytes;
+    }
+
+    @Override
+    public void close() {
+        for (Segment segment : segments) {
+            retire(segment);
+        }
+        active = null;
+    }
+
+    private Segment open() {
+        Path path = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, nextSegment++, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            Segment segment = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void retire(Segment segment) {
+        segments.remove(segment);
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    static final class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final AtomicLong liveBytes = new AtomicLong();
+        private int position;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Offsets of every record written so far, in write order.
+         */
+        List<Integer> offsets() {
+            List<Integer> offsets = new ArrayList<>();
+            for (int offset = 0; offset < position; offset += Integer.BYTES + buffer.getInt(offset)) {
+                offsets.add(offset);
+            }
+            return offsets;
+        }
+
+        long idAt(int offset) {
+            return buffer.getLong(offset + Integer.BYTES);
+        }
+    }
+
+    record ColdRef(Segment segment, int offset) {
+        User read() {
+            ByteBuffer buffer = segment.buffer;
+            return UserRecordCodec.decode(buffer.slice(offset + Integer.BYTES, buffer.getInt(offset)));
+        }
+
+        int size() {
+            return Integer.BYTES + segment.buffer.getInt(offset);
+        }
+    }
+}
@@ -0,0 +1,630 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Struct-of-arrays storage for very large user sets: one row per user across primitive
+ * column arrays, the birth date as an int epoch day and every string in a shared
+ * {@link ByteArena}, with ids mapped to rows by a {@link LongIntHashMap}. {@link User}
+ * objects exist only for the duration of a call; versions are kept as a long column. Rows
+ * are kept in id order; updates append new string bytes and deletes leave tombstones until
+ * the next compaction.
+ *
+ * <p>Trades write scalability for footprint: a read-write lock guards all columns, and
+ * scans read in small batches so a long-running scan never holds it for long.
+ *
+ * <p>{@link #snapshot()} reads through an undo log: while any snapshot is open, every write
+ * first records the state it replaces together with its commit number, and a snapshot
+ * swaps in the oldest record committed after it. Without open snapshots nothing is
+ * recorded, and records are dropped as soon as the snapshots that need them close.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "columnar")
+public class ColumnarUserStorage implements UserStorage {
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final int FIELDS = 5;
+    private static final int EMAIL = 0;
+    private static final int FIRST_NAME = 1;
+    private static final int LAST_NAME = 2;
+    private static final int ADDRESS = 3;
+    private static final int PHONE_NUMBER = 4;
+    private static final int INITIAL_ROWS = 1024;
+    private static final int SCAN_BATCH = 256;
+    private static final long MIN_GARBAGE_TO_COMPACT = 4L * 1024 * 1024;
+    private static final long LATEST = Long.MAX_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong sequence = new AtomicLong();
+    private final StorageListeners listeners;
+    private final SnapshotRegistry snapshots = new SnapshotRegistry();
+    private final TreeMap<Long, Undo> undo = new TreeMap<>();
+    private long commits;
+    private LongIntHashMap rowsById = new LongIntHashMap();
+    private ByteArena arena = new ByteArena();
+    private long[] ids = new long[INITIAL_ROWS];
+    private int[] birthDays = new int[INITIAL_ROWS];
+    private long[] versions = new long[INITIAL_ROWS];
+    private long[] strings = new long[INITIAL_ROWS * FIELDS];
+    private BitSet deleted = new BitSet();
+    private int rows;
+    private int deletedRows;
+    private long garbageBytes;
+    private boolean sorted = true;
+
+    public ColumnarUserStorage() {
+        this(List.of());
+    }
+
+    @Autowired
+    public ColumnarUserStorage(List<UserStorageListener> listeners) {
+        this.listeners = new StorageListeners(listeners);
+    }
+
+    @Override
+    public long nextId() {
+        return sequence.incrementAndGet();
+    }
+
+    @Override
+    public Optional<User> get(long id) {
+        lock.readLock().lock();
+        try {
+            int row = rowsById.get(id);
+            return row == LongIntHashMap.MISSING ? Optional.empty() : Optional.of(materialize(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return rowsById.get(id) != LongIntHashMap.MISSING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User put(User user) {
+        advanceLastId(user.getId());
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.get(user.getId());
+            User previous = row == LongIntHashMap.MISSING ? null : materialize(row);
+            User stored = UserVersions.next(previous, user);
+            byte[][] encoded = encode(stored);
+            recordUndo(user.getId(), previous);
+            listeners.notifyChange(previous, stored);
+            write(row, stored, encoded);
+            listeners.afterCommit(previous, stored);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<User> computeIfPresent(long id, UnaryOperator<User> remapping) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.get(id);
+            if (row == LongIntHashMap.MISSING) {
+                return Optional.empty();
+            }
+            User current = materialize(row);
+            User updated = UserVersions.next(current, remapping.apply(current));
+            byte[][] encoded = encode(updated);
+            recordUndo(id, current);
+            listeners.notifyChange(current, updated);
+            write(row, updated, encoded);
+            listeners.afterCommit(current, updated);
+            return Optional.of(updated);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<User> remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.get(id);
+            if (row == LongIntHashMap.MISSING) {
+                return Optional.empty();
+            }
+            User previous = materialize(row);
+            recordUndo(id, previous);
+            listeners.notifyChange(previous, null);
+            delete(id, row);
+            listeners.afterCommit(previous, null);
+            return Optional.of(previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void batch(Runnable writes) {
+        listeners.batch(writes);
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<User> values() {
+        return valuesAfter(Long.MIN_VALUE);
+    }
+
+    @Override
+    public Stream<User> valuesAfter(long id) {
+        return valuesAfter(id, LATEST);
+    }
+
+    @Override
+    public UserSnapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            return new Snapshot(snapshots.register(() -> commits));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int openSnapshots() {
+        return snapshots.size();
+    }
+
+    @Override
+    public UserSnapshot quiescentSnapshot(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+            return new Snapshot(snapshots.register(() -> commits));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long lastId() {
+        return sequence.get();
+    }
+
+    @Override
+    public void advanceLastId(long id) {
+        sequence.accumulateAndGet(id, Math::max);
+    }
+
+    @Override
+    public void load(User user) {
+        advanceLastId(user.getId());
+        byte[][] encoded = encode(user);
+        lock.writeLock().lock();
+        try {
+            write(rowsById.get(user.getId()), user, encoded);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void unload(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.get(id);
+            if (row != LongIntHashMap.MISSING) {
+                delete(id, row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void reindex() {
+        listeners.rebuild(this::values);
+    }
+
+    @Override
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) ids.length * (2 * Long.BYTES + Integer.BYTES + FIELDS * Long.BYTES)
+                    + rowsById.sizeInBytes() + arena.allocatedBytes() + deleted.size() / Byte.SIZE;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Stream<User> valuesAfter(long id, long readAt) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new BatchIterator(id, readAt),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    /**
+     * Stamps the write about to replace {@code previous} (null on insert) and, if a snapshot
+     * is open, keeps {@code previous} for it. Caller holds the write lock.
+     */
+    private void recordUndo(long id, User previous) {
+        long commit = ++commits;
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        snapshots.written(id);
+        Undo record = new Undo(previous, commit);
+        Undo oldest = undo.putIfAbsent(id, record);
+        if (oldest != null) {
+            while (oldest.newer != null) {
+                oldest = oldest.newer;
+            }
+            oldest.newer = record;
+        }
+    }
+
+    /**
+     * Drops the undo records every open snapshot was taken after. Caller holds the write lock.
+     */
+    private void reclaimUndo() {
+        if (snapshots.isEmpty()) {
+            undo.clear();
+            return;
+        }
+        long oldest = snapshots.oldest(commits);
+        Iterator<Map.Entry<Long, Undo>> records = undo.entrySet().iterator();
+        while (records.hasNext()) {
+            Map.Entry<Long, Undo> entry = records.next();
+            Undo record = entry.getValue();
+            while (record != null && record.supersededAt <= oldest) {
+                record = record.newer;
+            }
+            if (record == null) {
+                records.remove();
+            } else {
+                entry.setValue(record);
+            }
+        }
+    }
+
+    /**
+     * The user as of {@code readAt}: the state replaced by the first write committed after
+     * it, or the current row if there is none. Caller holds a lock.
+     */
+    private User versionAt(long id, int row, long readAt) {
+        if (readAt != LATEST) {
+            for (Undo record = undo.get(id); record != null; record = record.newer) {
+                if (record.supersededAt > readAt) {
+                    return record.before;
+                }
+            }
+        }
+        return row == LongIntHashMap.MISSING ? null : materialize(row);
+    }
+
+    private User materialize(int row) {
+        int base = row * FIELDS;
+        int birthDay = birthDays[row];
+        return User.builder()
+                .id(ids[row])
+                .email(arena.read(strings[base + EMAIL]))
+                .firstName(arena.read(strings[base + FIRST_NAME]))
+                .lastName(arena.read(strings[base + LAST_NAME]))
+                .birthDate(birthDay == NULL_DATE ? null : LocalDate.ofEpochDay(birthDay))
+                .address(arena.read(strings[base + ADDRESS]))
+                .phoneNumber(arena.read(strings[base + PHONE_NUMBER]))
+                .version(versions[row])
+                .build();
+    }
+
+    /**
+     * The arena bytes of every string of {@code user}, in field order. Encoded before a write
+     * touches the listeners or the columns, so a value too long for the arena rejects the
+     * write before anything has changed.
+     */
+    private static byte[][] encode(User user) {
+        byte[][] encoded = new byte[FIELDS][];
+        encoded[EMAIL] = ByteArena.encode(user.getEmail());
+        encoded[FIRST_NAME] = ByteArena.encode(user.getFirstName());
+        encoded[LAST_NAME] = ByteArena.encode(user.getLastName());
+        encoded[ADDRESS] = ByteArena.encode(user.getAddress());
+        encoded[PHONE_NUMBER] = ByteArena.encode(user.getPhoneNumber());
+        return encoded;
+    }
+
+    private void write(int row, User user, byte[][] encoded) {
+        if (row == LongIntHashMap.MISSING) {
+            if (rows == ids.length) {
+                grow();
+            }
+            row = rows++;
+            if (row > 0 && user.getId() <= ids[row - 1]) {
+                sorted = false;
+            }
+            ids[row] = user.getId();
+            rowsById.put(user.getId(), row);
+        } else {
+            garbageBytes += stringBytes(row);
+        }
+        int base = row * FIELDS;
+        birthDays[row] = user.getBirthDate() == null ? NULL_DATE : (int) user.getBirthDate().toEpochDay();
+        versions[row] = user.getVersion();
+        for (int field = 0; field < FIELDS; field++) {
+            strings[base + field] = arena.append(encoded[field]);
+        }
+        if (garbageBytes > MIN_GARBAGE_TO_COMPACT && garbageBytes > arena.usedBytes() / 2) {
+            compact();
+        }
+    }
+
+    private void delete(long id, int row) {
+        rowsById.remove(id);
+        deleted.set(row);
+        deletedRows++;
+        garbageBytes += stringBytes(row);
+        if (deletedRows > INITIAL_ROWS && deletedRows > rows / 2) {
+            compact();
+        }
+    }
+
+    private int stringBytes(int row) {
+        int size = 0;
+        for (int field = 0; field < FIELDS; field++) {
+            size += arena.sizeOf(strings[row * FIELDS + field]);
+        }
+        return size;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        birthDays = Arrays.copyOf(birthDays, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        strings = Arrays.copyOf(strings, capacity * FIELDS);
+    }
+
+    /**
+     * Rewrites the live rows in id order into fresh columns and a fresh arena, dropping
+     * tombstones and superseded string bytes. Caller holds the write lock.
+     */
+    private void compact() {
+        int live = rowsById.size();
+        long[] liveIds = new long[live];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (!deleted.get(row)) {
+                liveIds[count++] = ids[row];
+            }
+        }
+        if (!sorted) {
+            Arrays.sort(liveIds);
+        }
+        int capacity = Math.max(INITIAL_ROWS, live + (live >> 2));
+        LongIntHashMap newRowsById = new LongIntHashMap(capacity);
+        ByteArena newArena = new ByteArena();
+        int[] newBirthDays = new int[capacity];
+        long[] newVersions = new long[capacity];
+        long[] newStrings = new long[capacity * FIELDS];
+        for (int newRow = 0; newRow < live; newRow++) {
+            int row = rowsById.get(liveIds[newRow]);
+            newBirthDays[newRow] = birthDays[row];
+            newVersions[newRow] = versions[row];
+            for (int field = 0; field < FIELDS; field++) {
+                newStrings[newRow * FIELDS + field] = newArena.append(arena.read(strings[row * FIELDS + field]));
+            }
+            newRowsById.put(liveIds[newRow], newRow);
+        }
+        ids = Arrays.copyOf(liveIds, capacity);
+        birthDays = newBirthDays;
+        versions = newVersions;
+        strings = newStrings;
+        rowsById = newRowsById;
+        arena = newArena;
+        deleted = new BitSet();
+        rows = live;
+        deletedRows = 0;
+        garbageBytes = 0;
+        sorted = true;
+    }
+
+    private int firstRowAfter(long id) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] <= id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Reads up to {@link #SCAN_BATCH} rows after {@code afterId} as of {@code readAt}, plus
+     * users deleted since then whose ids fall in the same span.
+     */
+    private Batch readBatch(long afterId, long readAt) {
+        while (true) {
+            lock.readLock().lock();
+            try {
+                if (sorted) {
+                    List<User> users = new ArrayList<>(SCAN_BATCH);
+                    int end = firstRowAfter(afterId);
+                    for (int scanned = 0; end < rows && scanned < SCAN_BATCH; end++) {
+                        if (!deleted.get(end)) {
+                            User user = versionAt(ids[end], end, readAt);
+                            if (user != null) {
+                                users.add(user);
+                            }
+                            scanned++;
+                        }
+                    }
+                    boolean last = end == rows;
+                    long scannedTo = last ? Long.MAX_VALUE : ids[end - 1];
+                    if (readAt != LATEST && addDeleted(users, afterId, scannedTo, readAt)) {
+                        users.sort(Comparator.comparingLong(User::getId));
+                    }
+                    return new Batch(users, scannedTo, last);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                if (!sorted) {
+                    compact();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private boolean addDeleted(List<User> users, long afterId, long scannedTo, long readAt) {
+        boolean added = false;
+        for (long id : undo.subMap(afterId, false, scannedTo, true).keySet()) {
+            if (rowsById.get(id) == LongIntHashMap.MISSING) {
+                User user = versionAt(id, LongIntHashMap.MISSING, readAt);
+                if (user != null) {
+                    users.add(user);
+                    added = true;
+                }
+            }
+        }
+        return added;
+    }
+
+    private record Batch(List<User> users, long scannedTo, boolean last) {
+    }
+
+    private static final class Undo {
+        private final User before;
+        private final long supersededAt;
+        private Undo newer;
+
+        Undo(User before, long supersededAt) {
+            this.before = before;
+            this.supersededAt = supersededAt;
+        }
+    }
+
+    private class BatchIterator implements Iterator<User> {
+        private final long readAt;
+        private long lastId;
+        private List<User> batch = List.of();
+        private int position;
+        private boolean exhausted;
+
+        BatchIterator(long afterId, long readAt) {
+            this.lastId = afterId;
+            this.readAt = readAt;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (position == batch.size()) {
+                if (exhausted) {
+                    return false;
+                }
+                Batch next = readBatch(lastId, readAt);
+                batch = next.users();
+                position = 0;
+                lastId = next.scannedTo();
+                exhausted = next.last();
+            }
+            return true;
+        }
+
+        @Override
+        public User next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.get(position++);
+        }
+    }
+
+    private final class Snapshot implements UserSnapshot {
+        private final SnapshotRegistry.Registration registration;
+
+        Snapshot(SnapshotRegistry.Registration registration) {
+            this.registration = registration;
+        }
+
+        @Override
+        public Optional<User> get(long id) {
+            lock.readLock().lock();
+            try {
+                return Optional.ofNullable(versionAt(id, rowsById.get(id), registration.readAt()));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Stream<User> valuesAfter(long id) {
+            return ColumnarUserStorage.this.valuesAfter(id, registration.readAt());
+        }
+
+        @Override
+        public Collection<Long> changedIds() {
+            lock.readLock().lock();
+            try {
+                return Set.copyOf(undo.keySet());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Collection<Long> drainChangedIds() {
+            return registration.drainWritten();
+        }
+
+        @Override
+        public void close() {
+            lock.writeLock().lock();
+            try {
+                if (registration.close()) {
+                    reclaimUndo();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
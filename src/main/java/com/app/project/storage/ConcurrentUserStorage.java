@@ -0,0 +1,80 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps every user on the heap as its {@link User} object, in the version chains of
+ * {@link VersionedUserStorage}: lock-free reads, writes serialized per id by striped locks,
+ * and snapshots that hold back only the versions they can still see.
+ *
+ * <p>{@link #sizeInBytes()} is a running estimate for a 64-bit JVM with compressed oops
+ * and Latin-1 strings, kept up to date on every change instead of walking the map.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "concurrent", matchIfMissing = true)
+public class ConcurrentUserStorage extends VersionedUserStorage<ConcurrentUserStorage.HeapVersion> {
+    // skip-list node with its share of index nodes, boxed key, version node, User object
+    private static final int ENTRY_BYTES = 40 + 16 + 32 + 40;
+    private final LongAdder estimatedBytes = new LongAdder();
+
+    public ConcurrentUserStorage() {
+        this(List.of());
+    }
+
+    public ConcurrentUserStorage(List<UserStorageListener> listeners) {
+        this(listeners, (UserFieldDictionary) null);
+    }
+
+    public ConcurrentUserStorage(List<UserStorageListener> listeners, UserFieldDictionary dictionary) {
+        super(listeners, dictionary);
+    }
+
+    @Autowired
+    public ConcurrentUserStorage(List<UserStorageListener> listeners, ObjectProvider<UserFieldDictionary> dictionary) {
+        this(listeners, dictionary.getIfAvailable());
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return estimatedBytes.sum();
+    }
+
+    @Override
+    HeapVersion newVersion(User user, Version older, long commit) {
+        return new HeapVersion(user, older, commit);
+    }
+
+    @Override
+    void replaced(HeapVersion previous, HeapVersion current) {
+        estimatedBytes.add(sizeOf(latest(current)) - sizeOf(latest(previous)));
+    }
+
+    private static long sizeOf(User user) {
+        return user == null ? 0L : ENTRY_BYTES + fieldBytes(user);
+    }
+
+    static final class HeapVersion extends Version {
+        private final User user;
+
+        HeapVersion(User user, Version older, long commit) {
+            super(older, commit);
+            this.user = user;
+        }
+
+        @Override
+        User read() {
+            return user;
+        }
+
+        @Override
+        boolean exists() {
+            return user != null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.app.project.storage;
+
+import com.app.project.exception.UserRegistrationException;
+import com.app.project.model.User;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Case-insensitive unique index from email to user id. Claiming an email is a single
+ * putIfAbsent, so two writers racing for the same address can't both win. Ordered first
+ * so that a rejected email never reaches the other listeners.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EmailIndex implements UserStorageListener {
+    private final Map<String, Long> idsByEmail = new ConcurrentHashMap<>();
+
+    @Override
+    public void onChange(User previous, User current) {
+        String oldEmail = previous == null ? null : normalize(previous.getEmail());
+        String newEmail = current == null ? null : normalize(current.getEmail());
+        if (Objects.equals(oldEmail, newEmail)) {
+            return;
+        }
+        if (newEmail != null) {
+            Long owner = idsByEmail.putIfAbsent(newEmail, current.getId());
+            if (owner != null && !owner.equals(current.getId())) {
+                throw new UserRegistrationException("User with email " + current.getEmail()
+                        + " already exists");
+            }
+        }
+        if (oldEmail != null) {
+            idsByEmail.remove(oldEmail, previous.getId());
+        }
+    }
+
+    @Override
+    public void rebuild(Stream<User> users) {
+        idsByEmail.clear();
+        users.forEach(u -> onChange(null, u));
+    }
+
+    public Optional<Long> findId(String email) {
+        String key = normalize(email);
+        return key == null ? Optional.empty() : Optional.ofNullable(idsByEmail.get(key));
+    }
+
+    private String normalize(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+}
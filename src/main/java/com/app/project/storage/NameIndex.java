@@ -0,0 +1,277 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sorted dictionary of lower-cased first and last name terms to user ids. Prefix matches are
+ * a range of the dictionary. Typo-tolerant matches walk it like a trie: terms are visited
+ * in order while carrying one edit distance row per character, rows shared with the
+ * previous term are reused, and every term under a prefix that is already too far from the
+ * query is skipped in one seek. No extra structure is kept for fuzzy matching.
+ *
+ * <p>Distance is optimal string alignment, so a swap of two adjacent letters costs one edit.
+ * Queries shorter than 3 characters match by prefix only, up to 5 characters allow one
+ * edit and longer ones {@code search.max-edit-distance}.
+ *
+ * <p>A term bucket is unlinked when its last id leaves, so renamed and deleted users don't
+ * leave dead terms for the fuzzy walk to visit. {@link ConcurrentSkipListMap#compute} may
+ * run its function more than once and doesn't exclude other writers of the key, so every
+ * add or remove of a term holds a lock striped by that term; readers never lock and may see
+ * a bucket that has just been emptied or unlinked.
+ */
+@Component
+public class NameIndex implements UserStorageListener {
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MIN_TWO_EDITS_LENGTH = 6;
+    private static final int STRIPES = 64;
+    private final ConcurrentSkipListMap<String, ConcurrentSkipListSet<Long>> idsByTerm =
+            new ConcurrentSkipListMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final int maxEditDistance;
+
+    public NameIndex(@Value("${search.max-edit-distance}") int maxEditDistance) {
+        this.maxEditDistance = maxEditDistance;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void onChange(User previous, User current) {
+        Set<String> oldTerms = previous == null ? Set.of() : termsOf(previous);
+        Set<String> newTerms = current == null ? Set.of() : termsOf(current);
+        for (String term : newTerms) {
+            if (!oldTerms.contains(term)) {
+                add(term, current.getId());
+            }
+        }
+        for (String term : oldTerms) {
+            if (!newTerms.contains(term)) {
+                remove(term, previous.getId());
+            }
+        }
+    }
+
+    @Override
+    public void rebuild(Stream<User> users) {
+        idsByTerm.clear();
+        users.forEach(u -> onChange(null, u));
+    }
+
+    private void add(String term, long id) {
+        ReentrantLock lock = lockFor(term);
+        lock.lock();
+        try {
+            idsByTerm.compute(term, (t, ids) -> {
+                ConcurrentSkipListSet<Long> bucket = ids == null ? new ConcurrentSkipListSet<>() : ids;
+                bucket.add(id);
+                return bucket;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(String term, long id) {
+        ReentrantLock lock = lockFor(term);
+        lock.lock();
+        try {
+            idsByTerm.computeIfPresent(term, (t, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ids with a name term that starts with {@code token}, in term order, followed lazily by
+     * ids with a term one edit away, then two, up to the allowed distance. Each distance is a
+     * separate walk, so a caller that stops early never pays for the wider ones. An id may
+     * appear more than once.
+     */
+    public Stream<Long> findIds(String token) {
+        String term = normalize(token);
+        Stream<Supplier<Stream<String>>> terms = Stream.concat(
+                Stream.of(() -> idsByTerm.subMap(term, true, term + Character.MAX_VALUE, false).keySet().stream()),
+                IntStream.rangeClosed(1, maxDistanceFor(term))
+                        .mapToObj(distance -> () -> fuzzyTerms(term, distance).stream()));
+        return terms.flatMap(Supplier::get)
+                .map(idsByTerm::get)
+                .filter(Objects::nonNull)
+                .flatMap(ConcurrentSkipListSet::stream);
+    }
+
+    /**
+     * Whether a name term of {@code user} starts with {@code token} or is within the allowed
+     * edit distance of it.
+     */
+    public boolean matches(User user, String token) {
+        String term = normalize(token);
+        int maxDistance = maxDistanceFor(term);
+        for (String candidate : termsOf(user)) {
+            if (candidate.startsWith(term) || maxDistance > 0 && distance(candidate, term) <= maxDistance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int termCount() {
+        return idsByTerm.size();
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(normalize(text.substring(start, i)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private Set<String> termsOf(User user) {
+        Set<String> terms = new TreeSet<>(tokenize(user.getFirstName()));
+        terms.addAll(tokenize(user.getLastName()));
+        return terms;
+    }
+
+    private int maxDistanceFor(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return 0;
+        }
+        return term.length() < MIN_TWO_EDITS_LENGTH ? Math.min(1, maxEditDistance) : maxEditDistance;
+    }
+
+    /**
+     * Terms exactly {@code distance} edits away from {@code query} that don't start with it,
+     * in term order.
+     */
+    private List<String> fuzzyTerms(String query, int distance) {
+        int width = query.length() + 1;
+        int[][] rows = new int[query.length() + distance + 2][];
+        rows[0] = new int[width];
+        for (int j = 0; j < width; j++) {
+            rows[0][j] = j;
+        }
+        List<String> matches = new ArrayList<>();
+        String previous = "";
+        String term = idsByTerm.isEmpty() ? null : idsByTerm.firstKey();
+        while (term != null) {
+            int depth = commonPrefixLength(previous, term);
+            String skipPast = null;
+            while (depth < term.length()) {
+                if (depth + 1 == rows.length) {
+                    rows = Arrays.copyOf(rows, rows.length * 2);
+                }
+                int[] row = nextRow(rows, depth, term, query);
+                rows[++depth] = row;
+                if (min(row) > distance) {
+                    skipPast = term.substring(0, depth);
+                    break;
+                }
+            }
+            if (skipPast != null) {
+                previous = skipPast;
+                term = idsByTerm.ceilingKey(successor(skipPast));
+                continue;
+            }
+            if (rows[depth][query.length()] == distance && !term.startsWith(query)) {
+                matches.add(term);
+            }
+            previous = term;
+            term = idsByTerm.higherKey(term);
+        }
+        return matches;
+    }
+
+    /**
+     * Distance row for the first {@code depth + 1} characters of {@code term}, given the rows
+     * of its shorter prefixes.
+     */
+    private static int[] nextRow(int[][] rows, int depth, String term, String query) {
+        int[] previousRow = rows[depth];
+        int[] row = new int[previousRow.length];
+        char c = term.charAt(depth);
+        row[0] = depth + 1;
+        for (int j = 1; j < row.length; j++) {
+            int cost = c == query.charAt(j - 1) ? 0 : 1;
+            row[j] = Math.min(Math.min(previousRow[j] + 1, row[j - 1] + 1), previousRow[j - 1] + cost);
+            if (depth > 0 && j > 1 && c == query.charAt(j - 2) && term.charAt(depth - 1) == query.charAt(j - 1)) {
+                row[j] = Math.min(row[j], rows[depth - 1][j - 2] + 1);
+            }
+        }
+        return row;
+    }
+
+    static int distance(String term, String query) {
+        int[][] rows = new int[term.length() + 1][];
+        rows[0] = new int[query.length() + 1];
+        for (int j = 0; j <= query.length(); j++) {
+            rows[0][j] = j;
+        }
+        for (int depth = 0; depth < term.length(); depth++) {
+            rows[depth + 1] = nextRow(rows, depth, term, query);
+        }
+        return rows[term.length()][query.length()];
+    }
+
+    private static int min(int[] row) {
+        int min = row[0];
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * The smallest string greater than every string starting with {@code prefix}.
+     */
+    private static String successor(String prefix) {
+        int last = prefix.length() - 1;
+        return prefix.substring(0, last) + (char) (prefix.charAt(last) + 1);
+    }
+
+    private ReentrantLock lockFor(String term) {
+        int hash = term.hashCode();
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static String normalize(String token) {
+        return token.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,79 @@
+package com.app.project.storage;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Open snapshots of one store and the commit each one reads at. A snapshot is listed before
+ * it reads the commit clock, so a writer that computes {@link #oldest} concurrently either
+ * sees it (at 0 while it registers) or read the clock before it did.
+ *
+ * <p>Each snapshot also collects the ids written while it is open, so a scan can learn about
+ * new writes without walking every changed id again; see {@link UserSnapshot#drainChangedIds()}.
+ */
+final class SnapshotRegistry {
+    private final Set<Registration> open = ConcurrentHashMap.newKeySet();
+
+    Registration register(LongSupplier clock) {
+        Registration registration = new Registration();
+        open.add(registration);
+        registration.readAt = clock.getAsLong();
+        return registration;
+    }
+
+    /**
+     * Adds {@code id} to the written ids of every open snapshot. Called before the indexes
+     * see the write.
+     */
+    void written(long id) {
+        for (Registration registration : open) {
+            registration.written.add(id);
+        }
+    }
+
+    boolean isEmpty() {
+        return open.isEmpty();
+    }
+
+    int size() {
+        return open.size();
+    }
+
+    /**
+     * The oldest commit an open snapshot reads at, or {@code now} when there is none.
+     * {@code now} must be read from the clock before calling.
+     */
+    long oldest(long now) {
+        long oldest = now;
+        for (Registration registration : open) {
+            oldest = Math.min(oldest, registration.readAt);
+        }
+        return oldest;
+    }
+
+    final class Registration {
+        private final Set<Long> written = ConcurrentHashMap.newKeySet();
+        private volatile long readAt;
+
+        long readAt() {
+            return readAt;
+        }
+
+        List<Long> drainWritten() {
+            List<Long> ids = new ArrayList<>();
+            for (Iterator<Long> iterator = written.iterator(); iterator.hasNext(); ) {
+                ids.add(iterator.next());
+                iterator.remove();
+            }
+            return ids;
+        }
+
+        boolean close() {
+            return open.remove(this);
+        }
+    }
+}
@@ -1,9 +0,0 @@
-package com.app.project.storage;
-
-import com.app.project.model.User;
-import java.util.HashMap;
-import java.util.Map;
-
-public class Storage {
-    public static final Map<Long, User> storage = new HashMap<>();
-}
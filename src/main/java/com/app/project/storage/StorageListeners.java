@@ -0,0 +1,54 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+final class StorageListeners {
+    private final List<UserStorageListener> listeners;
+
+    StorageListeners(List<UserStorageListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    void notifyChange(User previous, User current) {
+        for (int i = 0; i < listeners.size(); i++) {
+            try {
+                listeners.get(i).onChange(previous, current);
+            } catch (RuntimeException e) {
+                for (int j = i - 1; j >= 0; j--) {
+                    listeners.get(j).onChange(current, previous);
+                }
+                throw e;
+            }
+        }
+    }
+
+    void afterCommit(User previous, User current) {
+        for (UserStorageListener listener : listeners) {
+            listener.afterCommit(previous, current);
+        }
+    }
+
+    void batch(Runnable writes) {
+        for (UserStorageListener listener : listeners) {
+            listener.beforeBatch();
+        }
+        try {
+            writes.run();
+        } finally {
+            for (int i = listeners.size() - 1; i >= 0; i--) {
+                listeners.get(i).afterBatch();
+            }
+        }
+    }
+
+    void rebuild(Supplier<Stream<User>> users) {
+        for (UserStorageListener listener : listeners) {
+            try (Stream<User> stream = users.get()) {
+                listener.rebuild(stream);
+            }
+        }
+    }
+}
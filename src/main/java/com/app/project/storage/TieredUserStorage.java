@@ -0,0 +1,329 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import com.app.project.storage.ColdSegments.ColdRef;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link ConcurrentUserStorage} with a bounded heap: at most
+ * {@code storage.tiered.max-hot-users} users are kept as objects, the rest live in
+ * {@link ColdSegments} and the on-heap map only holds where to find them. Reads, writes,
+ * version chains and snapshots are those of {@link VersionedUserStorage}, as in the
+ * concurrent store; a version simply holds its user, a reference to a cold record, or both.
+ *
+ * <p>When the hot tier overflows, one writer runs a CLOCK sweep in id order: a user read
+ * since the hand last passed gets a second chance, others are paged out. Victims of a sweep
+ * are written in id order, so scans, which walk ids in order and never promote, read each
+ * cold segment mostly front to back. A point read of a cold user promotes it back to the
+ * hot tier. Only the newest version of a user is ever paged out, so versions held back for
+ * open snapshots stay on the heap until they are reclaimed.
+ *
+ * <p>Records superseded by a write stop counting as live; after a sweep, full segments that
+ * are at most half live are compacted by copying their live records forward, and empty ones
+ * are deleted. {@link #sizeInBytes()} covers the heap only: hot users plus a fixed cost per
+ * map entry.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "tiered")
+public class TieredUserStorage extends VersionedUserStorage<TieredUserStorage.TieredVersion>
+        implements AutoCloseable {
+    // skip-list node with its share of index nodes, boxed key, version node, cold reference
+    private static final int ENTRY_BYTES = 40 + 16 + 40 + 24;
+    private static final int USER_BYTES = 40;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicInteger hotUsers = new AtomicInteger();
+    private final LongAdder hotBytes = new LongAdder();
+    private final ColdSegments coldSegments;
+    private final int maxHotUsers;
+    private final int evictTo;
+    private volatile int evictAbove;
+    private long clockHand = Long.MIN_VALUE;
+
+    public TieredUserStorage(Path directory, int maxHotUsers, int segmentBytes) {
+        this(List.of(), (UserFieldDictionary) null, directory, maxHotUsers, segmentBytes);
+    }
+
+    @Autowired
+    public TieredUserStorage(List<UserStorageListener> listeners,
+                             ObjectProvider<UserFieldDictionary> dictionary,
+                             @Value("${storage.tiered.directory}") Path directory,
+                             @Value("${storage.tiered.max-hot-users}") int maxHotUsers,
+                             @Value("${storage.tiered.segment-bytes}") int segmentBytes) {
+        this(listeners, dictionary.getIfAvailable(), directory, maxHotUsers, segmentBytes);
+    }
+
+    public TieredUserStorage(List<UserStorageListener> listeners, UserFieldDictionary dictionary, Path directory,
+                             int maxHotUsers, int segmentBytes) {
+        super(listeners, dictionary);
+        if (maxHotUsers < 1) {
+            throw new IllegalArgumentException("storage.tiered.max-hot-users must be positive");
+        }
+        this.coldSegments = new ColdSegments(directory, segmentBytes);
+        this.maxHotUsers = maxHotUsers;
+        this.evictTo = maxHotUsers - Math.max(1, maxHotUsers / 20);
+        this.evictAbove = maxHotUsers;
+    }
+
+    @Override
+    public Optional<User> get(long id) {
+        TieredVersion head = users.get(id);
+        if (head == null) {
+            return Optional.empty();
+        }
+        User user = head.user;
+        if (user != null) {
+            head.referenced = true;
+            return Optional.of(user);
+        }
+        return Optional.ofNullable(head.cold == null ? null : promote(id));
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return hotBytes.sum() + (long) liveUsers.get() * ENTRY_BYTES;
+    }
+
+    public int hotSize() {
+        return hotUsers.get();
+    }
+
+    public long coldSizeInBytes() {
+        return coldSegments.mappedBytes();
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        evictionLock.lock();
+        try {
+            coldSegments.close();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    void afterWrite() {
+        evictIfFull();
+    }
+
+    @Override
+    TieredVersion newVersion(User user, Version older, long commit) {
+        return new TieredVersion(user, older, commit);
+    }
+
+    @Override
+    void replaced(TieredVersion previous, TieredVersion current) {
+        if (previous != null) {
+            if (previous.user != null) {
+                hotUsers.decrementAndGet();
+                hotBytes.add(-sizeOf(previous.user));
+            }
+            if (previous.cold != null) {
+                ColdSegments.release(previous.cold);
+            }
+        }
+        if (current != null && current.user != null) {
+            hotUsers.incrementAndGet();
+            hotBytes.add(sizeOf(current.user));
+        }
+    }
+
+    /**
+     * Reads a cold user back into the hot tier, unless a writer replaced it first.
+     */
+    private User promote(long id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            TieredVersion head = users.get(id);
+            if (head == null || head.user != null || head.cold == null) {
+                return latest(head);
+            }
+            User user = head.cold.read();
+            head.user = user;
+            head.referenced = true;
+            hotUsers.incrementAndGet();
+            hotBytes.add(sizeOf(user));
+        } finally {
+            lock.unlock();
+        }
+        evictIfFull();
+        return latest(users.get(id));
+    }
+
+    /**
+     * Pages users out until the hot tier is back under its low-water mark. Writers that find
+     * another one already doing it carry on, so the bound is briefly soft under a burst. When
+     * too few users can be paged out, the next attempt waits until the hot tier grows by
+     * another batch rather than sweeping on every write.
+     *
+     * <p>The write that triggers it has already committed, so a user that can't be paged out,
+     * one too large for a segment or one hit by a disk failure, is logged and stays hot
+     * instead of failing that write.
+     */
+    private void evictIfFull() {
+        if (hotUsers.get() <= evictAbove || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            List<Long> victims = sweep(hotUsers.get() - evictTo);
+            Collections.sort(victims);
+            RuntimeException failure = null;
+            int failed = 0;
+            for (long id : victims) {
+                try {
+                    pageOut(id);
+                } catch (RuntimeException e) {
+                    failure = failure == null ? e : failure;
+                    failed++;
+                }
+            }
+            if (failure != null) {
+                log.warn("Can't page out {} of {} users, keeping them hot", failed, victims.size(), failure);
+            }
+            int hot = hotUsers.get();
+            evictAbove = hot > evictTo ? hot + maxHotUsers - evictTo : maxHotUsers;
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                log.error("Can't compact cold segments", e);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Advances the clock hand until it has passed {@code wanted} candidates, clearing the
+     * reference bit of every recently read user it skips. Gives up after two full turns,
+     * which only happens when the hot users are pinned by snapshots or writes in flight.
+     */
+    private List<Long> sweep(int wanted) {
+        List<Long> victims = new ArrayList<>(wanted);
+        long steps = 2L * (liveUsers.get() + changed.size()) + 1;
+        while (victims.size() < wanted && steps > 0) {
+            Map.Entry<Long, TieredVersion> entry = users.higherEntry(clockHand);
+            if (entry == null) {
+                clockHand = Long.MIN_VALUE;
+                entry = users.higherEntry(clockHand);
+                if (entry == null) {
+                    break;
+                }
+            }
+            clockHand = entry.getKey();
+            steps--;
+            TieredVersion head = entry.getValue();
+            if (!head.evictable()) {
+                continue;
+            }
+            if (head.referenced) {
+                head.referenced = false;
+            } else {
+                victims.add(entry.getKey());
+            }
+        }
+        return victims;
+    }
+
+    private void pageOut(long id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            TieredVersion head = users.get(id);
+            if (head == null || !head.evictable()) {
+                return;
+            }
+            User user = head.user;
+            if (head.cold == null) {
+                head.cold = coldSegments.append(user);
+            }
+            head.user = null;
+            hotUsers.decrementAndGet();
+            hotBytes.add(-sizeOf(user));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies the records still live in sparse segments to the active one. Reading the
+     * segment front to back keeps the copies in their original order.
+     */
+    private void compact() {
+        for (ColdSegments.Segment segment : coldSegments.sparse()) {
+            for (int offset : segment.offsets()) {
+                long id = segment.idAt(offset);
+                ReentrantLock lock = lockFor(id);
+                lock.lock();
+                try {
+                    TieredVersion head = users.get(id);
+                    if (head != null && head.cold != null && head.cold.segment() == segment
+                            && head.cold.offset() == offset) {
+                        ColdRef moved = coldSegments.append(head.cold.read());
+                        ColdSegments.release(head.cold);
+                        head.cold = moved;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        coldSegments.sparse();
+    }
+
+    private static long sizeOf(User user) {
+        return USER_BYTES + fieldBytes(user);
+    }
+
+    /**
+     * A version is hot when it holds its user, cold when it only holds a record reference,
+     * and a delete when it holds neither. Paging out writes the reference before clearing
+     * the user, so a reader that finds no user always finds the reference.
+     */
+    static final class TieredVersion extends Version {
+        private volatile User user;
+        private volatile ColdRef cold;
+        private volatile boolean referenced;
+
+        TieredVersion(User user, Version older, long commit) {
+            super(older, commit);
+            this.user = user;
+        }
+
+        @Override
+        boolean exists() {
+            return user != null || cold != null;
+        }
+
+        @Override
+        User read() {
+            User hot = user;
+            if (hot != null) {
+                return hot;
+            }
+            ColdRef ref = cold;
+            return ref == null ? null : ref.read();
+        }
+
+        boolean evictable() {
+            return user != null && older == null && commit != PENDING;
+        }
+    }
+}
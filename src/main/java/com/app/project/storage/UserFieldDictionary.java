@@ -0,0 +1,57 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.time.LocalDate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes users that share a last name, an address or a birth date share one instance of it.
+ * The object stores call {@link #intern} on the write path, before any listener sees the
+ * user, and store the copy it returns; the values are equal, so nobody can tell. Users are
+ * never changed in place. Each stored user holds one reference to each of its values,
+ * released when the write that replaced or deleted it has committed, or when the write is
+ * rolled back.
+ *
+ * <p>Only the object stores keep {@link User} instances, so the columnar store, which
+ * keeps strings in its own arena, runs without it.
+ */
+@Component
+@ConditionalOnExpression("${storage.dictionary.enabled} and '${storage.type:concurrent}' != 'columnar'")
+public class UserFieldDictionary {
+    private final ValueDictionary<String> lastNames;
+    private final ValueDictionary<String> addresses;
+    private final ValueDictionary<LocalDate> birthDates;
+
+    public UserFieldDictionary(@Value("${storage.dictionary.max-entries}") int maxEntries) {
+        this.lastNames = new ValueDictionary<>(maxEntries);
+        this.addresses = new ValueDictionary<>(maxEntries);
+        this.birthDates = new ValueDictionary<>(maxEntries);
+    }
+
+    /**
+     * A copy of {@code user} holding the canonical instances of its values, each counted
+     * as one more reference.
+     */
+    public User intern(User user) {
+        return user.toBuilder()
+                .lastName(lastNames.intern(user.getLastName()))
+                .address(addresses.intern(user.getAddress()))
+                .birthDate(birthDates.intern(user.getBirthDate()))
+                .build();
+    }
+
+    /**
+     * Drops the references a stored {@code user} holds.
+     */
+    public void release(User user) {
+        lastNames.release(user.getLastName());
+        addresses.release(user.getAddress());
+        birthDates.release(user.getBirthDate());
+    }
+
+    public int size() {
+        return lastNames.size() + addresses.size() + birthDates.size();
+    }
+}
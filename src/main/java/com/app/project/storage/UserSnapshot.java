@@ -0,0 +1,35 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Point-in-time view of a {@link UserStorage}: reads see every change committed before the
+ * snapshot was taken and none committed after it, while writers carry on. Versions a
+ * snapshot can still see are kept until it is closed, so close it as soon as the scan ends.
+ */
+public interface UserSnapshot extends AutoCloseable {
+    Optional<User> get(long id);
+
+    Stream<User> valuesAfter(long id);
+
+    /**
+     * Ids whose current state, and so their index entries, may differ from this snapshot.
+     * Contains at least every id written after the snapshot was taken, including writes
+     * still in flight, by the time any index reflects them.
+     */
+    Collection<Long> changedIds();
+
+    /**
+     * Ids written since the previous call, or since the snapshot was taken on the first one,
+     * with the same guarantee as {@link #changedIds()}. Together with one read of
+     * {@link #changedIds()} this lets a long scan keep up with new writes without reading
+     * every changed id again.
+     */
+    Collection<Long> drainChangedIds();
+
+    @Override
+    void close();
+}
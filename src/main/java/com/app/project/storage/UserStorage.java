@@ -0,0 +1,60 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+public interface UserStorage {
+    long nextId();
+
+    Optional<User> get(long id);
+
+    boolean contains(long id);
+
+    User put(User user);
+
+    Optional<User> computeIfPresent(long id, UnaryOperator<User> remapping);
+
+    Optional<User> remove(long id);
+
+    /**
+     * Runs {@code writes} on the calling thread as one batch. Each write is still applied
+     * and visible on its own; listeners may share work across them, such as a single fsync
+     * of the write-ahead log when the batch ends.
+     */
+    void batch(Runnable writes);
+
+    int size();
+
+    long sizeInBytes();
+
+    Stream<User> values();
+
+    Stream<User> valuesAfter(long id);
+
+    UserSnapshot snapshot();
+
+    /**
+     * Snapshots taken and not closed yet. Each one holds back the versions it can see, so a
+     * count that keeps growing means a leak.
+     */
+    int openSnapshots();
+
+    /**
+     * Runs {@code action} while no write is in flight and returns a snapshot of exactly the
+     * state it saw, so anything the action records about the writes so far, such as the
+     * last log position, matches the snapshot. Writers wait for the action; keep it short.
+     */
+    UserSnapshot quiescentSnapshot(Runnable action);
+
+    long lastId();
+
+    void advanceLastId(long id);
+
+    void load(User user);
+
+    void unload(long id);
+
+    void reindex();
+}
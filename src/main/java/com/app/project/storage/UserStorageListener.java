@@ -0,0 +1,41 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.util.stream.Stream;
+
+/**
+ * Invoked by the storage under the lock of the affected id, before the change becomes
+ * visible. {@code previous} is null on insert and {@code current} is null on removal.
+ * Throwing rejects the write; listeners notified earlier then receive the reverse change.
+ */
+public interface UserStorageListener {
+    void onChange(User previous, User current);
+
+    /**
+     * Invoked under the same lock once the change accepted by {@link #onChange} is visible
+     * to readers. Must not throw.
+     */
+    default void afterCommit(User previous, User current) {
+    }
+
+    /**
+     * Replaces any state derived so far with the given users. Called after a bulk
+     * {@link UserStorage#load} at startup, while no writes are in flight.
+     */
+    default void rebuild(Stream<User> users) {
+    }
+
+    /**
+     * Invoked on the writing thread before the writes of a {@link UserStorage#batch}, so
+     * work the whole batch can share may be put off until {@link #afterBatch}.
+     */
+    default void beforeBatch() {
+    }
+
+    /**
+     * Invoked on the same thread once the writes of the batch are done, including when one
+     * of them threw.
+     */
+    default void afterBatch() {
+    }
+}
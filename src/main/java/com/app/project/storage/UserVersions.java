@@ -0,0 +1,17 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+
+/**
+ * Every stored user carries a version that starts at 1 and grows by one with each write
+ * of that id; the stores assign it, so callers can't skip or reuse one.
+ */
+final class UserVersions {
+    private UserVersions() {
+    }
+
+    static User next(User previous, User user) {
+        long version = previous == null ? 1L : previous.getVersion() + 1;
+        return user.getVersion() == version ? user : user.toBuilder().version(version).build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.app.project.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reference-counted canonical instances of equal values. {@link #intern} hands out the
+ * instance already held for an equal value and counts one more reference to it; an entry
+ * goes away with its last {@link #release}. Once {@code maxEntries} distinct values are
+ * held, new values are returned as they are and not counted.
+ *
+ * <p>Releases match by equality, not identity, so a value that was returned uncounted
+ * because the dictionary was full can release a counted one early. That only costs
+ * sharing for later writers; users already holding the instance keep it.
+ */
+final class ValueDictionary<T> {
+    private final Map<T, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    ValueDictionary(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        Entry<T> entry = entries.compute(value, (key, current) -> {
+            if (current != null) {
+                current.references++;
+                return current;
+            }
+            return entries.size() < maxEntries ? new Entry<>(key) : null;
+        });
+        return entry == null ? value : entry.value;
+    }
+
+    void release(T value) {
+        if (value != null) {
+            entries.computeIfPresent(value, (key, current) -> --current.references == 0 ? null : current);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private int references = 1;
+
+        private Entry(T value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.app.project.storage;
+
+import com.app.project.model.User;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * The version chains, striped write locks and snapshots shared by
+ * {@link ConcurrentUserStorage} and {@link TieredUserStorage}. Reads are lock-free; writes
+ * to the same id are serialized by one of a fixed set of striped locks, so writers on
+ * different ids proceed in parallel. Listeners see every change of an id in the order it is
+ * applied.
+ *
+ * <p>Each id maps to a chain of versions stamped with a global commit number, newest
+ * first, which is what {@link #snapshot()} reads. A write cuts the chain below the newest
+ * version the oldest open snapshot can see, so without open snapshots the chain is a single
+ * version and a delete unlinks the id at once; versions held back by a snapshot are
+ * reclaimed when it closes.
+ *
+ * <p>With a {@link UserFieldDictionary}, every user is stored as the interned copy it
+ * returns, taken before the listeners see the change; the references of the replaced user
+ * are released once the write commits, and those of the new one if a listener rejects it.
+ *
+ * <p>Subclasses decide what a version holds and account for the newest version of an id
+ * being replaced, which is where they keep their size estimates.
+ */
+abstract class VersionedUserStorage<V extends VersionedUserStorage.Version> implements UserStorage {
+    static final long PENDING = Long.MAX_VALUE;
+    private static final int STRIPES = 64;
+    private static final int DATE_BYTES = 24;
+    private static final int STRING_HEADER_BYTES = 24 + 16;
+    final ConcurrentSkipListMap<Long, V> users = new ConcurrentSkipListMap<>();
+    final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    final AtomicInteger liveUsers = new AtomicInteger();
+    private final SnapshotRegistry snapshots = new SnapshotRegistry();
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final StorageListeners listeners;
+    private final UserFieldDictionary dictionary;
+
+    VersionedUserStorage(List<UserStorageListener> listeners, UserFieldDictionary dictionary) {
+        this.listeners = new StorageListeners(listeners);
+        this.dictionary = dictionary;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * A new version holding {@code user}, or a delete when it is null.
+     */
+    abstract V newVersion(User user, Version older, long commit);
+
+    /**
+     * Accounts for {@code current} (null when unlinked) taking the place of {@code previous}
+     * (null when absent) as the newest version of an id. Live users are already counted.
+     */
+    abstract void replaced(V previous, V current);
+
+    /**
+     * Runs after a write that may have added a user, outside the lock of its id.
+     */
+    void afterWrite() {
+    }
+
+    @Override
+    public long nextId() {
+        return sequence.incrementAndGet();
+    }
+
+    @Override
+    public Optional<User> get(long id) {
+        return Optional.ofNullable(latest(users.get(id)));
+    }
+
+    @Override
+    public boolean contains(long id) {
+        V head = users.get(id);
+        return head != null && head.exists();
+    }
+
+    @Override
+    public User put(User user) {
+        long id = user.getId();
+        advanceLastId(id);
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            V head = users.get(id);
+            User previous = latest(head);
+            User stored = intern(UserVersions.next(previous, user));
+            changed.add(id);
+            snapshots.written(id);
+            notifyChange(previous, stored);
+            commit(id, head, stored);
+            release(previous);
+            listeners.afterCommit(previous, stored);
+            return previous;
+        } finally {
+            lock.unlock();
+            afterWrite();
+        }
+    }
+
+    @Override
+    public Optional<User> computeIfPresent(long id, UnaryOperator<User> remapping) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            V head = users.get(id);
+            User current = latest(head);
+            if (current == null) {
+                return Optional.empty();
+            }
+            User updated = intern(UserVersions.next(current, remapping.apply(current)));
+            changed.add(id);
+            snapshots.written(id);
+            notifyChange(current, updated);
+            commit(id, head, updated);
+            release(current);
+            listeners.afterCommit(current, updated);
+            return Optional.of(updated);
+        } finally {
+            lock.unlock();
+            afterWrite();
+        }
+    }
+
+    @Override
+    public Optional<User> remove(long id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            V head = users.get(id);
+            User previous = latest(head);
+            if (previous == null) {
+                return Optional.empty();
+            }
+            changed.add(id);
+            snapshots.written(id);
+            listeners.notifyChange(previous, null);
+            commit(id, head, null);
+            release(previous);
+            listeners.afterCommit(previous, null);
+            return Optional.of(previous);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void batch(Runnable writes) {
+        listeners.batch(writes);
+    }
+
+    @Override
+    public int size() {
+        return liveUsers.get();
+    }
+
+    @Override
+    public Stream<User> values() {
+        return valuesAfter(Long.MIN_VALUE);
+    }
+
+    @Override
+    public Stream<User> valuesAfter(long id) {
+        return users.tailMap(id, false).values().stream()
+                .map(VersionedUserStorage::latest)
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public UserSnapshot snapshot() {
+        return new Snapshot();
+    }
+
+    @Override
+    public int openSnapshots() {
+        return snapshots.size();
+    }
+
+    @Override
+    public UserSnapshot quiescentSnapshot(Runnable action) {
+        int locked = 0;
+        try {
+            for (; locked < STRIPES; locked++) {
+                locks[locked].lock();
+            }
+            action.run();
+            return snapshot();
+        } finally {
+            while (locked > 0) {
+                locks[--locked].unlock();
+            }
+        }
+    }
+
+    @Override
+    public long lastId() {
+        return sequence.get();
+    }
+
+    @Override
+    public void advanceLastId(long id) {
+        sequence.accumulateAndGet(id, Math::max);
+    }
+
+    @Override
+    public void load(User user) {
+        advanceLastId(user.getId());
+        V version = newVersion(intern(user), null, 0L);
+        V previous = users.put(user.getId(), version);
+        replace(previous, version);
+        release(latest(previous));
+        afterWrite();
+    }
+
+    @Override
+    public void unload(long id) {
+        V previous = users.remove(id);
+        replace(previous, null);
+        release(latest(previous));
+    }
+
+    @Override
+    public void reindex() {
+        listeners.rebuild(this::values);
+    }
+
+    ReentrantLock lockFor(long id) {
+        int hash = Long.hashCode(id);
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    static User latest(Version version) {
+        return version == null ? null : version.read();
+    }
+
+    /**
+     * Heap taken by the birth date and strings of {@code user}.
+     */
+    static long fieldBytes(User user) {
+        return (user.getBirthDate() == null ? 0 : DATE_BYTES)
+                + sizeOf(user.getEmail()) + sizeOf(user.getFirstName()) + sizeOf(user.getLastName())
+                + sizeOf(user.getAddress()) + sizeOf(user.getPhoneNumber());
+    }
+
+    private static long sizeOf(String value) {
+        return value == null ? 0L : STRING_HEADER_BYTES + ((value.length() + 7L) & ~7L);
+    }
+
+    /**
+     * Publishes {@code user} (null for a delete) as the newest version of {@code id}, then
+     * stamps it. Caller holds the lock of the id.
+     */
+    private void commit(long id, V head, User user) {
+        V version = newVersion(user, head, PENDING);
+        users.put(id, version);
+        replace(head, version);
+        version.commit = commits.incrementAndGet();
+        reclaim(id, version);
+    }
+
+    private User intern(User user) {
+        return dictionary == null ? user : dictionary.intern(user);
+    }
+
+    private void release(User user) {
+        if (dictionary != null && user != null) {
+            dictionary.release(user);
+        }
+    }
+
+    private void notifyChange(User previous, User current) {
+        try {
+            listeners.notifyChange(previous, current);
+        } catch (RuntimeException e) {
+            release(current);
+            throw e;
+        }
+    }
+
+    private void replace(V previous, V current) {
+        boolean existed = previous != null && previous.exists();
+        boolean exists = current != null && current.exists();
+        if (!existed && exists) {
+            liveUsers.incrementAndGet();
+        } else if (existed && !exists) {
+            liveUsers.decrementAndGet();
+        }
+        replaced(previous, current);
+    }
+
+    /**
+     * Drops the versions of {@code id} no open snapshot can read. The clock is read before
+     * the registry, see {@link SnapshotRegistry}. Caller holds the lock of the id.
+     */
+    private void reclaim(long id, V head) {
+        long oldest = snapshots.oldest(commits.get());
+        Version visible = head;
+        while (visible != null && visible.commit > oldest) {
+            visible = visible.older;
+        }
+        if (visible != null) {
+            visible.older = null;
+        }
+        if (head.commit > oldest) {
+            return;
+        }
+        changed.remove(id);
+        if (!head.exists()) {
+            users.remove(id, head);
+        }
+    }
+
+    private void reclaimVersions() {
+        for (Long id : changed) {
+            ReentrantLock lock = lockFor(id);
+            lock.lock();
+            try {
+                V head = users.get(id);
+                if (head == null) {
+                    changed.remove(id);
+                } else {
+                    reclaim(id, head);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    abstract static class Version {
+        volatile long commit;
+        volatile Version older;
+
+        Version(Version older, long commit) {
+            this.older = older;
+            this.commit = commit;
+        }
+
+        /**
+         * The user this version holds, or null for a delete.
+         */
+        abstract User read();
+
+        abstract boolean exists();
+
+        /**
+         * The user as of {@code readAt}, or null if it did not exist then. A version that is
+         * published but not stamped yet may still get a commit at or below {@code readAt},
+         * so the reader waits out the few instructions until it is stamped.
+         */
+        final User at(long readAt) {
+            for (Version version = this; version != null; version = version.older) {
+                long stamp = version.commit;
+                while (stamp == PENDING) {
+                    Thread.yield();
+                    stamp = version.commit;
+                }
+                if (stamp <= readAt) {
+                    return version.read();
+                }
+            }
+            return null;
+        }
+    }
+
+    private final class Snapshot implements UserSnapshot {
+        private final SnapshotRegistry.Registration registration = snapshots.register(commits::get);
+
+        @Override
+        public Optional<User> get(long id) {
+            V head = users.get(id);
+            return head == null ? Optional.empty() : Optional.ofNullable(head.at(registration.readAt()));
+        }
+
+        @Override
+        public Stream<User> valuesAfter(long id) {
+            long readAt = registration.readAt();
+            return users.tailMap(id, false).values().stream()
+                    .map(version -> version.at(readAt))
+                    .filter(Objects::nonNull);
+        }
+
+        @Override
+        public Collection<Long> changedIds() {
+            return Collections.unmodifiableSet(changed);
+        }
+
+        @Override
+        public Collection<Long> drainChangedIds() {
+            return registration.drainWritten();
+        }
+
+        @Override
+        public void close() {
+            if (registration.close()) {
+                reclaimVersions();
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.app.project.storage.persistence;
+
+import com.app.project.model.User;
+import com.app.project.storage.UserSnapshot;
+import com.app.project.storage.UserStorage;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the whole user set to {@code snapshot-<lsn>.bin} and then drops the log segments
+ * the snapshot covers. A change is logged before it becomes visible, so the log is rolled
+ * while writers are held off and the users are read from a storage snapshot taken at that
+ * same point: it holds exactly the changes up to its LSN. Writers only wait for the roll,
+ * not for the users to be written out.
+ *
+ * <p>Layout: {@code [int magic][int version][long lsn][long lastId]}, then
+ * {@code [int length][user]} per user, then {@code [int -1][long count][int crc32]} where the
+ * crc covers every user record.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.wal.enabled", havingValue = "true")
+public class SnapshotManager implements AutoCloseable {
+    private static final int MAGIC = 0x55534e50;
+    private static final int FORMAT_VERSION = 1;
+    private static final int END_OF_USERS = -1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 2;
+    private static final int BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final Path directory;
+    private final long intervalMs;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private ScheduledExecutorService scheduler;
+
+    public SnapshotManager(@Value("${storage.snapshot.directory}") Path directory,
+                           @Value("${storage.snapshot.interval-ms}") long intervalMs) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.intervalMs = intervalMs;
+    }
+
+    public void schedule(UserStorage storage, WriteAheadLog writeAheadLog) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                takeSnapshot(storage, writeAheadLog);
+            } catch (RuntimeException | IOException e) {
+                log.error("Can't take snapshot", e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public long takeSnapshot(UserStorage storage, WriteAheadLog writeAheadLog) throws IOException {
+        snapshotLock.lock();
+        try {
+            long startedAt = System.nanoTime();
+            long[] rolledAt = new long[1];
+            long count;
+            try (UserSnapshot snapshot = storage.quiescentSnapshot(() -> rolledAt[0] = writeAheadLog.roll());
+                 Stream<User> users = snapshot.valuesAfter(Long.MIN_VALUE)) {
+                count = write(temp(rolledAt[0]), rolledAt[0], storage, users.iterator());
+            }
+            long lsn = rolledAt[0];
+            Path temp = temp(lsn);
+            Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
+            for (Path snapshot : snapshots()) {
+                if (!snapshot.equals(target)) {
+                    Files.delete(snapshot);
+                }
+            }
+            writeAheadLog.truncateBefore(lsn);
+            log.info("Wrote snapshot of {} users at lsn {} in {} ms", count, lsn,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return lsn;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Loads the newest snapshot into the storage without notifying listeners and returns
+     * its LSN, or 0 when there is none.
+     */
+    public long loadLatest(UserStorage storage) throws IOException {
+        List<Path> snapshots = snapshots();
+        if (snapshots.isEmpty()) {
+            return 0L;
+        }
+        Path latest = snapshots.get(snapshots.size() - 1);
+        long startedAt = System.nanoTime();
+        try (FileChannel input = FileChannel.open(latest, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).flip();
+            CRC32 crc = new CRC32();
+            buffer = fill(input, buffer, HEADER_SIZE);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported snapshot " + latest);
+            }
+            long lsn = buffer.getLong();
+            long lastId = buffer.getLong();
+            long count = 0;
+            while (true) {
+                buffer = fill(input, buffer, Integer.BYTES);
+                int length = buffer.getInt();
+                if (length == END_OF_USERS) {
+                    break;
+                }
+                buffer = fill(input, buffer, length);
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                crc.update(record.duplicate());
+                storage.load(UserRecordCodec.decode(record));
+                buffer.position(buffer.position() + length);
+                count++;
+            }
+            buffer = fill(input, buffer, Long.BYTES + Integer.BYTES);
+            if (buffer.getLong() != count || buffer.getInt() != (int) crc.getValue()) {
+                throw new IllegalStateException("Corrupt snapshot " + latest);
+            }
+            storage.advanceLastId(lastId);
+            log.info("Loaded snapshot of {} users at lsn {} in {} ms", count, lsn,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return lsn;
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private long write(Path temp, long lsn, UserStorage storage, Iterator<User> users) throws IOException {
+        try (FileChannel output = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            CRC32 crc = new CRC32();
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(lsn).putLong(0L);
+            long count = 0;
+            while (users.hasNext()) {
+                byte[] record = UserRecordCodec.encode(users.next());
+                ensureCapacity(output, buffer, Integer.BYTES + record.length);
+                buffer.putInt(record.length);
+                if (record.length > buffer.remaining()) {
+                    drain(output, buffer);
+                    ByteBuffer wrapped = ByteBuffer.wrap(record);
+                    while (wrapped.hasRemaining()) {
+                        output.write(wrapped);
+                    }
+                } else {
+                    buffer.put(record);
+                }
+                crc.update(record);
+                count++;
+            }
+            ensureCapacity(output, buffer, Integer.BYTES + Long.BYTES + Integer.BYTES);
+            buffer.putInt(END_OF_USERS).putLong(count).putInt((int) crc.getValue());
+            drain(output, buffer);
+            output.write(ByteBuffer.allocate(Long.BYTES).putLong(0, storage.lastId()),
+                    Integer.BYTES * 2 + Long.BYTES);
+            output.force(true);
+            return count;
+        }
+    }
+
+    private Path temp(long lsn) {
+        return directory.resolve(String.format("%s%020d%s.tmp", SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX));
+    }
+
+    private void ensureCapacity(FileChannel output, ByteBuffer buffer, int required) throws IOException {
+        if (buffer.remaining() < required) {
+            drain(output, buffer);
+        }
+    }
+
+    private void drain(FileChannel output, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Makes the rename of the new snapshot durable before the snapshots and log segments it
+     * replaces are deleted, so a crash can't leave the directory with neither.
+     */
+    private void forceDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Returns a buffer with at least {@code required} bytes remaining, which is a larger one
+     * than {@code buffer} when a record does not fit in it.
+     */
+    private ByteBuffer fill(FileChannel input, ByteBuffer buffer, int required) throws IOException {
+        if (buffer.remaining() >= required) {
+            return buffer;
+        }
+        if (buffer.capacity() < required) {
+            buffer = ByteBuffer.allocateDirect(required).put(buffer);
+        } else {
+            buffer.compact();
+        }
+        while (buffer.position() < required) {
+            if (input.read(buffer) < 0) {
+                throw new UncheckedIOException(new IOException("Unexpected end of snapshot"));
+            }
+        }
+        return buffer.flip();
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(SNAPSHOT_PREFIX))
+                    .filter(p -> p.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.app.project.storage.persistence;
+
+import com.app.project.model.User;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Fixed binary layout of a user shared by the log and snapshots: id as a long, birth
+ * date as an int epoch day, every string as an int length followed by UTF-8 bytes, then
+ * the version as a long. Records are always length-delimited, so records written before
+ * the version was added simply end early and decode with version 0.
+ */
+public final class UserRecordCodec {
+    private static final int NULL_LENGTH = -1;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private UserRecordCodec() {
+    }
+
+    public static byte[] encode(User user) {
+        byte[][] strings = {
+                bytes(user.getEmail()),
+                bytes(user.getFirstName()),
+                bytes(user.getLastName()),
+                bytes(user.getAddress()),
+                bytes(user.getPhoneNumber())
+        };
+        int size = Long.BYTES + Integer.BYTES + Long.BYTES;
+        for (byte[] string : strings) {
+            size += Integer.BYTES + (string == null ? 0 : string.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(user.getId());
+        buffer.putInt(user.getBirthDate() == null ? NULL_DATE : (int) user.getBirthDate().toEpochDay());
+        for (byte[] string : strings) {
+            if (string == null) {
+                buffer.putInt(NULL_LENGTH);
+            } else {
+                buffer.putInt(string.length);
+                buffer.put(string);
+            }
+        }
+        buffer.putLong(user.getVersion());
+        return buffer.array();
+    }
+
+    public static User decode(ByteBuffer buffer) {
+        User user = new User();
+        user.setId(buffer.getLong());
+        int epochDay = buffer.getInt();
+        user.setBirthDate(epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay));
+        user.setEmail(string(buffer));
+        user.setFirstName(string(buffer));
+        user.setLastName(string(buffer));
+        user.setAddress(string(buffer));
+        user.setPhoneNumber(string(buffer));
+        if (buffer.remaining() >= Long.BYTES) {
+            user.setVersion(buffer.getLong());
+        }
+        return user;
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,30 @@
+package com.app.project.storage.persistence;
+
+import com.app.project.storage.UserStorage;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "storage.wal.enabled", havingValue = "true")
+public class UserStorageRecovery {
+    private final UserStorage storage;
+    private final WriteAheadLog writeAheadLog;
+    private final SnapshotManager snapshotManager;
+
+    public UserStorageRecovery(UserStorage storage, WriteAheadLog writeAheadLog,
+                               SnapshotManager snapshotManager) {
+        this.storage = storage;
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotManager = snapshotManager;
+    }
+
+    @PostConstruct
+    public void recover() throws IOException {
+        long snapshotLsn = snapshotManager.loadLatest(storage);
+        writeAheadLog.recover(storage, snapshotLsn);
+        storage.reindex();
+        snapshotManager.schedule(storage, writeAheadLog);
+    }
+}
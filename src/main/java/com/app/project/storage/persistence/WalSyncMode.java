@@ -0,0 +1,7 @@
+package com.app.project.storage.persistence;
+
+public enum WalSyncMode {
+    WRITE,
+    INTERVAL,
+    RECORDS
+}
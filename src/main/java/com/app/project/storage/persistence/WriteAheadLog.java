@@ -0,0 +1,420 @@
+package com.app.project.storage.persistence;
+
+import com.app.project.model.User;
+import com.app.project.storage.UserStorage;
+import com.app.project.storage.UserStorageListener;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only log of every committed user change, split into segment files named after
+ * the first LSN they hold. Each record is {@code [int length][int crc32][long lsn][byte type][payload]}
+ * where length and crc cover everything after the crc. Runs last among the storage
+ * listeners, so only changes that every index accepted are logged, and a failed append
+ * rejects the change. A record larger than recovery reads back is rejected before anything
+ * is written.
+ *
+ * <p>Durability is group committed: in {@link WalSyncMode#WRITE} mode a writer waits until
+ * an fsync covers its record, but a single fsync covers every record appended before it.
+ * Within a {@link UserStorage#batch} the sync is put off until the batch ends, so a batch
+ * waits for one fsync instead of one per record.
+ *
+ * <p>A write that fails part way is cut back off the segment, so the records after it are
+ * not lost behind a torn one on recovery. A failed fsync leaves it unknown what reached the
+ * disk, and its writers roll their changes back, so every record after the last durable one
+ * is cut off and the log refuses further appends until the node restarts; so does a write
+ * whose partial record can't be cut off.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "storage.wal.enabled", havingValue = "true")
+public class WriteAheadLog implements UserStorageListener, AutoCloseable {
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    private final Path directory;
+    private final WalSyncMode syncMode;
+    private final int syncRecords;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final AtomicLong unsyncedRecords = new AtomicLong();
+    private final ScheduledExecutorService syncScheduler;
+    private final ThreadLocal<Batch> batches = new ThreadLocal<>();
+    private volatile FileChannel channel;
+    private volatile Position written;
+    private volatile long durableLsn;
+    private volatile long durableSize;
+    private volatile IOException failure;
+    private long lastLsn;
+
+    public WriteAheadLog(@Value("${storage.wal.directory}") Path directory,
+                         @Value("${storage.wal.sync-mode}") WalSyncMode syncMode,
+                         @Value("${storage.wal.sync-interval-ms}") long syncIntervalMs,
+                         @Value("${storage.wal.sync-records}") int syncRecords) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.syncMode = syncMode;
+        this.syncRecords = syncRecords;
+        if (syncMode == WalSyncMode.INTERVAL) {
+            syncScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "wal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncScheduler.scheduleWithFixedDelay(() -> sync(written.lsn()), syncIntervalMs, syncIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            syncScheduler = null;
+        }
+    }
+
+    @Override
+    public void onChange(User previous, User current) {
+        if (current == null) {
+            append(DELETE, ByteBuffer.allocate(Long.BYTES).putLong(previous.getId()).array());
+        } else {
+            append(PUT, UserRecordCodec.encode(current));
+        }
+    }
+
+    @Override
+    public void beforeBatch() {
+        Batch batch = batches.get();
+        if (batch == null) {
+            batches.set(new Batch());
+        } else {
+            batch.depth++;
+        }
+    }
+
+    @Override
+    public void afterBatch() {
+        Batch batch = batches.get();
+        if (--batch.depth > 0) {
+            return;
+        }
+        batches.remove();
+        if (batch.records > 0 && syncDue(batch.records)) {
+            sync(batch.lastLsn);
+        }
+    }
+
+    /**
+     * Loads every intact record after {@code afterLsn} into the storage without notifying
+     * listeners, and cuts off a torn or corrupt tail of the last segment so new records are
+     * appended right after the last valid one. Must be called once before the first write.
+     */
+    public void recover(UserStorage storage, long afterLsn) {
+        appendLock.lock();
+        try {
+            lastLsn = afterLsn;
+            long records = 0;
+            List<Path> segments = segments();
+            for (int i = 0; i < segments.size(); i++) {
+                boolean last = i == segments.size() - 1;
+                records += replay(segments.get(i), storage, afterLsn, last);
+            }
+            if (segments.isEmpty()) {
+                channel = openSegment(lastLsn + 1);
+            } else {
+                channel = FileChannel.open(segments.get(segments.size() - 1), StandardOpenOption.WRITE);
+                channel.position(channel.size());
+            }
+            written = new Position(lastLsn, channel.size());
+            durableLsn = lastLsn;
+            durableSize = channel.size();
+            log.info("Recovered {} write-ahead log records from {} segments", records, segments.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment and returns the LSN of the last record in the previous ones.
+     * Every change with a higher LSN lands in the new segment or later.
+     */
+    public long roll() {
+        appendLock.lock();
+        try {
+            sync(written.lsn());
+            FileChannel previous = channel;
+            channel = openSegment(lastLsn + 1);
+            written = new Position(lastLsn, 0L);
+            durableSize = 0L;
+            previous.close();
+            return lastLsn;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes segments that hold no record above {@code lsn}.
+     */
+    public void truncateBefore(long lsn) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstLsn(segments.get(i + 1)) <= lsn + 1) {
+                Files.delete(segments.get(i));
+            }
+        }
+    }
+
+    public void sync(long lsn) {
+        if (durableLsn >= lsn) {
+            return;
+        }
+        IOException failed;
+        syncLock.lock();
+        try {
+            if (durableLsn >= lsn) {
+                return;
+            }
+            checkNotFailed();
+            Position target = written;
+            unsyncedRecords.set(0);
+            channel.force(false);
+            durableLsn = target.lsn();
+            durableSize = target.size();
+            return;
+        } catch (IOException e) {
+            log.error("Write-ahead log fsync failed, refusing further appends", e);
+            failure = e;
+            failed = e;
+        } finally {
+            syncLock.unlock();
+        }
+        discardUnsynced(failed);
+        throw new UncheckedIOException(failed);
+    }
+
+    long durableLsn() {
+        return durableLsn;
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        if (syncScheduler != null) {
+            syncScheduler.shutdownNow();
+        }
+        if (channel != null && channel.isOpen()) {
+            if (failure == null) {
+                sync(written.lsn());
+            }
+            channel.close();
+        }
+    }
+
+    private void append(byte type, byte[] payload) {
+        int length = Long.BYTES + 1 + payload.length;
+        if (length > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Write-ahead log record of " + length
+                    + " bytes exceeds the limit of " + MAX_RECORD_SIZE);
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + length);
+        long lsn;
+        appendLock.lock();
+        try {
+            checkNotFailed();
+            lsn = lastLsn + 1;
+            record.putInt(length).putInt(0).putLong(lsn).put(type).put(payload);
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), HEADER_SIZE, length);
+            record.putInt(Integer.BYTES, (int) crc.getValue());
+            record.flip();
+            long start = written.size();
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            } catch (IOException e) {
+                cutBack(start, e);
+                throw new UncheckedIOException(e);
+            }
+            lastLsn = lsn;
+            written = new Position(lsn, start + record.limit());
+        } finally {
+            appendLock.unlock();
+        }
+        Batch batch = batches.get();
+        if (batch != null) {
+            batch.lastLsn = lsn;
+            batch.records++;
+        } else if (syncDue(1)) {
+            sync(lsn);
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed earlier, restart to recover", failure);
+        }
+    }
+
+    /**
+     * Cuts whatever part of a record reached the segment back off it, or fails the log when
+     * that fails too. Caller holds the append lock.
+     */
+    private void cutBack(long size, IOException cause) {
+        try {
+            channel.truncate(size);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            log.error("Can't cut a partial record off the write-ahead log, refusing further appends", cause);
+            failure = cause;
+        }
+    }
+
+    /**
+     * Cuts every record after the last durable one off the segment once an fsync failed.
+     * Takes the append lock, so a record being written is cut off with the rest.
+     */
+    private void discardUnsynced(IOException cause) {
+        appendLock.lock();
+        try {
+            channel.truncate(durableSize);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private boolean syncDue(long records) {
+        return syncMode == WalSyncMode.WRITE
+                || syncMode == WalSyncMode.RECORDS && unsyncedRecords.addAndGet(records) >= syncRecords;
+    }
+
+    private long replay(Path segment, UserStorage storage, long afterLsn, boolean last) throws IOException {
+        long records = 0;
+        try (FileChannel input = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long validEnd = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE).flip();
+            CRC32 crc = new CRC32();
+            while (true) {
+                if (!fill(input, buffer, HEADER_SIZE)) {
+                    break;
+                }
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= Long.BYTES || length > MAX_RECORD_SIZE) {
+                    break;
+                }
+                if (buffer.capacity() < length) {
+                    buffer = ByteBuffer.allocate(length).put(buffer);
+                    buffer.flip();
+                }
+                if (!fill(input, buffer, length)) {
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer.array(), buffer.position(), length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                ByteBuffer record = buffer.slice(buffer.position(), length);
+                buffer.position(buffer.position() + length);
+                long lsn = record.getLong();
+                byte type = record.get();
+                if (lsn > afterLsn) {
+                    apply(storage, type, record);
+                    lastLsn = lsn;
+                    records++;
+                }
+                validEnd += HEADER_SIZE + length;
+            }
+            if (validEnd < input.size()) {
+                if (!last) {
+                    throw new IllegalStateException("Corrupt write-ahead log segment " + segment);
+                }
+                log.warn("Truncating {} bytes of torn write-ahead log tail", input.size() - validEnd);
+                input.truncate(validEnd);
+            }
+        }
+        return records;
+    }
+
+    private void apply(UserStorage storage, byte type, ByteBuffer payload) {
+        if (type == PUT) {
+            storage.load(UserRecordCodec.decode(payload));
+        } else if (type == DELETE) {
+            storage.unload(payload.getLong());
+        } else {
+            throw new IllegalStateException("Unknown write-ahead log record type " + type);
+        }
+    }
+
+    private boolean fill(FileChannel input, ByteBuffer buffer, int required) throws IOException {
+        if (buffer.remaining() >= required) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < required) {
+            if (input.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    FileChannel openSegment(long firstLsn) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+        return FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record Position(long lsn, long size) {
+    }
+
+    private static final class Batch {
+        private int depth = 1;
+        private long records;
+        private long lastLsn;
+    }
+}
@@ -2,14 +2,82 @@ package com.app.project.validation;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import java.util.regex.Pattern;
 
+/**
+ * Single-pass scanner for the address format that used to be checked with
+ * {@code ^(?=.{1,64}@)[A-Za-z0-9_-]+(\.[A-Za-z0-9_-]+)*@[^-][A-Za-z0-9-]+(\.[A-Za-z0-9-]+)*(\.[A-Za-z]{2,})$}:
+ * a local part of at most 64 dot-separated {@code [A-Za-z0-9_-]} labels, {@code @}, any one
+ * code point except {@code -}, then at least two dot-separated {@code [A-Za-z0-9-]} labels
+ * where the last one is two or more letters.
+ */
 public class EmailValidator implements ConstraintValidator<Email, String> {
-    private static final String EMAIL_PATTERN = "^(?=.{1,64}@)[A-Za-z0-9_-]+(\\.[A-Za-z0-9_-]+)"
-            + "*@[^-][A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)*(\\.[A-Za-z]{2,})$";
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
 
     @Override
     public boolean isValid(String email, ConstraintValidatorContext constraintValidatorContext) {
-        return email != null && Pattern.compile(EMAIL_PATTERN).matcher(email).matches();
+        return email != null && isValidEmail(email);
+    }
+
+    static boolean isValidEmail(String email) {
+        int length = email.length();
+        int i = 0;
+        int labelStart = 0;
+        for (; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '@') {
+                break;
+            }
+            if (c == '.') {
+                if (i == labelStart) {
+                    return false;
+                }
+                labelStart = i + 1;
+            } else if (!isLocalPartChar(c)) {
+                return false;
+            }
+        }
+        if (i == length || i == labelStart || i > MAX_LOCAL_PART_LENGTH) {
+            return false;
+        }
+        if (++i == length) {
+            return false;
+        }
+        char first = email.charAt(i);
+        if (first == '-') {
+            return false;
+        }
+        i += Character.isHighSurrogate(first) && i + 1 < length
+                && Character.isLowSurrogate(email.charAt(i + 1)) ? 2 : 1;
+        int dots = 0;
+        boolean lettersOnly = true;
+        labelStart = i;
+        for (; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                if (i == labelStart) {
+                    return false;
+                }
+                dots++;
+                labelStart = i + 1;
+                lettersOnly = true;
+            } else if (isDigit(c) || c == '-') {
+                lettersOnly = false;
+            } else if (!isLetter(c)) {
+                return false;
+            }
+        }
+        return dots > 0 && lettersOnly && length - labelStart >= 2;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_' || c == '-';
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
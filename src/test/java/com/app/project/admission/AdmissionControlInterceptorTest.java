@@ -0,0 +1,55 @@
+package com.app.project.admission;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AdmissionControlInterceptorTest {
+    private static MockMvc mockMvc;
+    @Autowired
+    private AdmissionControlInterceptor interceptor;
+
+    @BeforeAll
+    static void setUp(@Autowired WebApplicationContext applicationContext) {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(applicationContext)
+                .build();
+    }
+
+    @Test
+    public void preHandle_PointReadsSaturated_ShedsOnlyPointReads_NotOk() throws Exception {
+        AimdLimiter limiter = interceptor.limiter(EndpointClass.POINT_READ);
+        int held = 0;
+        while (limiter.tryAcquire()) {
+            held++;
+        }
+        try {
+            mockMvc.perform(get("/users/1"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.error").value("Too many concurrent point_read requests"));
+            mockMvc.perform(get("/users/by-email").param("email", "nobody@gmail.com"))
+                    .andExpect(status().isServiceUnavailable());
+            mockMvc.perform(get("/users").param("limit", "1"))
+                    .andExpect(status().isOk());
+        } finally {
+            long now = System.nanoTime();
+            for (int i = 0; i < held; i++) {
+                limiter.release(now, now);
+            }
+        }
+        mockMvc.perform(get("/users/by-email").param("email", "nobody@gmail.com"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,73 @@
+package com.app.project.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AimdLimiterTest {
+    private static final long TARGET = 100;
+
+    @Test
+    public void tryAcquire_AtLimit_NotOk() {
+        AimdLimiter limiter = new AimdLimiter(1, 16, TARGET, 0.5);
+        assertEquals(4, limiter.limit());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        limiter.release(0, 1);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void release_FastAndBusy_IncreasesUpToMax_Ok() {
+        AimdLimiter limiter = new AimdLimiter(1, 16, TARGET, 0.5);
+        for (int i = 0; i < 10; i++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int j = 0; j < admitted; j++) {
+                limiter.release(0, 1);
+            }
+        }
+        assertEquals(16, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    public void release_FastButIdle_KeepsLimit_Ok() {
+        AimdLimiter limiter = new AimdLimiter(1, 64, TARGET, 0.5);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(0, 1);
+        }
+        assertEquals(16, limiter.limit());
+    }
+
+    @Test
+    public void release_Slow_BacksOffOncePerBurst_Ok() {
+        AimdLimiter limiter = new AimdLimiter(1, 64, TARGET, 0.5);
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.release(0, 1_000);
+        limiter.release(10, 1_010);
+        limiter.release(20, 1_020);
+        assertEquals(8, limiter.limit());
+        limiter.release(2_000, 3_000);
+        assertEquals(4, limiter.limit());
+    }
+
+    @Test
+    public void release_Slow_StopsAtMin_Ok() {
+        AimdLimiter limiter = new AimdLimiter(3, 16, TARGET, 0.5);
+        for (int i = 1; i <= 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(i * 1_000L, i * 1_000L + 500);
+        }
+        assertEquals(3, limiter.limit());
+    }
+}
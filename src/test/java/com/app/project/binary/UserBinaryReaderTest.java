@@ -0,0 +1,93 @@
+package com.app.project.binary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.app.project.dto.UserResponseDto;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class UserBinaryReaderTest {
+
+    @Test
+    public void readAll_RoundTrip_Ok() throws IOException {
+        List<UserResponseDto> expected = List.of(
+                new UserResponseDto()
+                        .setId(1L)
+                        .setEmail("user1@gmail.com")
+                        .setFirstName("Тарас")
+                        .setLastName("O'Neil")
+                        .setBirthDate(LocalDate.of(1950, Month.APRIL, 1))
+                        .setAddress("Kyiv, Khreshchatyk 1")
+                        .setPhoneNumber("+380501234567"),
+                new UserResponseDto()
+                        .setId(Long.MAX_VALUE)
+                        .setEmail("")
+                        .setBirthDate(LocalDate.of(2024, Month.FEBRUARY, 29)),
+                new UserResponseDto());
+
+        assertEquals(expected, UserBinaryReader.readAll(encode(expected)));
+    }
+
+    @Test
+    public void readAll_SmallReadsAndLongStrings_Ok() throws IOException {
+        String longAddress = "a".repeat(20_000);
+        List<UserResponseDto> expected = LongStream.rangeClosed(1, 1000)
+                .mapToObj(id -> new UserResponseDto()
+                        .setId(id)
+                        .setEmail("user" + id + "@gmail.com")
+                        .setAddress(id % 100 == 0 ? longAddress : null)
+                        .setBirthDate(LocalDate.ofEpochDay(-id * 7)))
+                .toList();
+        InputStream trickle = new FilterInputStream(new ByteArrayInputStream(encode(expected))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+
+        assertEquals(expected, UserBinaryReader.readAll(trickle));
+    }
+
+    @Test
+    public void write_CompactRecordSize_Ok() throws IOException {
+        UserResponseDto user = new UserResponseDto()
+                .setId(123456L)
+                .setEmail("user123456@gmail.com")
+                .setFirstName("FirstName123456")
+                .setLastName("LastName123456")
+                .setBirthDate(LocalDate.of(1990, Month.MAY, 17));
+
+        assertEquals(4 + 1 + 3 + 21 + 16 + 15 + 2, encode(List.of(user)).length);
+    }
+
+    @Test
+    public void readAll_TruncatedOrForeign_NotOk() throws IOException {
+        byte[] bytes = encode(List.of(new UserResponseDto().setId(1L).setEmail("user1@gmail.com")));
+
+        assertThrows(EOFException.class, () -> UserBinaryReader.readAll(Arrays.copyOf(bytes, bytes.length - 1)));
+        Exception actual = assertThrows(IOException.class,
+                () -> UserBinaryReader.readAll("[{}]".getBytes()));
+        assertEquals("Not a binary user stream", actual.getMessage());
+    }
+
+    private byte[] encode(List<UserResponseDto> users) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UserBinaryWriter writer = new UserBinaryWriter(out);
+        for (UserResponseDto user : users) {
+            writer.write(user);
+        }
+        writer.flush();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,95 @@
+package com.app.project.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.app.project.metrics.Metrics;
+import com.app.project.model.User;
+import org.junit.jupiter.api.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+class UserJsonCacheTest {
+    private final Metrics metrics = new Metrics();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final LongFunction<UserJson> loader = id -> {
+        loads.incrementAndGet();
+        return new UserJson(1L, ("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8));
+    };
+
+    @Test
+    public void get_RepeatedReads_LoadsOnce_Ok() {
+        UserJsonCache cache = new UserJsonCache(10, CacheEvictionPolicy.CLOCK, metrics);
+
+        UserJson first = cache.get(1L, loader);
+        UserJson second = cache.get(1L, loader);
+
+        assertArrayEquals("{\"id\":1}".getBytes(StandardCharsets.UTF_8), first.json());
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertTrue(metrics.scrape().contains("user_json_cache_hits_total 1"));
+        assertTrue(metrics.scrape().contains("user_json_cache_misses_total 1"));
+    }
+
+    @Test
+    public void afterCommit_UpdateAndDelete_InvalidatesOnlyThatId_Ok() {
+        UserJsonCache cache = new UserJsonCache(10, CacheEvictionPolicy.CLOCK, metrics);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        cache.afterCommit(user(1L), user(1L));
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        cache.afterCommit(user(2L), null);
+        cache.get(2L, loader);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void get_WriteCommittedWhileLoading_NotCached_Ok() {
+        UserJsonCache cache = new UserJsonCache(10, CacheEvictionPolicy.CLOCK, metrics);
+
+        cache.get(1L, id -> {
+            cache.afterCommit(user(id), user(id));
+            return loader.apply(id);
+        });
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void get_MoreIdsThanCapacity_StaysBounded_Ok() {
+        UserJsonCache fifo = new UserJsonCache(100, CacheEvictionPolicy.FIFO, metrics);
+        for (long id = 1; id <= 1_000; id++) {
+            fifo.get(id, loader);
+        }
+
+        assertEquals(100, fifo.size());
+        assertTrue(metrics.scrape().contains("user_json_cache_evictions_total 900"));
+    }
+
+    @Test
+    public void get_ClockPolicy_KeepsRecentlyReadEntry_Ok() {
+        UserJsonCache cache = new UserJsonCache(2, CacheEvictionPolicy.CLOCK, metrics);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        cache.get(1L, loader);
+        cache.get(3L, loader);
+        loads.set(0);
+
+        cache.get(1L, loader);
+
+        assertEquals(0, loads.get());
+        assertEquals(2, cache.size());
+    }
+
+    private User user(long id) {
+        return User.builder().id(id).email("user" + id + "@gmail.com").build();
+    }
+}
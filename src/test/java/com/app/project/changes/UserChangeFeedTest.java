@@ -0,0 +1,66 @@
+package com.app.project.changes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.app.project.metrics.Metrics;
+import com.app.project.model.User;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.UserStorage;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+class UserChangeFeedTest {
+    private final UserChangeFeed feed = new UserChangeFeed(8, new Metrics());
+    private final UserStorage storage = new ConcurrentUserStorage(List.of(feed));
+
+    @Test
+    public void readAfter_CreateUpdateDelete_PublishedInOrder() throws Exception {
+        storage.put(User.builder().id(1L).firstName("v1").build());
+        storage.computeIfPresent(1L, u -> u.toBuilder().firstName("v2").build());
+        storage.remove(1L);
+
+        List<UserChange> changes = feed.readAfter(0L, 10, 0L);
+
+        assertEquals(List.of(1L, 2L, 3L), changes.stream().map(UserChange::sequence).toList());
+        assertEquals(List.of(UserChangeType.CREATED, UserChangeType.UPDATED, UserChangeType.DELETED),
+                changes.stream().map(UserChange::type).toList());
+        assertEquals("v2", changes.get(1).user().getFirstName());
+        assertEquals(2L, changes.get(2).version());
+        assertNull(changes.get(2).user());
+        assertEquals(List.of(3L), feed.readAfter(2L, 10, 0L).stream().map(UserChange::sequence).toList());
+    }
+
+    @Test
+    public void isLost_ReaderFallsBehindBuffer_Ok() {
+        for (long id = 1; id <= 10; id++) {
+            storage.put(User.builder().id(id).build());
+        }
+
+        assertTrue(feed.isLost(1L));
+        assertFalse(feed.isLost(2L));
+        assertFalse(feed.isLost(10L));
+        assertTrue(feed.isLost(11L));
+        assertTrue(feed.isLost(-1L));
+    }
+
+    @Test
+    public void readAfter_NoNewChanges_WaitsForNextOne() throws Exception {
+        CompletableFuture<List<UserChange>> read = CompletableFuture.supplyAsync(() -> {
+            try {
+                return feed.readAfter(0L, 10, TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        storage.put(User.builder().id(1L).build());
+
+        assertEquals(1, read.get(1, TimeUnit.MINUTES).size());
+        assertTrue(feed.readAfter(1L, 10, 10L).isEmpty());
+    }
+}
@@ -2,14 +2,25 @@ package com.app.project.controller;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.app.project.binary.UserBinaryFormat;
+import com.app.project.binary.UserBinaryReader;
+import com.app.project.changes.UserChangeFeed;
+import com.app.project.dto.BatchOperationDto;
+import com.app.project.dto.BatchOperationType;
+import com.app.project.dto.BatchResultDto;
+import com.app.project.dto.BirthDateStatsDto;
+import com.app.project.dto.ImportEventDto;
 import com.app.project.dto.StatusErrorDto;
 import com.app.project.dto.UpdateUserRequestDto;
 import com.app.project.dto.UserRequestDto;
@@ -17,20 +28,30 @@ import com.app.project.dto.UserResponseDto;
 import com.app.project.mapper.UserMapper;
 import com.app.project.mapper.UserMapperImpl;
 import com.app.project.model.User;
-import com.app.project.storage.Storage;
+import com.app.project.storage.UserStorage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class UserControllerTest {
@@ -42,6 +63,10 @@ class UserControllerTest {
     protected static MockMvc mockMvc;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private UserStorage storage;
+    @Autowired
+    private UserChangeFeed changeFeed;
 
     @BeforeAll
     static void setUp(@Autowired WebApplicationContext applicationContext) {
@@ -64,7 +89,7 @@ class UserControllerTest {
             user.setFirstName(firstName);
             user.setLastName(lastName);
             user.setBirthDate(birthDate);
-            Storage.storage.put((long)i, user);
+            storage.put(user);
         }
     }
 
@@ -104,7 +129,7 @@ class UserControllerTest {
     public void updateUser_updateAllUsersFields_Success() throws Exception {
         Long id = 3L;
         UserRequestDto requestDto = new UserRequestDto()
-                .setEmail("User12@gmail.com")
+                .setEmail("User13@gmail.com")
                 .setFirstName("firstName12")
                 .setLastName("lastName12")
                 .setBirthDate(LocalDate.of(1989, Month.APRIL, 17));
@@ -128,6 +153,152 @@ class UserControllerTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void getUserByEmail_ExistingEmail_Ok() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/by-email?email=user2@gmail.com")))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserResponseDto actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                UserResponseDto.class);
+
+        assertEquals(2L, actual.getId());
+    }
+
+    @Test
+    public void searchUsers_Typo_Ok() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/search?q=UserLsatName7&limit=1")))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserResponseDto[] actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                UserResponseDto[].class);
+
+        assertEquals(1, actual.length);
+        assertEquals(7L, actual[0].getId());
+    }
+
+    @Test
+    public void getBirthDateStats_ByYear_Ok() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/stats/birth-dates?groupBy=YEAR")))
+                .andExpect(status().isOk())
+                .andReturn();
+        BirthDateStatsDto actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                BirthDateStatsDto.class);
+
+        assertEquals(storage.values().count(), actual.getTotal());
+        assertEquals("1910", actual.getBuckets().get(0).getLabel());
+        assertEquals(1, actual.getBuckets().get(0).getCount());
+    }
+
+    @Test
+    public void registerUser_DuplicateEmail_BadRequest() throws Exception {
+        UserRequestDto requestDto = new UserRequestDto()
+                .setEmail("User1@gmail.com")
+                .setFirstName("firstName")
+                .setLastName("lastName")
+                .setBirthDate(LocalDate.of(1989, Month.APRIL, 17));
+
+        MvcResult result = mockMvc.perform(post(USERS_PATH)
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        StatusErrorDto actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                StatusErrorDto.class);
+
+        assertEquals("User with email User1@gmail.com already exists", actual.getError());
+    }
+
+    @Test
+    public void registerUser_AddressTooLong_BadRequest() throws Exception {
+        UserRequestDto requestDto = new UserRequestDto()
+                .setEmail("LongAddress@gmail.com")
+                .setFirstName("firstName")
+                .setLastName("lastName")
+                .setAddress("a".repeat(1025));
+        int users = storage.size();
+
+        MvcResult result = mockMvc.perform(post(USERS_PATH)
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertTrue(result.getResponse().getContentAsString()
+                .contains("address can't be longer than 1024 characters"));
+        assertEquals(users, storage.size());
+    }
+
+    @Test
+    public void updateUser_PatchFirstNameTooLong_BadRequest() throws Exception {
+        UpdateUserRequestDto requestDto = new UpdateUserRequestDto().setFirstName("f".repeat(257));
+
+        mockMvc.perform(patch(USERS_PATH.concat("/3"))
+                        .content(objectMapper.writeValueAsString(requestDto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isBadRequest());
+
+        assertNotEquals(requestDto.getFirstName(), storage.get(3L).orElseThrow().getFirstName());
+    }
+
+    @Test
+    public void applyBatch_MixedOperations_PerItemResults() throws Exception {
+        List<BatchOperationDto> operations = List.of(
+                new BatchOperationDto()
+                        .setOperation(BatchOperationType.CREATE)
+                        .setUser(new UserRequestDto()
+                                .setEmail("Batch1@gmail.com")
+                                .setFirstName("batchFirstName")
+                                .setLastName("batchLastName")
+                                .setBirthDate(LocalDate.of(1985, Month.MAY, 1))),
+                new BatchOperationDto()
+                        .setOperation(BatchOperationType.CREATE)
+                        .setUser(new UserRequestDto()
+                                .setEmail("wrong email")
+                                .setLastName("batchLastName")),
+                new BatchOperationDto()
+                        .setOperation(BatchOperationType.PATCH)
+                        .setId(2L)
+                        .setPatch(new UpdateUserRequestDto()
+                                .setFirstName("patchedFirstName")
+                                .setLastName("patchedLastName")),
+                new BatchOperationDto()
+                        .setOperation(BatchOperationType.DELETE)
+                        .setId(WRONG_ID),
+                new BatchOperationDto()
+                        .setOperation(BatchOperationType.UPDATE)
+                        .setId(3L)
+                        .setUser(new UserRequestDto()
+                                .setEmail("User1@gmail.com")
+                                .setFirstName("firstName")
+                                .setLastName("lastName")
+                                .setBirthDate(LocalDate.of(1985, Month.MAY, 1)))
+        );
+
+        MvcResult result = mockMvc.perform(post(USERS_PATH.concat("/batch"))
+                        .content(objectMapper.writeValueAsString(operations))
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        BatchResultDto[] actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                BatchResultDto[].class);
+
+        assertEquals(5, actual.length);
+        assertEquals(201, actual[0].getStatus());
+        assertEquals("Batch1@gmail.com", storage.get(actual[0].getId()).orElseThrow().getEmail());
+        assertEquals(400, actual[1].getStatus());
+        assertEquals("user.email Invalid format; user.firstName can't be blank", actual[1].getError());
+        assertEquals(200, actual[2].getStatus());
+        assertEquals("patchedFirstName", storage.get(2L).orElseThrow().getFirstName());
+        assertEquals(404, actual[3].getStatus());
+        assertEquals("Can't find user by id = " + WRONG_ID, actual[3].getError());
+        assertEquals(400, actual[4].getStatus());
+        assertEquals("User with email User1@gmail.com already exists", actual[4].getError());
+    }
+
     @Test
     public void updateUser_NotExistingId_NotFound() throws Exception {
         Long id = WRONG_ID;
@@ -177,6 +348,78 @@ class UserControllerTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void getUserById_IfNoneMatchCurrentETag_NotModified() throws Exception {
+        String eTag = mockMvc.perform(get(USERS_PATH.concat("/3")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/3")).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertEquals(eTag, result.getResponse().getHeader(HttpHeaders.ETAG));
+        assertEquals(0, result.getResponse().getContentLength());
+    }
+
+    @Test
+    public void updateUser_StaleIfMatch_PreconditionFailed() throws Exception {
+        String eTag = mockMvc.perform(get(USERS_PATH.concat("/3")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String jsonRequest = objectMapper.writeValueAsString(new UpdateUserRequestDto()
+                .setFirstName("newUserFirstName")
+                .setLastName("newUserLastName"));
+
+        String newETag = mockMvc.perform(patch(USERS_PATH.concat("/3"))
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(patch(USERS_PATH.concat("/3"))
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content(jsonRequest)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get(USERS_PATH.concat("/3")).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        assertNotEquals(eTag, newETag);
+    }
+
+    @Test
+    public void getChanges_ResumeFromCursor_ReplaysLaterChanges() throws Exception {
+        storage.computeIfPresent(4L, u -> u.toBuilder().firstName("Renamed").build());
+        long sequence = changeFeed.lastSequence();
+        String cursor = changeFeed.epoch() + ":" + (sequence - 1);
+
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/changes")).param("cursor", cursor))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = awaitContent(result, "\"Renamed\"");
+        assertTrue(content.contains("id:" + changeFeed.epoch() + ":" + sequence));
+        assertTrue(content.contains("event:change"));
+        assertTrue(content.contains("\"type\":\"UPDATED\""));
+    }
+
+    @Test
+    public void getChanges_CursorOfEarlierFeed_Resync() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/changes"))
+                        .header("Last-Event-ID", (changeFeed.epoch() - 1) + ":5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = awaitContent(result, "event:resync");
+        assertTrue(content.contains("data:" + changeFeed.epoch() + ":"));
+    }
+
+    @Test
+    public void getChanges_InvalidCursor_NotOk() throws Exception {
+        mockMvc.perform(get(USERS_PATH.concat("/changes")).param("cursor", "latest"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void updateUser_NotExistingId_NotOk() throws Exception {
         Long id = WRONG_ID;
@@ -201,7 +444,7 @@ class UserControllerTest {
     @Test
     public void deleteUser_WithExistingId_Ok() throws Exception {
         Long id = 6L;
-        int expectedSize = Storage.storage.size() - 1;
+        int expectedSize = storage.size() - 1;
         UserResponseDto expected = new UserResponseDto()
                 .setId(id)
                 .setEmail("User6@gmail.com")
@@ -218,7 +461,7 @@ class UserControllerTest {
                 UserResponseDto.class);
 
         assertEquals(expected, actual);
-        assertEquals(expectedSize, Storage.storage.size());
+        assertEquals(expectedSize, storage.size());
     }
 
     @Test
@@ -241,8 +484,9 @@ class UserControllerTest {
     public void getAllUsersByRange_AllUsersInRange_Ok() throws Exception {
         LocalDate from = LocalDate.of(1950, Month.JANUARY, 1);
         LocalDate to = LocalDate.of(1980, Month.JANUARY, 1);
-        UserResponseDto[] expected = Storage.storage.values().stream()
+        UserResponseDto[] expected = storage.values()
                 .filter(u -> u.getBirthDate().isAfter(from) && u.getBirthDate().isBefore(to))
+                .sorted(Comparator.comparing(User::getBirthDate))
                 .map(mapper::toDto)
                 .toArray(UserResponseDto[]::new);
 
@@ -262,6 +506,237 @@ class UserControllerTest {
         assertArrayEquals(expected, actual);
     }
 
+    @Test
+    public void getAllUsers_Streamed_Ok() throws Exception {
+        UserResponseDto[] expected = storage.values()
+                .map(mapper::toDto)
+                .toArray(UserResponseDto[]::new);
+
+        MvcResult result = mockMvc.perform(get(USERS_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isOk())
+                .andReturn();
+        UserResponseDto[] actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                UserResponseDto[].class);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void getAllUsers_NotAcceptable_NoSnapshotLeftOpen_NotOk() throws Exception {
+        int open = storage.openSnapshots();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(USERS_PATH).accept(MediaType.APPLICATION_XML))
+                    .andExpect(status().isNotAcceptable());
+            mockMvc.perform(get(USERS_PATH.concat("/range?from=1900-01-01&to=2000-01-01")).accept("text/csv"))
+                    .andExpect(status().isNotAcceptable());
+        }
+        mockMvc.perform(get(USERS_PATH).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertEquals(open, storage.openSnapshots());
+    }
+
+    @Test
+    public void getAllUsers_AcceptPrefersBinaryByQuality_Binary() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH)
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, " + UserBinaryFormat.MEDIA_TYPE_VALUE))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(UserBinaryFormat.MEDIA_TYPE_VALUE, result.getResponse().getContentType());
+        assertEquals(storage.size(), UserBinaryReader.readAll(result.getResponse().getContentAsByteArray()).size());
+    }
+
+    @Test
+    public void getAllUsers_AcceptBinary_SameUsersAsJson() throws Exception {
+        String json = mockMvc.perform(get(USERS_PATH))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult result = mockMvc.perform(get(USERS_PATH).accept(UserBinaryFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<UserResponseDto> actual = UserBinaryReader.readAll(result.getResponse().getContentAsByteArray());
+
+        assertEquals(UserBinaryFormat.MEDIA_TYPE_VALUE, result.getResponse().getContentType());
+        assertEquals(List.of(objectMapper.readValue(json, UserResponseDto[].class)), actual);
+    }
+
+    @Test
+    public void getUsersPageByRange_AcceptBinary_KeepsNextCursor() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/range?from=1900-01-01&to=2000-01-01&limit=3"))
+                        .accept(UserBinaryFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<UserResponseDto> actual = UserBinaryReader.readAll(result.getResponse().getContentAsByteArray());
+
+        assertEquals(List.of(1L, 2L, 3L), actual.stream().map(UserResponseDto::getId).toList());
+        assertNotNull(result.getResponse().getHeader("X-Next-Cursor"));
+    }
+
+    @Test
+    public void getUsersPage_AcceptBinaryInvalidCursor_JsonError() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("?cursor=abc&limit=2"))
+                        .accept(UserBinaryFormat.MEDIA_TYPE))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, result.getResponse().getContentType());
+        assertTrue(result.getResponse().getContentAsString().contains("Invalid cursor: abc"));
+    }
+
+    @Test
+    public void exportUsers_AcceptGzip_OneUserPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/export"))
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String[] lines;
+        try (InputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+        }
+
+        assertEquals("gzip", result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(storage.values().count(), lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], UserResponseDto.class).getId());
+    }
+
+    @Test
+    public void importUsers_MixedLines_ReportsRejectsAndCreates() throws Exception {
+        String body = """
+                {"email":"import1@gmail.com","firstName":"Import","lastName":"One","birthDate":"1990-01-01"}
+
+                {"email":"import2","firstName":"Import","lastName":"Two","birthDate":"1990-01-01"}
+                {"email":"import3@gmail.com",
+                {"email":"User1@gmail.com","firstName":"Import","lastName":"Four","birthDate":"1990-01-01"}
+                """;
+
+        MvcResult result = mockMvc.perform(post(USERS_PATH.concat("/import"))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<ImportEventDto> events = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            events.add(objectMapper.readValue(line, ImportEventDto.class));
+        }
+
+        assertEquals(List.of(4L, 3L, 5L), events.stream()
+                .filter(e -> ImportEventDto.REJECTED.equals(e.getType()))
+                .map(ImportEventDto::getLine)
+                .toList());
+        ImportEventDto done = events.get(events.size() - 1);
+        assertEquals(ImportEventDto.DONE, done.getType());
+        assertEquals(4L, done.getRecords());
+        assertEquals(1L, done.getCreated());
+        assertEquals(3L, done.getRejected());
+        mockMvc.perform(get(USERS_PATH.concat("/by-email?email=import1@gmail.com")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void filterUsers_EmailDomainWithLimit_ReturnsPageAndNextCursor() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/filter?emailDomain=GMAIL.com&limit=2&cursor=3")))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserResponseDto[] actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                UserResponseDto[].class);
+
+        assertEquals(List.of(4L, 5L), Arrays.stream(actual).map(UserResponseDto::getId).toList());
+        assertEquals("5", result.getResponse().getHeader("X-Next-Cursor"));
+    }
+
+    @Test
+    public void getAllUsers_WithFieldsAndLimit_ReturnsOnlyRequestedFieldsAndNextCursor() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("?limit=2&fields=email")))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("[{\"email\":\"User1@gmail.com\"},{\"email\":\"User2@gmail.com\"}]",
+                result.getResponse().getContentAsString());
+        assertEquals("2", result.getResponse().getHeader("X-Next-Cursor"));
+    }
+
+    @Test
+    public void getUserById_WithFields_ReturnsOnlyRequestedFields() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/3?fields=lastName, id,lastName")))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("{\"id\":3,\"lastName\":\"UserLastName3\"}", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    public void getUserById_UnknownField_NotOk() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("/3?fields=id,password")))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        StatusErrorDto actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                StatusErrorDto.class);
+
+        assertTrue(actual.getError().startsWith("Unknown field 'password'"));
+    }
+
+    @Test
+    public void getAllUsers_WithLimit_ReturnsPageAndNextCursor() throws Exception {
+        MvcResult first = mockMvc.perform(get(USERS_PATH.concat("?limit=4")))
+                .andExpect(status().isOk())
+                .andReturn();
+        String cursor = first.getResponse().getHeader("X-Next-Cursor");
+        MvcResult second = mockMvc.perform(get(USERS_PATH.concat("?limit=4&cursor=").concat(cursor)))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserResponseDto[] firstPage = objectMapper.readValue(first.getResponse().getContentAsString(),
+                UserResponseDto[].class);
+        UserResponseDto[] secondPage = objectMapper.readValue(second.getResponse().getContentAsString(),
+                UserResponseDto[].class);
+
+        assertEquals(4, firstPage.length);
+        assertEquals(firstPage[3].getId(), secondPage[0].getId() - 1);
+        assertEquals(4, secondPage.length);
+    }
+
+    @Test
+    public void getAllUsers_LimitOutOfBounds_BadRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get(USERS_PATH.concat("?limit=0")))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        StatusErrorDto actual = objectMapper.readValue(result.getResponse().getContentAsString(),
+                StatusErrorDto.class);
+
+        assertEquals("Argument 'limit' must be between 1 and 1000", actual.getError());
+    }
+
+    @Test
+    public void getAllUsersByRange_WithLimit_LastPageHasNoCursor() throws Exception {
+        LocalDate from = LocalDate.of(1950, Month.JANUARY, 1);
+        LocalDate to = LocalDate.of(1980, Month.JANUARY, 1);
+        String rangePath = USERS_PATH.concat("/range?from=")
+                .concat(from.toString())
+                .concat("&to=")
+                .concat(to.toString())
+                .concat("&limit=2");
+
+        MvcResult first = mockMvc.perform(get(rangePath))
+                .andExpect(status().isOk())
+                .andReturn();
+        String cursor = first.getResponse().getHeader("X-Next-Cursor");
+        MvcResult second = mockMvc.perform(get(rangePath.concat("&cursor=").concat(cursor)))
+                .andExpect(status().isOk())
+                .andReturn();
+        UserResponseDto[] secondPage = objectMapper.readValue(second.getResponse().getContentAsString(),
+                UserResponseDto[].class);
+
+        assertNotNull(cursor);
+        assertEquals(1, secondPage.length);
+        assertEquals(LocalDate.of(1970, Month.APRIL, 7), secondPage[0].getBirthDate());
+        assertEquals(null, second.getResponse().getHeader("X-Next-Cursor"));
+    }
+
     @Test
     public void getAllUsersByRange_AllUsersInRange_BadRequest() throws Exception {
         LocalDate from = LocalDate.of(2000, Month.JANUARY, 1);
@@ -282,4 +757,15 @@ class UserControllerTest {
 
         assertEquals(expected, actual.getError());
     }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
 }
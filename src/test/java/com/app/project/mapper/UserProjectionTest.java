@@ -0,0 +1,76 @@
+package com.app.project.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.app.project.dto.UserResponseDto;
+import com.app.project.exception.IncorrectArgumentException;
+import com.app.project.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+class UserProjectionTest {
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final User user = User.builder()
+            .id(7L)
+            .email("User7@gmail.com")
+            .firstName("Taras")
+            .lastName("Shevchenko")
+            .birthDate(LocalDate.of(1814, Month.MARCH, 9))
+            .address("Kyiv")
+            .build();
+
+    @Test
+    public void of_SameFieldsInAnyOrder_CompiledOnce_Ok() {
+        assertSame(UserProjection.of("email,id"), UserProjection.of(" id , email,id"));
+        assertSame(UserProjection.ALL, UserProjection.of(null));
+        assertSame(UserProjection.ALL,
+                UserProjection.of("phoneNumber,address,birthDate,lastName,firstName,email,id"));
+        assertFalse(UserProjection.of("id").isAll());
+    }
+
+    @Test
+    public void of_UnknownOrNoField_NotOk() {
+        assertThrows(IncorrectArgumentException.class, () -> UserProjection.of("id,Email"));
+        assertThrows(IncorrectArgumentException.class, () -> UserProjection.of(" , "));
+    }
+
+    @Test
+    public void toDto_CopiesOnlySelectedFields_Ok() {
+        UserResponseDto dto = UserProjection.of("email,birthDate").toDto(user);
+
+        assertEquals("User7@gmail.com", dto.getEmail());
+        assertEquals(user.getBirthDate(), dto.getBirthDate());
+        assertNull(dto.getId());
+        assertNull(dto.getFirstName());
+        assertNull(dto.getAddress());
+    }
+
+    @Test
+    public void serialize_WritesSelectedFieldsInResponseOrder_Ok() throws Exception {
+        List<UserResponseDto> users = List.of(UserProjection.of("phoneNumber,birthDate,id").toDto(user));
+
+        assertEquals("[{\"id\":7,\"birthDate\":\"1814-03-09\",\"phoneNumber\":null}]",
+                objectMapper.writeValueAsString(users));
+    }
+
+    @Test
+    public void serialize_AllFields_SameAsMapper_Ok() throws Exception {
+        UserResponseDto projected = UserProjection.ALL.toDto(user);
+
+        assertEquals(objectMapper.writeValueAsString(new UserMapperImpl().toDto(user)),
+                objectMapper.writeValueAsString(projected));
+        assertTrue(UserProjection.ALL.isAll());
+    }
+}
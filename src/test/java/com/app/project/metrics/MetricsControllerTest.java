@@ -0,0 +1,58 @@
+package com.app.project.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.app.project.model.User;
+import com.app.project.storage.UserStorage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import java.time.LocalDate;
+import java.time.Month;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MetricsControllerTest {
+    private static MockMvc mockMvc;
+    @Autowired
+    private UserStorage storage;
+
+    @BeforeAll
+    static void setUp(@Autowired WebApplicationContext applicationContext) {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(applicationContext)
+                .build();
+    }
+
+    @Test
+    public void scrape_AfterRequests_ExposesRequestServiceErrorAndStoreMetrics_Ok() throws Exception {
+        storage.put(User.builder()
+                .id(500L)
+                .email("metrics@gmail.com")
+                .firstName("first")
+                .lastName("last")
+                .birthDate(LocalDate.of(1990, Month.JUNE, 1))
+                .build());
+        mockMvc.perform(get("/users/500")).andExpect(status().isOk());
+        mockMvc.perform(get("/users/100500")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/range?from=1990-01-01&to=1991-01-01")).andExpect(status().isOk());
+
+        String body = mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("# TYPE http_server_requests_seconds summary"), body);
+        assertTrue(body.contains("http_server_requests_seconds_count{method=\"GET\",uri=\"/users/{id}\","
+                + "status=\"404\"}"), body);
+        assertTrue(body.contains("service_method_seconds_count{service=\"UserService\",method=\"getById\"}"), body);
+        assertTrue(body.contains("http_server_errors_total{exception=\"EntityNotFoundException\"}"), body);
+        assertTrue(body.contains("user_range_rows_returned_total"), body);
+        assertTrue(body.contains("user_store_users "), body);
+        assertTrue(body.contains("user_store_memory_bytes "), body);
+    }
+}
@@ -0,0 +1,64 @@
+package com.app.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class NdjsonLineReaderTest {
+
+    @Test
+    public void next_CrLfBlankAndUnterminatedLines_Ok() throws IOException {
+        NdjsonLineReader reader = reader("{\"a\":1}\r\n\n  \n{\"b\":2}", 64);
+
+        assertEquals(List.of("1:{\"a\":1}", "2:", "3:  ", "4:{\"b\":2}"), readAll(reader));
+    }
+
+    @Test
+    public void next_LineOverLimit_FlaggedAndSkipped() throws IOException {
+        NdjsonLineReader reader = reader("x".repeat(100) + "\n{}\n", 10);
+
+        assertTrue(reader.next());
+        assertTrue(reader.isTooLong());
+        assertFalse(reader.isBlank());
+        assertTrue(reader.next());
+        assertFalse(reader.isTooLong());
+        assertEquals("{}", new String(reader.line(), 0, reader.length(), StandardCharsets.UTF_8));
+        assertEquals(2, reader.number());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void next_LinesSplitAcrossReads_Ok() throws IOException {
+        InputStream trickle = new FilterInputStream(new ByteArrayInputStream(
+                "first line\nsecond line\n".getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+
+        assertEquals(List.of("1:first line", "2:second line"), readAll(new NdjsonLineReader(trickle, 64)));
+    }
+
+    private NdjsonLineReader reader(String content, int maxLineBytes) {
+        return new NdjsonLineReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                maxLineBytes);
+    }
+
+    private List<String> readAll(NdjsonLineReader reader) throws IOException {
+        List<String> lines = new ArrayList<>();
+        while (reader.next()) {
+            lines.add(reader.number() + ":" + new String(reader.line(), 0, reader.length(), StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+}
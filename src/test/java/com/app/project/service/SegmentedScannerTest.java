@@ -0,0 +1,111 @@
+package com.app.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.app.project.model.User;
+import com.app.project.storage.ColumnarUserStorage;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.UserSnapshot;
+import com.app.project.storage.UserStorage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SegmentedScannerTest {
+    private static final int USERS = 1000;
+    private final SegmentedScanner parallel = new SegmentedScanner(4, 1, 37);
+    private final SegmentedScanner sequential = new SegmentedScanner(4, 0, 37);
+
+    @AfterEach
+    void tearDown() {
+        parallel.close();
+        sequential.close();
+    }
+
+    @Test
+    public void scan_ParallelMatchesSequential_Ok() {
+        for (UserStorage storage : List.of(new ConcurrentUserStorage(List.of()), new ColumnarUserStorage(List.of()))) {
+            fill(storage);
+            for (int limit : new int[] {1, 10, 150, USERS}) {
+                for (long afterId : new long[] {0, 5, 500, 990, USERS}) {
+                    assertEquals(scan(sequential, storage, afterId, u -> u.getId() % 7 == 0, limit),
+                            scan(parallel, storage, afterId, u -> u.getId() % 7 == 0, limit),
+                            "limit " + limit + " after " + afterId);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void scan_Parallel_IdOrderWithinLimit_Ok() {
+        UserStorage storage = new ConcurrentUserStorage(List.of());
+        fill(storage);
+
+        List<Long> actual = scan(parallel, storage, 100, u -> u.getId() % 100 == 0, 5);
+
+        assertEquals(List.of(200L, 300L, 400L, 500L, 600L), actual);
+    }
+
+    @Test
+    public void scan_WritesAfterSnapshot_NotSeen() {
+        UserStorage storage = new ConcurrentUserStorage(List.of());
+        fill(storage);
+
+        List<Long> actual;
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            long lastId = storage.lastId();
+            storage.remove(50L);
+            storage.put(user(storage.nextId()));
+            actual = parallel.scan(snapshot, 0, lastId, USERS, u -> u.getId() % 50 == 0, User::getId, USERS);
+        }
+
+        assertEquals(USERS / 50, actual.size());
+        assertEquals(50L, actual.get(0));
+    }
+
+    @Test
+    public void scan_ParallelLimitReached_NoSegmentReadsAfterReturn() throws InterruptedException {
+        UserStorage storage = new ConcurrentUserStorage(List.of());
+        fill(storage);
+        AtomicInteger reads = new AtomicInteger();
+        Predicate<User> slowFilter = u -> {
+            reads.incrementAndGet();
+            if (u.getId() == 1L) {
+                return true;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            return false;
+        };
+
+        List<Long> actual = scan(parallel, storage, 0, slowFilter, 1);
+        int readsAtReturn = reads.get();
+        Thread.sleep(100);
+
+        assertEquals(List.of(1L), actual);
+        assertEquals(readsAtReturn, reads.get());
+    }
+
+    private List<Long> scan(SegmentedScanner scanner, UserStorage storage, long afterId, Predicate<User> filter,
+                            int limit) {
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            return scanner.scan(snapshot, afterId, storage.lastId(), storage.size(), filter, User::getId, limit);
+        }
+    }
+
+    private void fill(UserStorage storage) {
+        for (int i = 1; i <= USERS; i++) {
+            storage.put(user(storage.nextId()));
+        }
+        for (long id = 3; id <= USERS; id += 10) {
+            storage.remove(id);
+        }
+    }
+
+    private User user(long id) {
+        return User.builder().id(id).email("user" + id + "@gmail.com").firstName("First").lastName("Last").build();
+    }
+}
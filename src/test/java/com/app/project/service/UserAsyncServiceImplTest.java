@@ -0,0 +1,80 @@
+package com.app.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.app.project.dto.UserRequestDto;
+import com.app.project.dto.UserResponseDto;
+import com.app.project.exception.EntityNotFoundException;
+import com.app.project.mapper.UserMapperImpl;
+import com.app.project.metrics.Metrics;
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.EmailIndex;
+import com.app.project.storage.NameIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+class UserAsyncServiceImplTest {
+    private final BirthDateIndex birthDateIndex = new BirthDateIndex();
+    private final EmailIndex emailIndex = new EmailIndex();
+    private final NameIndex nameIndex = new NameIndex(2);
+    private final UserService userService = new UserServiceImpl(new UserMapperImpl(),
+            new ConcurrentUserStorage(List.of(emailIndex, birthDateIndex, nameIndex)), birthDateIndex, emailIndex,
+            nameIndex, new Metrics());
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final UserAsyncService asyncService = new UserAsyncServiceImpl(userService, executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void create_ThenGetById_Pipelined_Ok() {
+        List<CompletableFuture<UserResponseDto>> users = IntStream.rangeClosed(1, 20)
+                .mapToObj(i -> asyncService.create(request(i))
+                        .thenCompose(created -> asyncService.getById(created.getId())))
+                .toList();
+
+        List<String> emails = users.stream().map(CompletableFuture::join).map(UserResponseDto::getEmail).sorted().toList();
+
+        assertEquals(IntStream.rangeClosed(1, 20).mapToObj(i -> "user" + i + "@gmail.com").sorted().toList(), emails);
+        assertEquals(20, userService.findAllUsers().size());
+    }
+
+    @Test
+    public void getById_WrongId_CompletesExceptionally_NotOk() {
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncService.getById(42L).get());
+
+        assertInstanceOf(EntityNotFoundException.class, exception.getCause());
+    }
+
+    @Test
+    public void getById_WrongId_JoinAndStagesSeeCompletionException_NotOk() {
+        CompletableFuture<UserResponseDto> future = asyncService.getById(42L);
+
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(EntityNotFoundException.class, exception.getCause());
+        assertInstanceOf(CompletionException.class, future.handle((user, e) -> e).join());
+    }
+
+    private UserRequestDto request(int i) {
+        return new UserRequestDto()
+                .setEmail("user" + i + "@gmail.com")
+                .setFirstName("firstName" + i)
+                .setLastName("lastName" + i)
+                .setBirthDate(LocalDate.of(1980, Month.MAY, i));
+    }
+}
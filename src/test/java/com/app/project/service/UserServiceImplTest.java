@@ -4,25 +4,45 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.app.project.dto.UpdateUserRequestDto;
+import com.app.project.dto.UserPageDto;
 import com.app.project.dto.UserRequestDto;
 import com.app.project.dto.UserResponseDto;
+import com.app.project.dto.VersionedUserDto;
 import com.app.project.exception.EntityNotFoundException;
 import com.app.project.exception.IncorrectArgumentException;
+import com.app.project.exception.PreconditionFailedException;
+import com.app.project.exception.UserRegistrationException;
 import com.app.project.mapper.UserMapper;
 import com.app.project.mapper.UserMapperImpl;
+import com.app.project.mapper.UserProjection;
+import com.app.project.metrics.Metrics;
 import com.app.project.model.User;
-import com.app.project.storage.Storage;
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.EmailIndex;
+import com.app.project.storage.NameIndex;
+import com.app.project.storage.UserStorage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 class UserServiceImplTest {
     private static final int USERS_NUMBERS = 9;
     private static final Long WRONG_ID = 20L;
     private final UserMapper<UserRequestDto, User, UserResponseDto> mapper = new UserMapperImpl();
-    private final UserService userService = new UserServiceImpl(mapper);
+    private final BirthDateIndex birthDateIndex = new BirthDateIndex();
+    private final EmailIndex emailIndex = new EmailIndex();
+    private final NameIndex nameIndex = new NameIndex(2);
+    private final UserStorage storage = new ConcurrentUserStorage(List.of(emailIndex, birthDateIndex, nameIndex));
+    private final UserService userService =
+            new UserServiceImpl(mapper, storage, birthDateIndex, emailIndex, nameIndex, new Metrics());
 
     @BeforeEach
      void setUp() {
@@ -38,7 +58,7 @@ class UserServiceImplTest {
             user.setFirstName(firstName);
             user.setLastName(lastName);
             user.setBirthDate(birthDate);
-            Storage.storage.put((long)i, user);
+            storage.put(user);
         }
     }
 
@@ -49,13 +69,17 @@ class UserServiceImplTest {
                 .setEmail("User12@gmail.com")
                 .setFirstName("firstName12")
                 .setLastName("lastName12")
-                .setBirthDate(LocalDate.of(1989, Month.APRIL, 17));
+                .setBirthDate(LocalDate.of(1989, Month.APRIL, 17))
+                .setAddress("Kyiv, Khreshchatyk 1")
+                .setPhoneNumber("+380501234567");
         UserResponseDto expected = new UserResponseDto()
                 .setId(id)
                 .setEmail(requestDto.getEmail())
                 .setFirstName(requestDto.getFirstName())
                 .setLastName(requestDto.getLastName())
-                .setBirthDate(requestDto.getBirthDate());
+                .setBirthDate(requestDto.getBirthDate())
+                .setAddress(requestDto.getAddress())
+                .setPhoneNumber(requestDto.getPhoneNumber());
 
         UserResponseDto actual = userService.create(requestDto);
 
@@ -63,6 +87,8 @@ class UserServiceImplTest {
         assertEquals(expected.getFirstName(), actual.getFirstName());
         assertEquals(expected.getLastName(), actual.getLastName());
         assertEquals(expected.getBirthDate(), actual.getBirthDate());
+        assertEquals(expected.getAddress(), userService.getById(actual.getId()).getAddress());
+        assertEquals(expected.getPhoneNumber(), userService.getById(actual.getId()).getPhoneNumber());
     }
 
     @Test
@@ -85,6 +111,55 @@ class UserServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void create_duplicateEmail_NotOk() {
+        UserRequestDto requestDto = new UserRequestDto()
+                .setEmail("USER3@gmail.com")
+                .setFirstName("firstName12")
+                .setLastName("lastName12")
+                .setBirthDate(LocalDate.of(1989, Month.APRIL, 17));
+        int expectedSize = storage.size();
+
+        Exception actual = assertThrows(UserRegistrationException.class,
+                () -> userService.create(requestDto));
+
+        assertEquals("User with email USER3@gmail.com already exists", actual.getMessage());
+        assertEquals(expectedSize, storage.size());
+    }
+
+    @Test
+    public void update_duplicateEmail_NotOk() {
+        UserRequestDto requestDto = new UserRequestDto()
+                .setEmail("User4@gmail.com")
+                .setFirstName("firstName12")
+                .setLastName("lastName12")
+                .setBirthDate(LocalDate.of(1999, Month.APRIL, 17));
+
+        assertThrows(UserRegistrationException.class, () -> userService.update(3L, requestDto));
+
+        assertEquals("User3@gmail.com", storage.get(3L).orElseThrow().getEmail());
+        assertEquals(LocalDate.of(1930, Month.APRIL, 3), storage.get(3L).orElseThrow().getBirthDate());
+        assertEquals(List.of(3L), ids(userService.findAllByRange(LocalDate.of(1930, Month.JANUARY, 1),
+                LocalDate.of(1931, Month.JANUARY, 1))));
+    }
+
+    @Test
+    public void getByEmail_AfterEmailChangeAndDelete_Ok() {
+        userService.update(3L, new UserRequestDto()
+                .setEmail("changed@gmail.com")
+                .setFirstName("UserFirstName3")
+                .setLastName("UserLastName3")
+                .setBirthDate(LocalDate.of(1930, Month.APRIL, 3)));
+        userService.deleteById(4L);
+
+        assertEquals(3L, userService.getByEmail("Changed@gmail.com", UserProjection.ALL).getId());
+        assertThrows(EntityNotFoundException.class,
+                () -> userService.getByEmail("User3@gmail.com", UserProjection.ALL));
+        Exception actual = assertThrows(EntityNotFoundException.class,
+                () -> userService.getByEmail("User4@gmail.com", UserProjection.ALL));
+        assertEquals("Can't find user by email = User4@gmail.com", actual.getMessage());
+    }
+
     @Test
     public void update_updateAllFields_NotOk() {
         Exception actual = assertThrows(EntityNotFoundException.class,
@@ -102,16 +177,43 @@ class UserServiceImplTest {
                 .setLastName("newLastName");
         UserResponseDto expected = new UserResponseDto()
                 .setId(id)
-                .setEmail(Storage.storage.get(id).getEmail())
+                .setEmail(storage.get(id).orElseThrow().getEmail())
                 .setFirstName(requestDto.getFirstName())
                 .setLastName(requestDto.getLastName())
-                .setBirthDate(Storage.storage.get(id).getBirthDate());
+                .setBirthDate(storage.get(id).orElseThrow().getBirthDate());
 
         UserResponseDto actual = userService.update(id, requestDto);
 
         assertEquals(expected, actual);
-        assertEquals(requestDto.getFirstName(), Storage.storage.get(id).getFirstName());
-        assertEquals(requestDto.getLastName(), Storage.storage.get(id).getLastName());
+        assertEquals(requestDto.getFirstName(), storage.get(id).orElseThrow().getFirstName());
+        assertEquals(requestDto.getLastName(), storage.get(id).orElseThrow().getLastName());
+    }
+
+    @Test
+    public void update_MatchingExpectedVersion_IncrementsVersion_Ok() {
+        Long id = 5L;
+        UpdateUserRequestDto requestDto = new UpdateUserRequestDto()
+                .setFirstName("newFirstName")
+                .setLastName("newLastName");
+
+        VersionedUserDto first = userService.update(id, requestDto, 1L);
+        VersionedUserDto second = userService.update(id, requestDto, null);
+
+        assertEquals(2L, first.getVersion());
+        assertEquals(3L, second.getVersion());
+        assertEquals(3L, userService.getVersion(id));
+    }
+
+    @Test
+    public void update_StaleExpectedVersion_NotOk() {
+        Long id = 5L;
+        userService.update(id, new UpdateUserRequestDto().setFirstName("first").setLastName("last"));
+
+        Exception actual = assertThrows(PreconditionFailedException.class,
+                () -> userService.update(id, new UpdateUserRequestDto().setFirstName("lost"), 1L));
+
+        assertEquals("User with id = 5 has version 2, not 1", actual.getMessage());
+        assertEquals("first", storage.get(id).orElseThrow().getFirstName());
     }
 
     @Test
@@ -135,7 +237,7 @@ class UserServiceImplTest {
     @Test
     public void update_deleteUser_Ok() {
         Long id = 4L;
-        int expectedSize = Storage.storage.size() - 1;
+        int expectedSize = storage.size() - 1;
         UserResponseDto expected = new UserResponseDto()
                 .setId(id)
                 .setEmail("User4@gmail.com")
@@ -146,15 +248,16 @@ class UserServiceImplTest {
         UserResponseDto actual = userService.deleteById(id);
 
         assertEquals(expected, actual);
-        assertEquals(expectedSize, Storage.storage.size());
+        assertEquals(expectedSize, storage.size());
     }
 
     @Test
     public void findAllByRange_FindAllUsersByCertainDateRange_Ok() {
         LocalDate from = LocalDate.of(1950, Month.JANUARY, 1);
         LocalDate to = LocalDate.of(1980, Month.JANUARY, 1);
-        List<UserResponseDto> expected = Storage.storage.values().stream()
+        List<UserResponseDto> expected = storage.values()
                 .filter(u -> u.getBirthDate().isAfter(from) && u.getBirthDate().isBefore(to))
+                .sorted(Comparator.comparing(User::getBirthDate))
                 .map(mapper::toDto)
                 .toList();
 
@@ -164,6 +267,146 @@ class UserServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    public void findAllByRange_AfterUpdateAndDelete_Ok() {
+        LocalDate from = LocalDate.of(1950, Month.JANUARY, 1);
+        LocalDate to = LocalDate.of(1980, Month.JANUARY, 1);
+        userService.update(2L, new UserRequestDto()
+                .setEmail("User2@gmail.com")
+                .setFirstName("UserFirstName2")
+                .setLastName("UserLastName2")
+                .setBirthDate(LocalDate.of(1955, Month.MAY, 5)));
+        userService.update(6L, new UserRequestDto()
+                .setEmail("User6@gmail.com")
+                .setFirstName("UserFirstName6")
+                .setLastName("UserLastName6")
+                .setBirthDate(LocalDate.of(1990, Month.MAY, 5)));
+        userService.deleteById(7L);
+
+        List<Long> actual = userService.findAllByRange(from, to).stream()
+                .map(UserResponseDto::getId)
+                .toList();
+
+        assertEquals(List.of(5L, 2L), actual);
+    }
+
+    @Test
+    public void streamAllByRange_WritesAfterStreamOpened_SeesSnapshot_Ok() {
+        LocalDate from = LocalDate.of(1950, Month.JANUARY, 1);
+        LocalDate to = LocalDate.of(1980, Month.JANUARY, 1);
+
+        List<UserResponseDto> actual;
+        try (Stream<UserResponseDto> users = userService.streamAllByRange(from, to, null, UserProjection.ALL)) {
+            storage.computeIfPresent(2L, u -> u.toBuilder().birthDate(LocalDate.of(1955, Month.MAY, 5)).build());
+            storage.computeIfPresent(7L, u -> u.toBuilder().birthDate(LocalDate.of(1990, Month.MAY, 5)).build());
+            userService.update(5L, new UpdateUserRequestDto().setFirstName("Renamed"));
+            userService.deleteById(6L);
+            actual = users.toList();
+        }
+
+        assertEquals(List.of(5L, 6L, 7L), ids(actual));
+        assertEquals("UserFirstName5", actual.get(0).getFirstName());
+        assertEquals(LocalDate.of(1970, Month.APRIL, 7), actual.get(2).getBirthDate());
+        assertEquals(List.of(5L, 2L), ids(userService.findAllByRange(from, to)));
+    }
+
+    @Test
+    public void streamAllByRange_WritesMoveUsersAcrossScanPosition_SeesSnapshot_Ok() {
+        LocalDate first = LocalDate.of(2000, Month.JANUARY, 1);
+        for (long id = 100; id < 1_100; id++) {
+            storage.put(User.builder().id(id).email("user" + id + "@gmail.com")
+                    .birthDate(first.plusDays(id)).build());
+        }
+        List<Long> expected = LongStream.range(100, 1_100).boxed().toList();
+
+        List<Long> actual = new ArrayList<>();
+        try (Stream<UserResponseDto> users = userService.streamAllByRange(first, first.plusDays(2_000), null,
+                UserProjection.ALL)) {
+            Iterator<UserResponseDto> iterator = users.iterator();
+            while (actual.size() < 300) {
+                actual.add(iterator.next().getId());
+            }
+            storage.computeIfPresent(900L, u -> u.toBuilder().birthDate(first.plusDays(150)).build());
+            storage.computeIfPresent(200L, u -> u.toBuilder().birthDate(first.plusDays(950)).build());
+            storage.computeIfPresent(1_000L, u -> u.toBuilder().birthDate(first.plusDays(5_000)).build());
+            storage.remove(800L);
+            iterator.forEachRemaining(user -> actual.add(user.getId()));
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void findAllByRange_BoundsAreExclusive_Ok() {
+        LocalDate from = LocalDate.of(1950, Month.APRIL, 5);
+        LocalDate to = LocalDate.of(1970, Month.APRIL, 7);
+
+        List<Long> actual = userService.findAllByRange(from, to).stream()
+                .map(UserResponseDto::getId)
+                .toList();
+
+        assertEquals(List.of(6L), actual);
+    }
+
+    @Test
+    public void findAllUsers_PagedWithCursor_Ok() {
+        UserPageDto first = userService.findAllUsers(null, 5, UserProjection.ALL);
+        UserPageDto second = userService.findAllUsers(first.getNextCursor(), 5, UserProjection.ALL);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(first.getUsers()));
+        assertEquals("5", first.getNextCursor());
+        assertEquals(List.of(6L, 7L, 8L, 9L), ids(second.getUsers()));
+        assertEquals(null, second.getNextCursor());
+    }
+
+    @Test
+    public void findAllByRange_PagedWithCursor_Ok() {
+        LocalDate from = LocalDate.of(1900, Month.JANUARY, 1);
+        LocalDate to = LocalDate.of(2000, Month.JANUARY, 1);
+
+        UserPageDto first = userService.findAllByRange(from, to, null, 4, UserProjection.ALL);
+        UserPageDto second = userService.findAllByRange(from, to, first.getNextCursor(), 4, UserProjection.ALL);
+        UserPageDto third = userService.findAllByRange(from, to, second.getNextCursor(), 4, UserProjection.ALL);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(first.getUsers()));
+        assertEquals(List.of(5L, 6L, 7L, 8L), ids(second.getUsers()));
+        assertEquals(List.of(9L), ids(third.getUsers()));
+        assertEquals(null, third.getNextCursor());
+    }
+
+    @Test
+    public void search_PrefixAndTypo_Ok() {
+        assertEquals(List.of(3L, 1L, 2L, 4L), ids(userService.search("userlastname3", 4, UserProjection.ALL)));
+        assertEquals(List.of(3L, 1L, 2L), ids(userService.search("usrlastname3", 3, UserProjection.ALL)));
+    }
+
+    @Test
+    public void search_EveryTokenMustMatch_Ok() {
+        storage.put(User.builder().id(10L).email("anna.k@gmail.com").firstName("Anna").lastName("Karenina")
+                .birthDate(LocalDate.of(1990, Month.MAY, 1)).build());
+        storage.put(User.builder().id(11L).email("anna.ko@gmail.com").firstName("Anna").lastName("Kovalenko")
+                .birthDate(LocalDate.of(1991, Month.MAY, 1)).build());
+
+        assertEquals(List.of(10L, 11L), ids(userService.search("anna", 5, UserProjection.ALL)));
+        assertEquals(List.of(10L), ids(userService.search("Ana Karenian", 5, UserProjection.ALL)));
+    }
+
+    @Test
+    public void search_NoLetterOrDigit_NotOk() {
+        Exception actual = assertThrows(IncorrectArgumentException.class,
+                () -> userService.search(" - ", 5, UserProjection.ALL));
+
+        assertEquals("Argument 'q' must contain a letter or digit", actual.getMessage());
+    }
+
+    @Test
+    public void findAllUsers_InvalidCursor_NotOk() {
+        Exception actual = assertThrows(IncorrectArgumentException.class,
+                () -> userService.findAllUsers("abc", 5, UserProjection.ALL));
+
+        assertEquals("Invalid cursor: abc", actual.getMessage());
+    }
+
     @Test
     public void findAllByRange_FindAllUsersByCertainDateRange_NotOk() {
         LocalDate from = LocalDate.of(2000, Month.JANUARY, 1);
@@ -175,4 +418,10 @@ class UserServiceImplTest {
         assertEquals("IncorrectArgumentException", actual.getClass().getSimpleName());
         assertEquals("Argument 'from' must be greater than 'to'", actual.getMessage());
     }
+
+    private List<Long> ids(List<UserResponseDto> users) {
+        return users.stream()
+                .map(UserResponseDto::getId)
+                .toList();
+    }
 }
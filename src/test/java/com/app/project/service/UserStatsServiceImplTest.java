@@ -0,0 +1,104 @@
+package com.app.project.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.app.project.dto.BirthDateGrouping;
+import com.app.project.dto.BirthDateStatsDto;
+import com.app.project.dto.CountBucketDto;
+import com.app.project.exception.IncorrectArgumentException;
+import com.app.project.model.User;
+import com.app.project.storage.BirthDateCounts;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.UserStorage;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UserStatsServiceImplTest {
+    private static final LocalDate AS_OF = LocalDate.of(2024, Month.JUNE, 15);
+    private final BirthDateCounts counts = new BirthDateCounts();
+    private final UserStorage storage = new ConcurrentUserStorage(List.of(counts));
+    private final UserStatsService userStatsService = new UserStatsServiceImpl(counts, 18);
+
+    @BeforeEach
+    void setUp() {
+        storage.put(user(1L, LocalDate.of(2010, Month.JANUARY, 1)));
+        storage.put(user(2L, LocalDate.of(2006, Month.JUNE, 15)));
+        storage.put(user(3L, LocalDate.of(2006, Month.JUNE, 16)));
+        storage.put(user(4L, LocalDate.of(1996, Month.JUNE, 16)));
+        storage.put(user(5L, LocalDate.of(1996, Month.JUNE, 15)));
+    }
+
+    @Test
+    public void countByBirthDate_AgeBands_Ok() {
+        BirthDateStatsDto actual = userStatsService.countByBirthDate(BirthDateGrouping.AGE_BAND, 10, AS_OF);
+
+        assertEquals(List.of("<18", "18-27", "28-37"), labels(actual));
+        assertEquals(List.of(2L, 2L, 1L), countsOf(actual));
+        assertEquals(LocalDate.of(2006, Month.JUNE, 16), actual.getBuckets().get(1).getTo());
+        assertEquals(5, actual.getTotal());
+        assertEquals(18, actual.getAcceptableAge());
+    }
+
+    @Test
+    public void countByBirthDate_AfterUpdateAndDelete_Ok() {
+        storage.computeIfPresent(1L, u -> u.toBuilder().birthDate(LocalDate.of(1950, Month.JANUARY, 1)).build());
+        storage.remove(5L);
+
+        BirthDateStatsDto actual = userStatsService.countByBirthDate(BirthDateGrouping.AGE_BAND, 50, AS_OF);
+
+        assertEquals(List.of("<18", "18-67", "68-117"), labels(actual));
+        assertEquals(List.of(1L, 2L, 1L), countsOf(actual));
+    }
+
+    @Test
+    public void countByBirthDate_Years_Ok() {
+        BirthDateStatsDto actual = userStatsService.countByBirthDate(BirthDateGrouping.YEAR, 10, AS_OF);
+
+        assertEquals(15, actual.getBuckets().size());
+        assertEquals(new CountBucketDto().setLabel("1996").setCount(2)
+                .setFrom(LocalDate.of(1996, Month.JANUARY, 1)).setTo(LocalDate.of(1997, Month.JANUARY, 1)),
+                actual.getBuckets().get(0));
+        assertEquals(0, actual.getBuckets().get(1).getCount());
+        assertEquals(5, actual.getTotal());
+        assertNull(actual.getAsOf());
+    }
+
+    @Test
+    public void countByBirthDate_Months_Ok() {
+        BirthDateStatsDto actual = userStatsService.countByBirthDate(BirthDateGrouping.MONTH, 10, AS_OF);
+
+        assertEquals(12, actual.getBuckets().size());
+        assertEquals(1, actual.getBuckets().get(0).getCount());
+        assertEquals("JUNE", actual.getBuckets().get(5).getLabel());
+        assertEquals(4, actual.getBuckets().get(5).getCount());
+    }
+
+    @Test
+    public void countByBirthDate_ZeroBandWidth_NotOk() {
+        Exception actual = assertThrows(IncorrectArgumentException.class,
+                () -> userStatsService.countByBirthDate(BirthDateGrouping.AGE_BAND, 0, AS_OF));
+
+        assertEquals("Argument 'bandWidth' must be between 1 and 100", actual.getMessage());
+    }
+
+    private List<String> labels(BirthDateStatsDto stats) {
+        return stats.getBuckets().stream()
+                .map(CountBucketDto::getLabel)
+                .toList();
+    }
+
+    private List<Long> countsOf(BirthDateStatsDto stats) {
+        return stats.getBuckets().stream()
+                .map(CountBucketDto::getCount)
+                .toList();
+    }
+
+    private User user(long id, LocalDate birthDate) {
+        return User.builder().id(id).email(id + "@gmail.com").birthDate(birthDate).build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.app.project.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.app.project.model.User;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class BirthDateCountsTest {
+    private final BirthDateCounts counts = new BirthDateCounts();
+    private final UserStorage storage = new ConcurrentUserStorage(List.of(counts));
+
+    @Test
+    public void countBetween_AfterPutUpdateAndDelete_Ok() {
+        storage.put(user(1L, LocalDate.of(1990, Month.MARCH, 1)));
+        storage.put(user(2L, LocalDate.of(1990, Month.MARCH, 2)));
+        storage.put(user(3L, LocalDate.of(2001, Month.JULY, 9)));
+        storage.computeIfPresent(2L, u -> u.toBuilder().birthDate(LocalDate.of(1985, Month.JULY, 1)).build());
+        storage.remove(3L);
+
+        assertEquals(2, counts.total());
+        assertEquals(1, counts.countBetween(LocalDate.of(1990, Month.MARCH, 1), LocalDate.of(1990, Month.MARCH, 2)));
+        assertEquals(0, counts.countBetween(LocalDate.of(1990, Month.MARCH, 2), LocalDate.of(2100, Month.JANUARY, 1)));
+        assertEquals(2, counts.countBetween(LocalDate.of(1985, Month.JULY, 1), LocalDate.of(1990, Month.MARCH, 2)));
+        assertEquals(0, counts.countBetween(LocalDate.of(1990, Month.MARCH, 2), LocalDate.of(1990, Month.MARCH, 1)));
+        assertEquals(1, counts.count(Month.MARCH));
+        assertEquals(1, counts.count(Month.JULY));
+        assertEquals(LocalDate.of(1985, Month.JULY, 1), counts.first());
+        assertEquals(LocalDate.of(1990, Month.MARCH, 1), counts.last());
+    }
+
+    @Test
+    public void countBetween_DatesOutsideRange_CountedOnEdges() {
+        storage.put(user(1L, LocalDate.of(1700, Month.MAY, 5)));
+        storage.put(user(2L, LocalDate.of(2300, Month.MAY, 5)));
+
+        assertEquals(BirthDateCounts.FIRST_DAY, counts.first());
+        assertEquals(BirthDateCounts.END_DAY.minusDays(1), counts.last());
+        assertEquals(2, counts.countBetween(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(2, counts.count(Month.MAY));
+    }
+
+    @Test
+    public void rebuild_ReplacesCounts_Ok() {
+        storage.put(user(1L, LocalDate.of(1990, Month.MARCH, 1)));
+
+        counts.rebuild(Stream.of(user(2L, LocalDate.of(1970, Month.JUNE, 1))));
+
+        assertEquals(1, counts.total());
+        assertEquals(0, counts.count(Month.MARCH));
+        assertEquals(LocalDate.of(1970, Month.JUNE, 1), counts.first());
+    }
+
+    @Test
+    public void first_Empty_Null() {
+        assertNull(counts.first());
+        assertNull(counts.last());
+    }
+
+    private User user(long id, LocalDate birthDate) {
+        return User.builder().id(id).email(id + "@gmail.com").birthDate(birthDate).build();
+    }
+}
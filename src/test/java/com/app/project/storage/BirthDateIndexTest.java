@@ -0,0 +1,76 @@
+package com.app.project.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.app.project.model.User;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class BirthDateIndexTest {
+    private static final LocalDate BASE_DATE = LocalDate.of(1980, Month.JANUARY, 1);
+    private final BirthDateIndex index = new BirthDateIndex();
+    private final UserStorage storage = new ConcurrentUserStorage(List.of(index));
+
+    @Test
+    public void findIdsBetween_OrderedByDateThenId_Ok() {
+        storage.put(user(1L, BASE_DATE.plusDays(2)));
+        storage.put(user(2L, BASE_DATE.plusDays(1)));
+        storage.put(user(3L, BASE_DATE.plusDays(2)));
+        storage.put(user(4L, null));
+
+        List<Long> actual = index.findIdsBetween(BASE_DATE, BASE_DATE.plusDays(3)).toList();
+
+        assertEquals(List.of(2L, 1L, 3L), actual);
+    }
+
+    @Test
+    public void onChange_ConcurrentWritersMoveUsers_IndexMatchesStorage() throws Exception {
+        int users = 2_000;
+        int threads = 8;
+        for (long id = 1; id <= users; id++) {
+            storage.put(user(id, BASE_DATE));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        long id = 1 + (i * 31L + seed * 7L) % users;
+                        int days = (i + seed) % 50;
+                        storage.computeIfPresent(id, u -> u.toBuilder()
+                                .birthDate(BASE_DATE.plusDays(days))
+                                .build());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> indexed = index.findIdsBetween(BASE_DATE.minusDays(1), BASE_DATE.plusDays(50))
+                .toList();
+        assertEquals(users, indexed.size());
+        for (Long id : indexed) {
+            LocalDate birthDate = storage.get(id).orElseThrow().getBirthDate();
+            assertEquals(List.of(id), index.findIdsBetween(birthDate.minusDays(1), birthDate.plusDays(1))
+                    .filter(id::equals)
+                    .toList());
+        }
+    }
+
+    private User user(long id, LocalDate birthDate) {
+        return User.builder().id(id).birthDate(birthDate).build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.app.project.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.app.project.model.User;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+class ColumnarUserStorageTest {
+    private final BirthDateIndex birthDateIndex = new BirthDateIndex();
+    private final ColumnarUserStorage storage = new ColumnarUserStorage(List.of(birthDateIndex));
+
+    @Test
+    public void put_thenGet_RoundTripsAllFields() {
+        User user = User.builder()
+                .id(storage.nextId())
+                .email("User1@gmail.com")
+                .firstName("Тарас")
+                .lastName("Шевченко")
+                .birthDate(LocalDate.of(1814, Month.MARCH, 9))
+                .address("Kyiv, Khreshchatyk 1")
+                .phoneNumber(null)
+                .build();
+
+        storage.put(user);
+
+        assertEquals(user.toBuilder().version(1L).build(), storage.get(1L).orElseThrow());
+        assertEquals(List.of(1L), birthDateIndex.findIdsBetween(LocalDate.of(1814, Month.MARCH, 8),
+                LocalDate.of(1814, Month.MARCH, 10)).toList());
+    }
+
+    @Test
+    public void computeIfPresent_VersionBeyondIntRange_KeptThroughCompaction() {
+        long version = Integer.MAX_VALUE + 10L;
+        storage.load(user(1L, "v0").toBuilder().version(version).build());
+        for (long id = 2; id <= 3_000; id++) {
+            storage.put(user(id, "v0"));
+        }
+
+        storage.computeIfPresent(1L, u -> u.toBuilder().firstName("v1").build());
+        for (long id = 2; id <= 3_000; id++) {
+            storage.remove(id);
+        }
+
+        assertEquals(version + 1, storage.get(1L).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void snapshot_WritesAndCompactionAfterSnapshot_NotVisible() {
+        for (long id = 1; id <= 5_000; id++) {
+            storage.put(user(id, "v0"));
+        }
+
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            for (long id = 1; id <= 5_000; id += 2) {
+                storage.remove(id);
+            }
+            for (long id = 2; id <= 5_000; id += 2) {
+                storage.computeIfPresent(id, u -> u.toBuilder().firstName("v1").build());
+            }
+            storage.put(user(5_001L, "v1"));
+
+            assertEquals(LongStream.rangeClosed(1, 5_000).boxed().toList(),
+                    snapshot.valuesAfter(0L).map(User::getId).toList());
+            assertTrue(snapshot.valuesAfter(0L).allMatch(u -> u.getFirstName().equals("v0")));
+            assertEquals("v0", snapshot.get(1L).orElseThrow().getFirstName());
+            assertTrue(snapshot.get(5_001L).isEmpty());
+        }
+
+        assertEquals(2_501, storage.values().count());
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            assertTrue(snapshot.changedIds().isEmpty());
+        }
+    }
+
+    @Test
+    public void computeIfPresentAndRemove_ManyTimes_CompactsAndKeepsLatestState() {
+        for (long id = 1; id <= 5_000; id++) {
+            storage.put(user(id, "v0"));
+        }
+        for (int round = 1; round <= 20; round++) {
+            String version = "v" + round;
+            for (long id = 1; id <= 5_000; id++) {
+                storage.computeIfPresent(id, u -> u.toBuilder().firstName(version).build());
+            }
+        }
+        for (long id = 1; id <= 5_000; id += 2) {
+            storage.remove(id);
+        }
+
+        assertEquals(2_500, storage.size());
+        assertFalse(storage.contains(1L));
+        assertEquals("v20", storage.get(2L).orElseThrow().getFirstName());
+        assertEquals(21L, storage.get(2L).orElseThrow().getVersion());
+        assertEquals(LongStream.rangeClosed(1, 2_500).map(i -> i * 2).boxed().toList(),
+                storage.values().map(User::getId).toList());
+        assertTrue(storage.sizeInBytes() < 4L * 1024 * 1024);
+    }
+
+    @Test
+    public void valuesAfter_OutOfOrderPuts_ReturnedInIdOrder() {
+        for (long id : new long[] {5, 3, 9, 1, 7}) {
+            storage.put(user(id, "first"));
+        }
+        storage.remove(9L);
+        storage.put(user(9L, "again"));
+
+        assertEquals(List.of(1L, 3L, 5L, 7L, 9L), storage.values().map(User::getId).toList());
+        assertEquals(List.of(7L, 9L), storage.valuesAfter(5L).map(User::getId).toList());
+        assertEquals("again", storage.get(9L).orElseThrow().getFirstName());
+    }
+
+    @Test
+    public void values_MoreThanOneBatch_StreamsEveryUser() {
+        for (long id = 1; id <= 1_000; id++) {
+            storage.put(user(id, "first"));
+        }
+
+        assertEquals(1_000, storage.values().count());
+        assertEquals(500, storage.valuesAfter(500L).count());
+    }
+
+    @Test
+    public void putAndComputeIfPresent_ValueTooLongForArena_RejectedBeforeListeners() {
+        List<User> changes = new ArrayList<>();
+        ColumnarUserStorage recorded = new ColumnarUserStorage(List.of((previous, current) -> changes.add(current)));
+        recorded.put(user(1L, "first"));
+        String tooLong = "a".repeat(1024 * 1024);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> recorded.put(user(2L, "first").toBuilder().address(tooLong).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> recorded.computeIfPresent(1L, u -> u.toBuilder().firstName(tooLong).build()));
+
+        assertEquals(1, changes.size());
+        assertEquals(List.of(1L), recorded.values().map(User::getId).toList());
+        assertEquals("first", recorded.get(1L).orElseThrow().getFirstName());
+        assertEquals(1L, recorded.get(1L).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void computeIfPresent_ConcurrentUpdates_NoLostUpdates() throws Exception {
+        storage.put(user(1L, "0"));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        storage.computeIfPresent(1L, u -> u.toBuilder()
+                                .firstName(String.valueOf(Integer.parseInt(u.getFirstName()) + 1))
+                                .build());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals("16000", storage.get(1L).orElseThrow().getFirstName());
+    }
+
+    private User user(long id, String firstName) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@gmail.com")
+                .firstName(firstName)
+                .lastName("lastName" + id)
+                .birthDate(LocalDate.of(1980, Month.JANUARY, 1).plusDays(id))
+                .address("Kyiv, street " + id % 10)
+                .phoneNumber("+38050" + id)
+                .build();
+    }
+}
@@ -0,0 +1,184 @@
+package com.app.project.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.app.project.model.User;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class ConcurrentUserStorageTest {
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 5_000;
+
+    private final UserStorage storage = new ConcurrentUserStorage();
+
+    @Test
+    public void nextId_concurrentCreates_NoDuplicatesOrLostWrites() throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                long id = storage.nextId();
+                assertTrue(ids.add(id), "Duplicate id " + id);
+                storage.put(User.builder().id(id).email("user" + id + "@gmail.com").build());
+            }
+        });
+
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, ids.size());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, storage.size());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD + 1, storage.nextId());
+    }
+
+    @Test
+    public void computeIfPresent_concurrentUpdatesOfSameUser_NoLostUpdates() throws Exception {
+        long id = storage.nextId();
+        storage.put(User.builder().id(id).firstName("0").build());
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                storage.computeIfPresent(id, current -> current.toBuilder()
+                        .firstName(String.valueOf(Integer.parseInt(current.getFirstName()) + 1))
+                        .build());
+            }
+        });
+
+        assertEquals(String.valueOf(THREADS * OPERATIONS_PER_THREAD),
+                storage.get(id).orElseThrow().getFirstName());
+    }
+
+    @Test
+    public void remove_concurrentRemovesOfSameUser_RemovedOnce() throws Exception {
+        int users = 1_000;
+        for (int i = 0; i < users; i++) {
+            storage.put(User.builder().id(storage.nextId()).build());
+        }
+        Set<Long> removed = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(() -> {
+            for (long id = 1; id <= users; id++) {
+                storage.remove(id).ifPresent(u -> assertTrue(removed.add(u.getId())));
+            }
+        });
+
+        assertEquals(users, removed.size());
+        assertEquals(0, storage.size());
+    }
+
+    @Test
+    public void snapshot_WritesAfterSnapshot_NotVisibleAndReclaimedOnClose() {
+        for (long id = 1; id <= 3; id++) {
+            storage.put(User.builder().id(id).firstName("v1").build());
+        }
+
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            storage.computeIfPresent(1L, u -> u.toBuilder().firstName("v2").build());
+            storage.remove(2L);
+            storage.put(User.builder().id(4L).firstName("v1").build());
+
+            assertEquals(List.of("v1", "v1", "v1"), snapshot.valuesAfter(0L).map(User::getFirstName).toList());
+            assertEquals(List.of(1L, 2L, 3L), snapshot.valuesAfter(0L).map(User::getId).toList());
+            assertTrue(snapshot.get(2L).isPresent());
+            assertTrue(snapshot.get(4L).isEmpty());
+            assertEquals(Set.of(1L, 2L, 4L), Set.copyOf(snapshot.changedIds()));
+        }
+
+        assertEquals(List.of(1L, 3L, 4L), storage.values().map(User::getId).toList());
+        assertEquals("v2", storage.get(1L).orElseThrow().getFirstName());
+        assertEquals(3, storage.size());
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            assertTrue(snapshot.changedIds().isEmpty());
+        }
+    }
+
+    @Test
+    public void drainChangedIds_WritesBetweenDrains_ReturnsOnlyNewIds() {
+        for (long id = 1; id <= 3; id++) {
+            storage.put(User.builder().id(id).firstName("v1").build());
+        }
+
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            storage.computeIfPresent(1L, u -> u.toBuilder().firstName("v2").build());
+            storage.remove(2L);
+            assertEquals(Set.of(1L, 2L), Set.copyOf(snapshot.drainChangedIds()));
+            assertTrue(snapshot.drainChangedIds().isEmpty());
+
+            storage.put(User.builder().id(4L).firstName("v1").build());
+            assertEquals(List.of(4L), List.copyOf(snapshot.drainChangedIds()));
+        }
+    }
+
+    @Test
+    public void snapshot_ConcurrentWriters_ScansArePointInTime() throws Exception {
+        int users = 200;
+        for (long id = 1; id <= users; id++) {
+            storage.put(User.builder().id(id).firstName("0").build());
+        }
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> writes = writer.submit(() -> {
+                for (int round = 1; round <= 200; round++) {
+                    String generation = String.valueOf(round);
+                    for (long id = 1; id <= users; id++) {
+                        storage.computeIfPresent(id, u -> u.toBuilder().firstName(generation).build());
+                    }
+                }
+            });
+            while (!writes.isDone()) {
+                try (UserSnapshot snapshot = storage.snapshot()) {
+                    List<Integer> generations = snapshot.valuesAfter(0L)
+                            .map(u -> Integer.parseInt(u.getFirstName()))
+                            .toList();
+                    int newest = generations.get(0);
+                    int oldest = generations.get(users - 1);
+                    assertTrue(newest - oldest <= 1, "Torn scan " + generations);
+                    for (int i = 1; i < users; i++) {
+                        assertTrue(generations.get(i) <= generations.get(i - 1), "Torn scan " + generations);
+                    }
+                }
+            }
+            writes.get(1, TimeUnit.MINUTES);
+        } finally {
+            writer.shutdownNow();
+        }
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            assertTrue(snapshot.changedIds().isEmpty());
+        }
+    }
+
+    @Test
+    public void put_explicitId_SequenceSkipsPastIt() {
+        storage.put(User.builder().id(42L).build());
+
+        assertEquals(43L, storage.nextId());
+    }
+
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
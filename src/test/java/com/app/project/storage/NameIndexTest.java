@@ -0,0 +1,116 @@
+package com.app.project.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.app.project.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class NameIndexTest {
+    private final NameIndex index = new NameIndex(2);
+    private final UserStorage storage = new ConcurrentUserStorage(List.of(index));
+
+    @BeforeEach
+    void setUp() {
+        storage.put(user(1L, "John", "Smith"));
+        storage.put(user(2L, "Johanna", "Smithson"));
+        storage.put(user(3L, "Jon", "Smyth"));
+        storage.put(user(4L, "Mary-Ann", "Johnson"));
+        storage.put(user(5L, "Тарас", "Шевченко"));
+    }
+
+    @Test
+    public void findIds_Prefix_CaseInsensitiveInTermOrder() {
+        assertEquals(List.of(2L, 1L, 4L, 3L), index.findIds("JOH").toList());
+        assertEquals(List.of(1L, 2L, 3L), index.findIds("smith").toList());
+        assertEquals(List.of(4L), index.findIds("ann").toList());
+        assertEquals(List.of(5L), index.findIds("шевч").toList());
+    }
+
+    @Test
+    public void findIds_Typos_ClosestAfterPrefixMatches() {
+        assertEquals(List.of(1L), index.findIds("smiht").toList());
+        assertEquals(List.of(2L), index.findIds("smithsno").toList());
+        assertEquals(List.of(1L, 3L), index.findIds("jhon").toList());
+        assertEquals(List.of(4L), index.findIds("jonhson").toList());
+        assertTrue(index.findIds("sx").toList().isEmpty());
+    }
+
+    @Test
+    public void onChange_UpdateAndDelete_TermsFollowUser() {
+        storage.computeIfPresent(1L, u -> u.toBuilder().lastName("Brown").build());
+        storage.remove(3L);
+
+        assertEquals(List.of(2L), index.findIds("smith").toList());
+        assertEquals(List.of(1L), index.findIds("brown").toList());
+        assertTrue(index.findIds("smyth").filter(id -> id == 3L).toList().isEmpty());
+    }
+
+    @Test
+    public void onChange_LastIdLeavesTerm_TermUnlinked() {
+        int terms = index.termCount();
+
+        storage.remove(3L);
+        storage.computeIfPresent(5L, u -> u.toBuilder().firstName("John").build());
+
+        assertEquals(terms - 3, index.termCount());
+        assertTrue(index.findIds("jon").filter(id -> id == 3L).toList().isEmpty());
+    }
+
+    @Test
+    public void onChange_ConcurrentWritersOfSharedTerm_NoLostIds() throws Exception {
+        int threads = 8;
+        int rounds = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long id = 100L + t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < rounds; i++) {
+                        storage.put(user(id, "Shared", "Term"));
+                        storage.remove(id);
+                    }
+                    storage.put(user(id, "Shared", "Term"));
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads, index.findIds("shared").count());
+        assertEquals(threads, index.findIds("term").count());
+    }
+
+    @Test
+    public void matches_PrefixOrTypo_Ok() {
+        User user = user(6L, "Alexander", "O'Neil");
+
+        assertTrue(index.matches(user, "alex"));
+        assertTrue(index.matches(user, "Alexnader"));
+        assertTrue(index.matches(user, "neil"));
+        assertFalse(index.matches(user, "alx"));
+        assertFalse(index.matches(user, "nails"));
+    }
+
+    @Test
+    public void tokenize_SplitsOnNonLetters_Ok() {
+        assertEquals(List.of("mary", "ann", "o", "neil"), NameIndex.tokenize("Mary-Ann O'Neil"));
+        assertTrue(NameIndex.tokenize(" -- ").isEmpty());
+    }
+
+    private User user(long id, String firstName, String lastName) {
+        return User.builder().id(id).firstName(firstName).lastName(lastName).build();
+    }
+}
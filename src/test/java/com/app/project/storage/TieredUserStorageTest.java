@@ -0,0 +1,192 @@
+package com.app.project.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.app.project.model.User;
+import com.app.project.storage.persistence.UserRecordCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+class TieredUserStorageTest {
+    private static final int MAX_HOT_USERS = 100;
+    private static final int SEGMENT_BYTES = 64 * 1024;
+
+    @TempDir
+    private Path directory;
+    private TieredUserStorage storage;
+
+    @AfterEach
+    void tearDown() {
+        if (storage != null) {
+            storage.close();
+        }
+    }
+
+    @Test
+    public void put_MoreThanHotTier_PagesOutAndReadsBackAllFields() {
+        storage = new TieredUserStorage(directory, MAX_HOT_USERS, SEGMENT_BYTES);
+        for (long id = 1; id <= 1_000; id++) {
+            storage.put(user(id, "v0"));
+        }
+
+        assertTrue(storage.hotSize() <= MAX_HOT_USERS);
+        assertEquals(1_000, storage.size());
+        assertTrue(storage.coldSizeInBytes() > 0);
+        assertEquals(user(1L, "v0").toBuilder().version(1L).build(), storage.get(1L).orElseThrow());
+        assertEquals(LongStream.rangeClosed(1, 1_000).boxed().toList(),
+                storage.values().map(User::getId).toList());
+        assertTrue(storage.values().allMatch(u -> u.getPhoneNumber().equals("+38050" + u.getId())));
+    }
+
+    @Test
+    public void get_RecentlyRead_StaysHot() {
+        storage = new TieredUserStorage(directory, MAX_HOT_USERS, SEGMENT_BYTES);
+        storage.put(user(1L, "v0"));
+        for (long id = 2; id <= 1_000; id++) {
+            storage.get(1L);
+            storage.put(user(id, "v0"));
+        }
+
+        assertTrue(storage.hotSize() <= MAX_HOT_USERS);
+        long coldBytes = storage.coldSizeInBytes();
+        for (int i = 0; i < 100; i++) {
+            assertEquals("v0", storage.get(1L).orElseThrow().getFirstName());
+        }
+        assertEquals(coldBytes, storage.coldSizeInBytes());
+    }
+
+    @Test
+    public void computeIfPresentAndRemove_ColdUsers_SameAsHot() {
+        storage = new TieredUserStorage(directory, MAX_HOT_USERS, SEGMENT_BYTES);
+        for (long id = 1; id <= 1_000; id++) {
+            storage.put(user(id, "v0"));
+        }
+
+        assertEquals("v1", storage.computeIfPresent(1L, u -> u.toBuilder().firstName("v1").build())
+                .orElseThrow().getFirstName());
+        assertEquals(2L, storage.get(1L).orElseThrow().getVersion());
+        assertEquals("v0", storage.remove(2L).orElseThrow().getFirstName());
+        assertFalse(storage.contains(2L));
+        assertTrue(storage.get(2L).isEmpty());
+        assertTrue(storage.computeIfPresent(2L, u -> u).isEmpty());
+        assertEquals(999, storage.size());
+    }
+
+    @Test
+    public void computeIfPresent_RewritingColdUsers_CompactsSegments() throws Exception {
+        storage = new TieredUserStorage(directory, MAX_HOT_USERS, SEGMENT_BYTES);
+        for (long id = 1; id <= 2_000; id++) {
+            storage.put(user(id, "v0"));
+        }
+        for (int round = 1; round <= 20; round++) {
+            String name = "v" + round;
+            for (long id = 1; id <= 2_000; id++) {
+                storage.computeIfPresent(id, u -> u.toBuilder().firstName(name).build());
+            }
+        }
+
+        assertTrue(storage.values().allMatch(u -> u.getFirstName().equals("v20")));
+        long live = 2_000L * (Integer.BYTES + UserRecordCodec.encode(user(2_000L, "v20")).length);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() * SEGMENT_BYTES <= 2 * live + 2L * SEGMENT_BYTES);
+        }
+    }
+
+    @Test
+    public void snapshot_WritesAndPageOutsAfterSnapshot_NotVisible() {
+        storage = new TieredUserStorage(directory, MAX_HOT_USERS, SEGMENT_BYTES);
+        for (long id = 1; id <= 1_000; id++) {
+            storage.put(user(id, "v0"));
+        }
+
+        try (UserSnapshot snapshot = storage.snapshot()) {
+            for (long id = 1; id <= 1_000; id += 2) {
+                storage.remove(id);
+            }
+            for (long id = 2; id <= 1_000; id += 2) {
+                storage.computeIfPresent(id, u -> u.toBuilder().firstName("v1").build());
+            }
+            for (long id = 1_001; id <= 2_000; id++) {
+                storage.put(user(id, "v1"));
+            }
+
+            assertEquals(LongStream.rangeClosed(1, 1_000).boxed().toList(),
+                    snapshot.valuesAfter(0L).map(User::getId).toList());
+            assertTrue(snapshot.valuesAfter(0L).allMatch(u -> u.getFirstName().equals("v0")));
+            assertEquals("v0", snapshot.get(1L).orElseThrow().getFirstName());
+        }
+        assertEquals(1_500, storage.values().count());
+        assertTrue(storage.values().allMatch(u -> u.getFirstName().equals("v1")));
+    }
+
+    @Test
+    public void computeIfPresent_ConcurrentUpdatesWhilePagingOut_NoLostUpdates() throws Exception {
+        storage = new TieredUserStorage(directory, 10, SEGMENT_BYTES);
+        for (long id = 1; id <= 100; id++) {
+            storage.put(user(id, "0"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        long id = 1 + i % 100;
+                        storage.computeIfPresent(id, u -> u.toBuilder()
+                                .firstName(String.valueOf(Integer.parseInt(u.getFirstName()) + 1))
+                                .build());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(storage.values().allMatch(u -> u.getFirstName().equals("160")));
+    }
+
+    @Test
+    public void put_UserLargerThanSegment_WritesSucceedAndUserStaysHot() {
+        storage = new TieredUserStorage(directory, MAX_HOT_USERS, SEGMENT_BYTES);
+        User large = user(1L, "v0").toBuilder().address("a".repeat(SEGMENT_BYTES)).build();
+        storage.put(large);
+        for (long id = 2; id <= 1_000; id++) {
+            storage.put(user(id, "v0"));
+        }
+
+        assertEquals(1_000, storage.size());
+        assertTrue(storage.hotSize() <= MAX_HOT_USERS + 1);
+        assertEquals(large.getAddress(), storage.get(1L).orElseThrow().getAddress());
+        assertEquals(user(500L, "v0").toBuilder().version(1L).build(), storage.get(500L).orElseThrow());
+    }
+
+    private User user(long id, String firstName) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@gmail.com")
+                .firstName(firstName)
+                .lastName("lastName" + id)
+                .birthDate(LocalDate.of(1980, Month.JANUARY, 1).plusDays(id))
+                .address("Kyiv, street " + id % 10)
+                .phoneNumber("+38050" + id)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.app.project.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.app.project.model.User;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+class UserFieldDictionaryTest {
+    private final UserFieldDictionary dictionary = new UserFieldDictionary(1_000);
+    private final UserStorage storage = new ConcurrentUserStorage(List.of(), dictionary);
+
+    @Test
+    public void put_EqualValues_ShareOneInstance_Ok() {
+        storage.put(user(1L, new String("Shevchenko"), new String("Kyiv, Khreshchatyk 1")));
+        storage.put(user(2L, new String("Shevchenko"), new String("Kyiv, Khreshchatyk 1")));
+
+        User first = storage.get(1L).orElseThrow();
+        User second = storage.get(2L).orElseThrow();
+        assertSame(first.getLastName(), second.getLastName());
+        assertSame(first.getAddress(), second.getAddress());
+        assertSame(first.getBirthDate(), second.getBirthDate());
+        assertEquals(3, dictionary.size());
+    }
+
+    @Test
+    public void removeAndUpdate_LastReference_DropsEntry_Ok() {
+        storage.put(user(1L, "Shevchenko", "Kyiv"));
+        storage.put(user(2L, "Shevchenko", "Lviv"));
+
+        storage.remove(1L);
+        assertEquals(3, dictionary.size());
+        storage.computeIfPresent(2L, u -> u.toBuilder().lastName("Franko").build());
+        assertEquals(3, dictionary.size());
+        storage.remove(2L);
+        assertEquals(0, dictionary.size());
+    }
+
+    @Test
+    public void put_DictionaryFull_KeepsOwnInstance_Ok() {
+        UserFieldDictionary small = new UserFieldDictionary(1);
+        UserStorage smallStorage = new ConcurrentUserStorage(List.of(), small);
+        smallStorage.put(user(1L, "Shevchenko", "Kyiv"));
+        smallStorage.put(user(2L, new String("Franko"), "Kyiv"));
+        smallStorage.put(user(3L, new String("Franko"), "Kyiv"));
+
+        assertEquals("Franko", smallStorage.get(3L).orElseThrow().getLastName());
+        assertNotSame(smallStorage.get(2L).orElseThrow().getLastName(),
+                smallStorage.get(3L).orElseThrow().getLastName());
+        assertSame(smallStorage.get(1L).orElseThrow().getAddress(),
+                smallStorage.get(3L).orElseThrow().getAddress());
+    }
+
+    @Test
+    public void putAndUpdate_CallerAndPreviousUsers_NeverChanged_Ok() {
+        String lastName = new String("Shevchenko");
+        storage.put(user(1L, "Shevchenko", "Kyiv"));
+        User request = user(2L, lastName, "Kyiv");
+        storage.put(request);
+        User before = storage.get(2L).orElseThrow();
+
+        storage.computeIfPresent(2L, u -> u.toBuilder().lastName(new String("Franko")).build());
+
+        assertSame(lastName, request.getLastName());
+        assertEquals("Shevchenko", before.getLastName());
+        assertSame(storage.get(1L).orElseThrow().getLastName(), before.getLastName());
+    }
+
+    @Test
+    public void put_ListenerRejectsChange_ReleasesNewValuesAndKeepsPrevious_Ok() {
+        UserStorageListener rejectFranko = (previous, current) -> {
+            if (current != null && "Franko".equals(current.getLastName())) {
+                throw new IllegalStateException("rejected");
+            }
+        };
+        UserStorage rejecting = new ConcurrentUserStorage(List.of(rejectFranko), dictionary);
+        rejecting.put(user(1L, "Shevchenko", "Kyiv"));
+        User previous = rejecting.get(1L).orElseThrow();
+
+        assertThrows(IllegalStateException.class, () -> rejecting.put(user(1L, "Franko", "Lviv")));
+
+        assertEquals(3, dictionary.size());
+        assertSame(previous, rejecting.get(1L).orElseThrow());
+        assertEquals("Shevchenko", previous.getLastName());
+        assertEquals("Kyiv", previous.getAddress());
+    }
+
+    @Test
+    public void load_LoadedUsers_ShareOneInstanceAndCountEveryReference_Ok() {
+        storage.load(user(1L, new String("Shevchenko"), "Kyiv"));
+        storage.load(user(2L, new String("Shevchenko"), "Kyiv"));
+
+        assertSame(storage.get(1L).orElseThrow().getLastName(), storage.get(2L).orElseThrow().getLastName());
+        storage.remove(1L);
+        assertEquals(3, dictionary.size());
+    }
+
+    private User user(long id, String lastName, String address) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@gmail.com")
+                .firstName("Taras")
+                .lastName(lastName)
+                .birthDate(LocalDate.of(1814, Month.MARCH, 9))
+                .address(address)
+                .build();
+    }
+}
@@ -0,0 +1,250 @@
+package com.app.project.storage.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.app.project.model.User;
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.EmailIndex;
+import com.app.project.storage.UserStorage;
+import com.app.project.storage.UserStorageListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+class SnapshotManagerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void takeSnapshot_ThenRestart_LoadsSnapshotAndLogTail() throws Exception {
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, snapshots.loadLatest(storage));
+            for (int i = 1; i <= 100; i++) {
+                storage.put(user(storage.nextId()));
+            }
+            storage.remove(100L);
+            snapshots.takeSnapshot(storage, wal);
+            storage.put(user(storage.nextId()));
+            storage.remove(1L);
+            storage.computeIfPresent(2L, u -> u.toBuilder().email("changed@gmail.com").build());
+        }
+
+        EmailIndex emailIndex = new EmailIndex();
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(emailIndex, new BirthDateIndex(), wal));
+            long lsn = snapshots.loadLatest(storage);
+            assertEquals(99, storage.size());
+            wal.recover(storage, lsn);
+            storage.reindex();
+
+            assertEquals(101, lsn);
+            assertEquals(99, storage.size());
+            assertFalse(storage.contains(1L));
+            assertFalse(storage.contains(100L));
+            assertEquals(2L, emailIndex.findId("changed@gmail.com").orElseThrow());
+            assertEquals(102L, storage.nextId());
+            assertEquals(1, count(directory.resolve("wal")));
+            assertEquals(1, count(directory.resolve("snapshots")));
+        }
+    }
+
+    @Test
+    public void takeSnapshot_UserLargerThanBuffer_LoadedAfterRestart() throws Exception {
+        String address = "a".repeat(5 * 1024 * 1024);
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, snapshots.loadLatest(storage));
+            storage.put(user(storage.nextId()));
+            storage.put(user(storage.nextId()).toBuilder().address(address).build());
+            storage.put(user(storage.nextId()));
+            snapshots.takeSnapshot(storage, wal);
+        }
+
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, snapshots.loadLatest(storage));
+
+            assertEquals(3, storage.size());
+            assertEquals(address, storage.get(2L).orElseThrow().getAddress());
+            assertEquals("user3@gmail.com", storage.get(3L).orElseThrow().getEmail());
+        }
+    }
+
+    @Test
+    public void takeSnapshot_WhileWritersRun_RestartMatchesFinalState() throws Exception {
+        UserStorage original;
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            original = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(original, 0L);
+            for (int i = 1; i <= 2_000; i++) {
+                original.put(user(original.nextId()));
+            }
+            AtomicBoolean running = new AtomicBoolean(true);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                UserStorage storage = original;
+                Future<?> writer = executor.submit(() -> {
+                    long i = 0;
+                    while (running.get()) {
+                        long id = 1 + i++ % 2_000;
+                        if (i % 3 == 0) {
+                            storage.remove(id);
+                        } else if (!storage.contains(id)) {
+                            storage.put(user(id));
+                        } else {
+                            storage.computeIfPresent(id, u -> u.toBuilder().firstName("v" + id).build());
+                        }
+                    }
+                });
+                for (int i = 0; i < 3; i++) {
+                    snapshots.takeSnapshot(storage, wal);
+                }
+                running.set(false);
+                writer.get(1, TimeUnit.MINUTES);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            UserStorage restored = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(restored, snapshots.loadLatest(restored));
+
+            assertEquals(original.values().toList(), restored.values().toList());
+        }
+    }
+
+    @Test
+    public void takeSnapshot_WriteLoggedButNotYetVisible_KeptAfterRestart() throws Exception {
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        UserStorageListener stallAfterLog = (previous, current) -> {
+            if (current != null && "logged".equals(current.getFirstName())) {
+                logged.countDown();
+                await(proceed);
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal, stallAfterLog));
+            wal.recover(storage, 0L);
+            for (int i = 1; i <= 10; i++) {
+                storage.put(user(storage.nextId()));
+            }
+            Future<?> writer = executor.submit(() ->
+                    storage.computeIfPresent(5L, u -> u.toBuilder().firstName("logged").build()));
+            await(logged);
+            Future<Long> snapshot = executor.submit(() -> snapshots.takeSnapshot(storage, wal));
+            Thread.sleep(200);
+            proceed.countDown();
+            writer.get(1, TimeUnit.MINUTES);
+            assertEquals(11L, snapshot.get(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            UserStorage restored = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(restored, snapshots.loadLatest(restored));
+
+            assertEquals("logged", restored.get(5L).orElseThrow().getFirstName());
+        }
+    }
+
+    @Test
+    public void takeSnapshot_WhileManyWritersRun_RestartMatchesFinalState() throws Exception {
+        int writers = 4;
+        UserStorage original;
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            original = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(original, 0L);
+            for (int i = 1; i <= 1_000; i++) {
+                original.put(user(original.nextId()));
+            }
+            AtomicBoolean running = new AtomicBoolean(true);
+            ExecutorService executor = Executors.newFixedThreadPool(writers);
+            try {
+                UserStorage storage = original;
+                List<Future<?>> futures = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    futures.add(executor.submit(() -> {
+                        while (running.get()) {
+                            long id = ThreadLocalRandom.current().nextLong(1, 1_001);
+                            storage.computeIfPresent(id, u -> u.toBuilder()
+                                    .firstName("v" + (u.getVersion() + 1))
+                                    .build());
+                        }
+                    }));
+                }
+                for (int i = 0; i < 20; i++) {
+                    snapshots.takeSnapshot(storage, wal);
+                }
+                running.set(false);
+                for (Future<?> future : futures) {
+                    future.get(1, TimeUnit.MINUTES);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        try (WriteAheadLog wal = openWal(); SnapshotManager snapshots = openSnapshots()) {
+            UserStorage restored = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(restored, snapshots.loadLatest(restored));
+
+            assertEquals(original.values().toList(), restored.values().toList());
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(1, TimeUnit.MINUTES));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long count(Path path) throws IOException {
+        try (Stream<Path> files = Files.list(path)) {
+            return files.count();
+        }
+    }
+
+    private WriteAheadLog openWal() throws IOException {
+        return new WriteAheadLog(directory.resolve("wal"), WalSyncMode.INTERVAL, 5, 100);
+    }
+
+    private SnapshotManager openSnapshots() throws IOException {
+        return new SnapshotManager(directory.resolve("snapshots"), 60_000);
+    }
+
+    private User user(long id) {
+        return User.builder()
+                .id(id)
+                .email("user" + id + "@gmail.com")
+                .firstName("Ім'я" + id)
+                .lastName("lastName" + id)
+                .birthDate(LocalDate.of(1950, Month.JANUARY, 1).plusDays(id * 17))
+                .phoneNumber(id % 3 == 0 ? null : "+38050" + id)
+                .build();
+    }
+}
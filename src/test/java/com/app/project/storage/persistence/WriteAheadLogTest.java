@@ -0,0 +1,337 @@
+package com.app.project.storage.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.app.project.model.User;
+import com.app.project.storage.BirthDateIndex;
+import com.app.project.storage.ConcurrentUserStorage;
+import com.app.project.storage.EmailIndex;
+import com.app.project.storage.UserStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+class WriteAheadLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void recover_AfterRestart_RebuildsUsersSequenceAndIndexes() throws IOException {
+        Path path = directory.resolve("wal");
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            for (int i = 1; i <= 5; i++) {
+                storage.put(user(storage.nextId(), "User" + i + "@gmail.com"));
+            }
+            storage.computeIfPresent(2L, u -> u.toBuilder().firstName("changed").build());
+            storage.remove(3L);
+            storage.remove(5L);
+        }
+
+        EmailIndex emailIndex = new EmailIndex();
+        BirthDateIndex birthDateIndex = new BirthDateIndex();
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(emailIndex, birthDateIndex, wal));
+            wal.recover(storage, 0L);
+            storage.reindex();
+
+            assertEquals(3, storage.size());
+            assertEquals("changed", storage.get(2L).orElseThrow().getFirstName());
+            assertFalse(storage.contains(3L));
+            assertEquals(6L, storage.nextId());
+            assertEquals(4L, emailIndex.findId("user4@gmail.com").orElseThrow());
+            assertEquals(List.of(1L, 2L, 4L), birthDateIndex.findIdsBetween(
+                    LocalDate.of(1979, Month.JANUARY, 1), LocalDate.of(1981, Month.JANUARY, 1)).toList());
+        }
+    }
+
+    @Test
+    public void recover_TornTrailingRecord_TruncatesAndKeepsAppending() throws IOException {
+        Path path = directory.resolve("wal");
+        try (WriteAheadLog wal = open(path, WalSyncMode.RECORDS)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            storage.put(user(1L, "User1@gmail.com"));
+            storage.put(user(2L, "User2@gmail.com"));
+        }
+        Path segment = segment(path);
+        long intactSize = Files.size(segment);
+        byte[] torn = Files.readAllBytes(segment);
+        Files.write(segment, Arrays.copyOfRange(torn, torn.length / 2, torn.length - 3),
+                StandardOpenOption.APPEND);
+
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            assertEquals(2, storage.size());
+            assertEquals(intactSize, Files.size(segment));
+            storage.put(user(3L, "User3@gmail.com"));
+        }
+
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            assertEquals(3, storage.size());
+            assertTrue(storage.contains(3L));
+        }
+    }
+
+    @Test
+    public void batch_WriteMode_SyncsOnceWhenOutermostBatchEnds() throws IOException {
+        Path path = directory.resolve("wal");
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            storage.put(user(1L, "User1@gmail.com"));
+            assertEquals(1L, wal.durableLsn());
+
+            storage.batch(() -> {
+                storage.put(user(2L, "User2@gmail.com"));
+                storage.batch(() -> storage.put(user(3L, "User3@gmail.com")));
+                storage.remove(1L);
+                assertEquals(1L, wal.durableLsn());
+            });
+            assertEquals(4L, wal.durableLsn());
+        }
+
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            assertEquals(List.of(2L, 3L), storage.values().map(User::getId).toList());
+        }
+    }
+
+    @Test
+    public void put_RecordOverLimit_RejectedBeforeWrite() throws IOException {
+        Path path = directory.resolve("wal");
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            storage.put(user(1L, "User1@gmail.com"));
+            long size = Files.size(segment(path));
+
+            User oversized = user(2L, "User2@gmail.com").toBuilder().address("a".repeat(16 * 1024 * 1024)).build();
+            assertThrows(IllegalArgumentException.class, () -> storage.put(oversized));
+            assertFalse(storage.contains(2L));
+            assertEquals(size, Files.size(segment(path)));
+            storage.put(user(3L, "User3@gmail.com"));
+        }
+
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            assertEquals(List.of(1L, 3L), storage.values().map(User::getId).toList());
+        }
+    }
+
+    @Test
+    public void put_WriteFailsPartWay_CutsPartialRecordAndKeepsAppending() throws IOException {
+        Path path = directory.resolve("wal");
+        try (FailingWriteAheadLog wal = new FailingWriteAheadLog(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            storage.put(user(1L, "User1@gmail.com"));
+            long size = Files.size(segment(path));
+
+            wal.channel.failWrites = true;
+            assertThrows(UncheckedIOException.class, () -> storage.put(user(2L, "User2@gmail.com")));
+            wal.channel.failWrites = false;
+            assertFalse(storage.contains(2L));
+            assertEquals(size, Files.size(segment(path)));
+            storage.put(user(3L, "User3@gmail.com"));
+        }
+
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            assertEquals(List.of(1L, 3L), storage.values().map(User::getId).toList());
+        }
+    }
+
+    @Test
+    public void put_SyncFails_DiscardsUnsyncedRecordsAndRefusesAppends() throws IOException {
+        Path path = directory.resolve("wal");
+        try (FailingWriteAheadLog wal = new FailingWriteAheadLog(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            storage.put(user(1L, "User1@gmail.com"));
+
+            wal.channel.failForce = true;
+            assertThrows(UncheckedIOException.class, () -> storage.put(user(2L, "User2@gmail.com")));
+            wal.channel.failForce = false;
+            assertFalse(storage.contains(2L));
+            assertThrows(UncheckedIOException.class, () -> storage.put(user(3L, "User3@gmail.com")));
+            assertFalse(storage.contains(3L));
+        }
+
+        try (WriteAheadLog wal = open(path, WalSyncMode.WRITE)) {
+            UserStorage storage = new ConcurrentUserStorage(List.of(wal));
+            wal.recover(storage, 0L);
+            assertEquals(List.of(1L), storage.values().map(User::getId).toList());
+            storage.put(user(4L, "User4@gmail.com"));
+            assertEquals(2L, wal.durableLsn());
+        }
+    }
+
+    private Path segment(Path path) throws IOException {
+        try (Stream<Path> segments = Files.list(path)) {
+            return segments.findFirst().orElseThrow();
+        }
+    }
+
+    private WriteAheadLog open(Path path, WalSyncMode syncMode) throws IOException {
+        return new WriteAheadLog(path, syncMode, 10, 2);
+    }
+
+    private User user(long id, String email) {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .firstName("firstName" + id)
+                .lastName("lastName" + id)
+                .birthDate(LocalDate.of(1980, Month.MAY, (int) id))
+                .address(id % 2 == 0 ? null : "Kyiv, Khreshchatyk " + id)
+                .build();
+    }
+
+    private static final class FailingWriteAheadLog extends WriteAheadLog {
+        private FailingFileChannel channel;
+
+        private FailingWriteAheadLog(Path path, WalSyncMode syncMode) throws IOException {
+            super(path, syncMode, 10, 2);
+        }
+
+        @Override
+        FileChannel openSegment(long firstLsn) throws IOException {
+            channel = new FailingFileChannel(super.openSegment(firstLsn));
+            return channel;
+        }
+    }
+
+    /**
+     * Writes half of what it is given before failing while {@code failWrites} is set, and
+     * fails every fsync while {@code failForce} is set.
+     */
+    private static final class FailingFileChannel extends FileChannel {
+        private final FileChannel delegate;
+        private volatile boolean failWrites;
+        private volatile boolean failForce;
+
+        private FailingFileChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWrites) {
+                delegate.write(src.slice(src.position(), src.remaining() / 2));
+                throw new IOException("No space left on device");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("Input/output error");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
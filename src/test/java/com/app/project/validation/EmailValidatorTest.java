@@ -0,0 +1,77 @@
+package com.app.project.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+class EmailValidatorTest {
+    private static final Pattern REFERENCE = Pattern.compile("^(?=.{1,64}@)[A-Za-z0-9_-]+(\\.[A-Za-z0-9_-]+)"
+            + "*@[^-][A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)*(\\.[A-Za-z]{2,})$");
+    private static final String[] ALPHABET = {"a", "Z", "0", "9", "_", "-", ".", ".", "@", "x", "co",
+        "\n", "\r", " ", "é", "😀", "\uD83D", "\uDE00", " "};
+    private final EmailValidator validator = new EmailValidator();
+
+    @Test
+    public void isValid_KnownAddresses_MatchReference() {
+        List<String> emails = List.of("", "@", "a@b.co", "a@bb.co", "a@mail.com", "User1@gmail.com",
+                "john.smith_42@mail.example.com", "a.@mail.com", ".a@mail.com", "a..b@mail.com",
+                "a@-mail.com", "a@.mail.com", "a@@mail.com", "a@m.ail.com", "a@mail.c", "a@mail.c0m",
+                "a@mail..com", "a@mail.com.", "a@mail.com\n", "a@\nmail.com", "a@😀mail.com",
+                "a@\uD83Dmail.com", "a@mail-.co-m.com", "a@m-.com", "a".repeat(64) + "@mail.com",
+                "a".repeat(65) + "@mail.com", "a@mail.com@mail.com", "a b@mail.com", "a@mail.com ");
+
+        for (String email : emails) {
+            assertEquals(REFERENCE.matcher(email).matches(), validator.isValid(email, null), email);
+        }
+    }
+
+    @Test
+    public void isValid_RandomInputs_MatchReference() {
+        Random random = new Random(7);
+        int accepted = 0;
+        for (int i = 0; i < 500_000; i++) {
+            String email = randomEmail(random);
+            boolean expected = REFERENCE.matcher(email).matches();
+            assertEquals(expected, validator.isValid(email, null), email);
+            accepted += expected ? 1 : 0;
+        }
+        assertTrue(accepted > 10_000, "too few valid addresses generated: " + accepted);
+    }
+
+    @Test
+    public void isValid_NullOrLongLocalPart_NotOk() {
+        assertFalse(validator.isValid(null, null));
+        assertTrue(validator.isValid("a".repeat(64) + "@mail.com", null));
+        assertFalse(validator.isValid("a".repeat(65) + "@mail.com", null));
+    }
+
+    private String randomEmail(Random random) {
+        StringBuilder email = new StringBuilder();
+        if (random.nextInt(10) == 0) {
+            email.append("a".repeat(60 + random.nextInt(8)));
+        }
+        int localTokens = random.nextInt(6);
+        for (int i = 0; i < localTokens; i++) {
+            email.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        if (random.nextInt(4) != 0) {
+            email.append(random.nextBoolean() ? "user.name" : "x").append('@');
+        }
+        int domainTokens = random.nextInt(10);
+        for (int i = 0; i < domainTokens; i++) {
+            email.append(random.nextInt(3) == 0 ? ALPHABET[random.nextInt(ALPHABET.length)] : "mail");
+            if (random.nextBoolean()) {
+                email.append('.');
+            }
+        }
+        if (random.nextBoolean()) {
+            email.append(random.nextBoolean() ? "com" : "c");
+        }
+        return email.toString();
+    }
+}